@@ -1,11 +1,20 @@
 package com.techcourse;
 
+import com.techcourse.db.InMemoryUserRepository;
 import org.apache.catalina.startup.Tomcat;
 
+import java.nio.file.Path;
+
 public class Application {
 
     public static void main(String[] args) {
+        InMemoryUserRepository.open(Path.of("work", "users"));
         final var tomcat = new Tomcat();
-        tomcat.start();
+        tomcat.setControllerPackage(Application.class.getPackageName());
+        try {
+            tomcat.start();
+        } finally {
+            InMemoryUserRepository.close();
+        }
     }
 }
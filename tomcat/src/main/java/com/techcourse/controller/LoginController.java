@@ -0,0 +1,69 @@
+package com.techcourse.controller;
+
+import com.techcourse.db.InMemoryUserRepository;
+import com.techcourse.model.User;
+import org.apache.catalina.Controller;
+import org.apache.catalina.annotation.RequestMapping;
+import org.apache.catalina.mapper.MappingData;
+import org.apache.catalina.session.StandardManager;
+import org.apache.catalina.session.StandardSession;
+import org.apache.coyote.http11.HeaderName;
+import org.apache.coyote.http11.HttpRequest;
+import org.apache.coyote.http11.HttpResponse;
+import org.apache.tomcat.util.http.Cookies;
+import org.apache.tomcat.util.http.Parameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@code GET /login?account=..&password=..}: logs the user in with a new
+ * session and sends them to the index page, or to the 401 page if the
+ * account or password is wrong. Without credentials it shows the login
+ * page, unless the client's session is already logged in.
+ */
+@RequestMapping(value = "/login", method = "GET")
+public class LoginController implements Controller {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginController.class);
+
+    static final String USER_ATTRIBUTE = "user";
+
+    private final StandardManager manager;
+
+    public LoginController(final StandardManager manager) {
+        this.manager = manager;
+    }
+
+    @Override
+    public void service(final HttpRequest request, final HttpResponse response, final MappingData mapping) {
+        final String sessionId = Cookies.getValue(request.getHeaders().getHeader(HeaderName.COOKIE),
+                StandardManager.SESSION_COOKIE_NAME);
+        final StandardSession current = manager.findSession(sessionId);
+        if (current != null && current.getAttribute(USER_ATTRIBUTE) != null) {
+            current.access();
+            response.sendRedirect("/index.html");
+            return;
+        }
+        final Map<String, String> parameters = Parameters.parse(request.getQueryString());
+        final String account = parameters.get("account");
+        final String password = parameters.get("password");
+        if (account == null || password == null) {
+            response.sendRedirect("/login.html");
+            return;
+        }
+        final Optional<User> user = InMemoryUserRepository.findByAccount(account);
+        if (user.isEmpty() || !user.get().checkPassword(password)) {
+            response.sendRedirect("/401.html");
+            return;
+        }
+        log.info("user logged in: {}", account);
+        final StandardSession session = manager.createSession();
+        session.setAttribute(USER_ATTRIBUTE, user.get());
+        response.setHeader(HeaderName.SET_COOKIE,
+                StandardManager.SESSION_COOKIE_NAME + "=" + session.getId() + "; Path=/; HttpOnly");
+        response.sendRedirect("/index.html");
+    }
+}
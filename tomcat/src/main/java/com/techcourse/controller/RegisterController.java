@@ -0,0 +1,56 @@
+package com.techcourse.controller;
+
+import com.techcourse.db.InMemoryUserRepository;
+import com.techcourse.model.User;
+import com.techcourse.security.PasswordEncoder;
+import org.apache.catalina.Controller;
+import org.apache.catalina.annotation.RequestMapping;
+import org.apache.catalina.mapper.MappingData;
+import org.apache.coyote.http11.HttpRequest;
+import org.apache.coyote.http11.HttpResponse;
+import org.apache.tomcat.util.http.Parameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@code POST /register} with the form fields {@code account},
+ * {@code password} and {@code email}: saves a new user with a hashed
+ * password and sends them to the index page. A missing field or an account
+ * or email that is taken sends them back to the form.
+ */
+@RequestMapping(value = "/register", method = "POST")
+public class RegisterController implements Controller {
+
+    private static final Logger log = LoggerFactory.getLogger(RegisterController.class);
+
+    @Override
+    public void service(final HttpRequest request, final HttpResponse response, final MappingData mapping) {
+        final Map<String, String> form = Parameters.parse(new String(request.getBody(), StandardCharsets.UTF_8));
+        final String account = form.get("account");
+        final String password = form.get("password");
+        final String email = form.get("email");
+        // 이미 쓰인 계정이면 비싼 해시를 건너뛴다. 최종 판정은 register 가 원자적으로 한다.
+        if (isBlank(account) || isBlank(password) || isBlank(email)
+                || InMemoryUserRepository.findByAccount(account).isPresent()
+                || InMemoryUserRepository.findByEmail(email).isPresent()) {
+            response.sendRedirect("/register.html");
+            return;
+        }
+        final Optional<User> user = InMemoryUserRepository.register(
+                new User(account, PasswordEncoder.getInstance().encode(password), email));
+        if (user.isEmpty()) {
+            response.sendRedirect("/register.html");
+            return;
+        }
+        log.info("user registered: {}", account);
+        response.sendRedirect("/index.html");
+    }
+
+    private static boolean isBlank(final String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -2,26 +2,296 @@ package com.techcourse.db;
 
 import com.techcourse.model.User;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Users by account. Without {@link #open(Path)} they live only in memory.
+ * After it, every save is also written to a {@link UserJournal} and returns
+ * once it is on disk, and the users are recovered on the next open.
+ * <p>
+ * Users are also indexed by id and by email. The indexes are updated inside
+ * the primary map's {@code compute} for the account, so saves of the same
+ * account change them one at a time and never leave a stale entry behind.
+ * A save is visible in every index by the time it returns. Emails are
+ * expected to be unique; when two accounts share one, the index points to
+ * the one saved last.
+ * <p>
+ * A save is queued for the log only after the map has published it, so a
+ * snapshot of the map taken once the record is written always contains it.
+ * A user needs an account, a password and an email. A save that cannot be
+ * queued for the log is taken back out of the map and the indexes.
+ */
 public class InMemoryUserRepository {
 
+    // "password" 를 기본 작업 계수로 해시한 값으로, 시작할 때마다 해시하지 않도록 미리 계산해 두었다.
+    private static final String SEED_PASSWORD =
+            "pbkdf2-sha256$310000$zjK/9ZVYPCJR+L3vJ7NbKQ$2sBBko67eoS2ncriCwHwowHff71yvN6TCSJxJpC41lM";
+
     private static final Map<String, User> database = new ConcurrentHashMap<>();
+    private static final Map<Long, User> byId = new ConcurrentHashMap<>();
+    private static final Map<String, User> byEmail = new ConcurrentHashMap<>();
+    private static final AtomicLong sequence = new AtomicLong();
+    private static volatile UserJournal journal;
 
     static {
-        final User user = new User(1L, "gugu", "password", "hkkang@woowahan.com");
-        database.put(user.getAccount(), user);
+        seed();
+    }
+
+    /**
+     * Save the user, giving it the next id if it has none.
+     *
+     * @return the saved user
+     */
+    public static User save(User user) {
+        checkFields(user);
+        final User saved = user.getId() == null ? withId(user, sequence.incrementAndGet()) : user;
+        sequence.accumulateAndGet(saved.getId(), Math::max);
+        final CompletableFuture<Void> durable = store(saved, journal);
+        if (durable != null) {
+            await(durable);
+        }
+        return saved;
     }
 
-    public static void save(User user) {
-        database.put(user.getAccount(), user);
+    /**
+     * Save a new user with the next id, unless its account or email is
+     * already taken. Both are claimed inside the account's {@code compute},
+     * so of concurrent registrations of the same account or email exactly
+     * one wins and the others change nothing.
+     *
+     * @return the saved user, or empty if the account or email is taken
+     */
+    public static Optional<User> register(User user) {
+        checkFields(user);
+        final User saved = withId(user, sequence.incrementAndGet());
+        final User stored = database.compute(saved.getAccount(), (account, previous) -> {
+            if (previous != null || byEmail.putIfAbsent(saved.getEmail(), saved) != null) {
+                return previous;
+            }
+            byId.put(saved.getId(), saved);
+            return saved;
+        });
+        if (stored != saved) {
+            return Optional.empty();
+        }
+        final CompletableFuture<Void> durable = log(saved, null, journal);
+        if (durable != null) {
+            await(durable);
+        }
+        return Optional.of(saved);
+    }
+
+    /**
+     * Save the users, giving those without an id the next ids in order. The
+     * ids are reserved at once, and with a log the call waits for the disk
+     * once for all of them.
+     *
+     * @return the saved users, in the same order
+     */
+    public static List<User> saveAll(Collection<User> users) {
+        users.forEach(InMemoryUserRepository::checkFields);
+        final int unnumbered = (int) users.stream().filter(user -> user.getId() == null).count();
+        long next = sequence.getAndAdd(unnumbered) + 1;
+        final List<User> saved = new ArrayList<>(users.size());
+        long maxId = 0;
+        for (final User user : users) {
+            final User numbered = user.getId() == null ? withId(user, next++) : user;
+            maxId = Math.max(maxId, numbered.getId());
+            saved.add(numbered);
+        }
+        final long highest = maxId;
+        sequence.accumulateAndGet(highest, Math::max);
+
+        final UserJournal current = journal;
+        final List<CompletableFuture<Void>> durable = new ArrayList<>(saved.size());
+        for (final User user : saved) {
+            final CompletableFuture<Void> appended = store(user, current);
+            if (appended != null) {
+                durable.add(appended);
+            }
+        }
+        if (!durable.isEmpty()) {
+            await(CompletableFuture.allOf(durable.toArray(CompletableFuture[]::new)));
+        }
+        return saved;
     }
 
     public static Optional<User> findByAccount(String account) {
         return Optional.ofNullable(database.get(account));
     }
 
+    public static Optional<User> findById(Long id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    public static Optional<User> findByEmail(String email) {
+        return Optional.ofNullable(byEmail.get(email));
+    }
+
+    /**
+     * @return the users with these accounts, in the same order, leaving out
+     * accounts that have no user
+     */
+    public static List<User> findAllByAccounts(Collection<String> accounts) {
+        final List<User> users = new ArrayList<>(accounts.size());
+        for (final String account : accounts) {
+            final User user = database.get(account);
+            if (user != null) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Put the user in the map and the indexes and, with a log, queue it there.
+     *
+     * @return when the user is on disk, or {@code null} without a log
+     */
+    private static CompletableFuture<Void> store(User saved, UserJournal current) {
+        final var previous = new AtomicReference<User>();
+        database.compute(saved.getAccount(), (account, replaced) -> {
+            previous.set(replaced);
+            index(replaced, saved);
+            return saved;
+        });
+        return log(saved, previous.get(), current);
+    }
+
+    /**
+     * Queue the account's current user, which is {@code saved} or a later
+     * save, once the map has published it. Queuing inside a second
+     * {@code compute} keeps the log in the order of the map for each
+     * account. A save that cannot be queued is taken back out unless a later
+     * one already replaced it.
+     *
+     * @return when the account's current user is on disk, or {@code null}
+     * without a log
+     */
+    private static CompletableFuture<Void> log(User saved, User previous, UserJournal current) {
+        if (current == null) {
+            return null;
+        }
+        // 맵에 보인 뒤에 로그에 넣어야 스냅숏이 로그에서 지운 기록을 맵에서 놓치지 않는다.
+        final var durable = new AtomicReference<CompletableFuture<Void>>();
+        try {
+            database.computeIfPresent(saved.getAccount(), (account, latest) -> {
+                durable.set(current.append(latest));
+                return latest;
+            });
+        } catch (RuntimeException e) {
+            database.computeIfPresent(saved.getAccount(), (account, latest) -> {
+                if (latest != saved) {
+                    return latest;
+                }
+                unindex(saved, previous);
+                return previous;
+            });
+            throw e;
+        }
+        return durable.get();
+    }
+
+    private static void index(User previous, User saved) {
+        if (previous != null) {
+            if (!previous.getId().equals(saved.getId())) {
+                byId.remove(previous.getId(), previous);
+            }
+            if (!previous.getEmail().equals(saved.getEmail())) {
+                byEmail.remove(previous.getEmail(), previous);
+            }
+        }
+        byId.put(saved.getId(), saved);
+        byEmail.put(saved.getEmail(), saved);
+    }
+
+    private static void unindex(User saved, User previous) {
+        if (previous != null) {
+            index(saved, previous);
+            return;
+        }
+        byId.remove(saved.getId(), saved);
+        byEmail.remove(saved.getEmail(), saved);
+    }
+
+    private static void checkFields(User user) {
+        if (user.getAccount() == null || user.getPassword() == null || user.getEmail() == null) {
+            throw new IllegalArgumentException("account, password and email are required: " + user.getAccount());
+        }
+    }
+
+    private static User withId(User user, long id) {
+        return new User(id, user.getAccount(), user.getPassword(), user.getEmail());
+    }
+
+    /**
+     * Replace the users in memory with those recovered from
+     * {@code directory}, and log every later save there.
+     */
+    public static synchronized void open(Path directory) {
+        close();
+        database.clear();
+        byId.clear();
+        byEmail.clear();
+        sequence.set(0);
+        try {
+            journal = UserJournal.open(directory, UserJournal.DEFAULT_SNAPSHOT_THRESHOLD,
+                    InMemoryUserRepository::restore, database::values);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (database.isEmpty()) {
+            seed();
+        }
+    }
+
+    /**
+     * Flush the log and stop logging. The users stay in memory.
+     */
+    public static synchronized void close() {
+        final UserJournal current = journal;
+        if (current == null) {
+            return;
+        }
+        journal = null;
+        try {
+            current.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void seed() {
+        save(new User(1L, "gugu", SEED_PASSWORD, "hkkang@woowahan.com"));
+    }
+
+    private static void restore(User user) {
+        store(user, null);
+        sequence.accumulateAndGet(user.getId(), Math::max);
+    }
+
+    private static void await(CompletableFuture<?> durable) {
+        try {
+            durable.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw new UncheckedIOException(cause);
+            }
+            throw e;
+        }
+    }
+
     private InMemoryUserRepository() {}
 }
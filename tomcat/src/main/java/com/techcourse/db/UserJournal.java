@@ -0,0 +1,361 @@
+package com.techcourse.db;
+
+import com.techcourse.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of saved users, with snapshots, that lets
+ * {@link InMemoryUserRepository} survive restarts.
+ * <p>
+ * Appends are queued to one writer thread. It writes every queued record
+ * with one write and one fsync, then completes all of them at once. Under
+ * load many saves share one fsync, so throughput is bounded by the disk's
+ * bandwidth and not by its sync latency.
+ * <p>
+ * Once the log grows past the snapshot threshold, the writer writes all
+ * users to a snapshot file, moves it into place atomically and truncates the
+ * log. Recovery reads the snapshot and replays the log after it. Replaying
+ * is idempotent, so a crash between the move and the truncation is
+ * harmless. Both files are sequences of records:
+ * <pre>
+ * int payloadLength, int crc32c(payload), payload = long id, UTF account, UTF password, UTF email
+ * </pre>
+ * A torn or corrupt record ends the log. It is cut off on recovery.
+ */
+final class UserJournal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(UserJournal.class);
+
+    static final String LOG_FILE = "users.log";
+    static final String SNAPSHOT_FILE = "users.snapshot";
+    static final long DEFAULT_SNAPSHOT_THRESHOLD = 16 * 1024 * 1024;
+
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_BATCH = 4096;
+    private static final Append CLOSE = new Append(null, null);
+
+    private final Path directory;
+    private final FileChannel channel;
+    private final Supplier<Collection<User>> users;
+    private final long snapshotThreshold;
+    private final BlockingQueue<Append> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+    private long syncs;
+    private long records;
+
+    private UserJournal(final Path directory, final FileChannel channel, final Supplier<Collection<User>> users,
+                        final long snapshotThreshold) {
+        this.directory = directory;
+        this.channel = channel;
+        this.users = users;
+        this.snapshotThreshold = snapshotThreshold;
+        this.writer = new Thread(this::run, "user-journal");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Recover the users of {@code directory} and open its log for appending.
+     *
+     * @param recovered receives the users of the snapshot, then those of the
+     *                  log, in the order they were saved
+     * @param users     all current users, for writing snapshots
+     */
+    static UserJournal open(final Path directory, final long snapshotThreshold, final Consumer<User> recovered,
+                            final Supplier<Collection<User>> users) throws IOException {
+        Files.createDirectories(directory);
+        final Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        int count = 0;
+        if (Files.isRegularFile(snapshot)) {
+            try (final var in = Files.newInputStream(snapshot)) {
+                count += replay(in, recovered);
+            }
+        }
+        final FileChannel channel = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final long end = replay(channel, recovered);
+            if (end < channel.size()) {
+                log.warn("cutting off {} bytes of torn records at the end of {}", channel.size() - end, LOG_FILE);
+                channel.truncate(end);
+                channel.force(true);
+            }
+            channel.position(end);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        log.info("recovered users from {} ({} from the snapshot, log of {} bytes)", directory, count,
+                channel.size());
+        final var journal = new UserJournal(directory, channel, users, snapshotThreshold);
+        journal.writer.start();
+        return journal;
+    }
+
+    private static int replay(final InputStream in, final Consumer<User> recovered) throws IOException {
+        final var data = new DataInputStream(new BufferedInputStream(in));
+        int count = 0;
+        while (true) {
+            final int length;
+            try {
+                length = data.readInt();
+            } catch (EOFException e) {
+                return count;
+            }
+            final int crc = data.readInt();
+            final byte[] payload = data.readNBytes(length);
+            if (payload.length < length || crc(payload) != crc) {
+                throw new IOException("corrupt snapshot after " + count + " users");
+            }
+            recovered.accept(decode(payload));
+            count++;
+        }
+    }
+
+    /**
+     * @return the position after the last whole record
+     */
+    private static long replay(final FileChannel channel, final Consumer<User> recovered) throws IOException {
+        final long size = channel.size();
+        final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        long position = 0;
+        while (position + RECORD_HEADER_SIZE <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            final int length = header.getInt(0);
+            if (length < 0 || position + RECORD_HEADER_SIZE + length > size) {
+                break;
+            }
+            final ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + RECORD_HEADER_SIZE);
+            if (crc(payload.array()) != header.getInt(4)) {
+                break;
+            }
+            recovered.accept(decode(payload.array()));
+            position += RECORD_HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    /**
+     * Queue the user for the log.
+     *
+     * @return a future completed once the user is on disk
+     */
+    CompletableFuture<Void> append(final User user) {
+        if (closed) {
+            throw new IllegalStateException("user journal is closed");
+        }
+        final var append = new Append(record(user), new CompletableFuture<>());
+        queue.offer(append);
+        return append.durable;
+    }
+
+    private void run() {
+        final List<Append> batch = new ArrayList<>();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            running = !batch.remove(CLOSE);
+            write(batch);
+            batch.clear();
+        }
+        // 닫힌 뒤에 늦게 들어온 항목은 기다리는 쪽이 멈추지 않도록 실패시킨다.
+        queue.drainTo(batch);
+        batch.forEach(append -> append.durable.completeExceptionally(
+                new IllegalStateException("user journal is closed")));
+    }
+
+    private void write(final List<Append> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            final ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+            long length = 0;
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i] = ByteBuffer.wrap(batch.get(i).record);
+                length += buffers[i].remaining();
+            }
+            while (length > 0) {
+                length -= channel.write(buffers);
+            }
+            channel.force(false);
+            syncs++;
+            records += batch.size();
+            batch.forEach(append -> append.durable.complete(null));
+        } catch (IOException e) {
+            log.error("cannot append {} users to {}", batch.size(), LOG_FILE, e);
+            batch.forEach(append -> append.durable.completeExceptionally(e));
+            return;
+        }
+        try {
+            if (channel.size() > snapshotThreshold) {
+                snapshot();
+            }
+        } catch (IOException e) {
+            log.error("cannot write user snapshot in {}", directory, e);
+        }
+    }
+
+    /**
+     * Write every user to a new snapshot and empty the log. Runs on the
+     * writer thread, so no append lands in the log while it is cut.
+     * <p>
+     * The repository only appends a user it has already made visible to the
+     * supplier, so every record in the log being cut is in the snapshot,
+     * either as itself or as a later save of the same account. That later
+     * save's own record is still queued and will be logged afterwards, which
+     * replaying tolerates.
+     */
+    private void snapshot() throws IOException {
+        final Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        int count = 0;
+        try (final var out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            for (final User user : users.get()) {
+                final byte[] record = record(user);
+                if (buffer.remaining() < record.length) {
+                    writeFully(out, buffer.flip());
+                    buffer.clear();
+                }
+                if (buffer.remaining() < record.length) {
+                    writeFully(out, ByteBuffer.wrap(record));
+                } else {
+                    buffer.put(record);
+                }
+                count++;
+            }
+            writeFully(out, buffer.flip());
+            out.force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        final long logSize = channel.size();
+        channel.truncate(0);
+        channel.force(true);
+        log.info("wrote snapshot of {} users, dropped {} bytes of log", count, logSize);
+    }
+
+    private static void writeFully(final FileChannel out, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    /**
+     * Write everything still queued, snapshot the users so the next start
+     * has no log to replay, and close the log.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        stopWriter();
+        try {
+            snapshot();
+        } finally {
+            channel.close();
+        }
+        log.info("closed user journal after {} users in {} syncs", records, syncs);
+    }
+
+    /**
+     * Write everything still queued and close the log, leaving it to be
+     * replayed by the next start.
+     */
+    void stop() throws IOException {
+        if (closed) {
+            return;
+        }
+        stopWriter();
+        channel.close();
+    }
+
+    private void stopWriter() {
+        closed = true;
+        queue.offer(CLOSE);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] record(final User user) {
+        final var bytes = new ByteArrayOutputStream(64);
+        try (final var out = new DataOutputStream(bytes)) {
+            out.writeInt(0);
+            out.writeInt(0);
+            out.writeLong(user.getId());
+            out.writeUTF(user.getAccount());
+            out.writeUTF(user.getPassword());
+            out.writeUTF(user.getEmail());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        final byte[] record = bytes.toByteArray();
+        final int length = record.length - RECORD_HEADER_SIZE;
+        final var crc = new CRC32C();
+        crc.update(record, RECORD_HEADER_SIZE, length);
+        ByteBuffer.wrap(record).putInt(length).putInt((int) crc.getValue());
+        return record;
+    }
+
+    private static int crc(final byte[] payload) {
+        final var crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static User decode(final byte[] payload) throws IOException {
+        try (final var in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            return new User(in.readLong(), in.readUTF(), in.readUTF(), in.readUTF());
+        }
+    }
+
+    private record Append(byte[] record, CompletableFuture<Void> durable) {
+    }
+}
@@ -1,6 +1,12 @@
 package com.techcourse.model;
 
-public class User {
+import com.techcourse.security.PasswordEncoder;
+
+import java.io.Serializable;
+
+public class User implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private final Long id;
     private final String account;
@@ -18,14 +24,32 @@ public class User {
         this(null, account, password, email);
     }
 
+    /**
+     * Check the raw password against the stored hash on the
+     * {@link PasswordEncoder}'s threads.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if too many passwords are waiting
+     */
     public boolean checkPassword(String password) {
-        return this.password.equals(password);
+        return PasswordEncoder.getInstance().matches(password, this.password);
+    }
+
+    public Long getId() {
+        return id;
     }
 
     public String getAccount() {
         return account;
     }
 
+    public String getPassword() {
+        return password;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
     @Override
     public String toString() {
         return "User{" +
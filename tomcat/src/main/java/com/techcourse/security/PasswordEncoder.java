@@ -0,0 +1,194 @@
+package com.techcourse.security;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashes and checks passwords with PBKDF2-HMAC-SHA256 on a small pool of its
+ * own threads. The pool and its queue are bounded, so a burst of logins
+ * uses at most that many CPUs and the connector threads keep serving
+ * everything else. Once the queue is full, {@link #encode} and
+ * {@link #matches} throw {@link RejectedExecutionException} at once, which
+ * the connector answers with {@code 503}.
+ * <p>
+ * An encoded password records its own iteration count and salt:
+ * {@code pbkdf2-sha256$iterations$salt$hash}, both in base64. Raising the
+ * work factor therefore leaves old hashes checkable, and
+ * {@link #needsRehash} tells when one should be replaced. A value without
+ * that prefix is taken to be a password stored before hashing and is
+ * compared as it is.
+ */
+public class PasswordEncoder implements AutoCloseable {
+
+    public static final int DEFAULT_ITERATIONS = 310_000;
+    public static final int DEFAULT_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PREFIX = "pbkdf2-sha256$";
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_BITS = 256;
+    private static final Base64.Encoder ENCODER = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getDecoder();
+
+    private static volatile PasswordEncoder instance;
+
+    private final int iterations;
+    private final ThreadPoolExecutor executor;
+    private final SecureRandom random = new SecureRandom();
+
+    public PasswordEncoder(final int iterations, final int threads, final int queueCapacity) {
+        this.iterations = iterations;
+        final var count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+            final var thread = new Thread(task, "password-encoder-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * @return the encoder the application uses, created with the defaults
+     * on first use
+     */
+    public static PasswordEncoder getInstance() {
+        PasswordEncoder current = instance;
+        if (current == null) {
+            synchronized (PasswordEncoder.class) {
+                if ((current = instance) == null) {
+                    instance = current = new PasswordEncoder(DEFAULT_ITERATIONS, DEFAULT_THREADS,
+                            DEFAULT_QUEUE_CAPACITY);
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Replace the encoder the application uses. The old one is shut down
+     * once the work already handed to it is done.
+     */
+    public static synchronized void setInstance(final PasswordEncoder encoder) {
+        final PasswordEncoder previous = instance;
+        instance = encoder;
+        if (previous != null && previous != encoder) {
+            previous.close();
+        }
+    }
+
+    /**
+     * @return the password hashed with a new salt
+     * @throws RejectedExecutionException if too many passwords are waiting
+     */
+    public String encode(final String rawPassword) {
+        final byte[] salt = new byte[SALT_LENGTH];
+        random.nextBytes(salt);
+        final byte[] hash = await(executor.submit(() -> pbkdf2(rawPassword, salt, iterations)));
+        return PREFIX + iterations + '$' + ENCODER.encodeToString(salt) + '$' + ENCODER.encodeToString(hash);
+    }
+
+    /**
+     * @return whether the raw password is the one that was encoded
+     * @throws RejectedExecutionException if too many passwords are waiting
+     */
+    public boolean matches(final String rawPassword, final String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return false;
+        }
+        if (!encodedPassword.startsWith(PREFIX)) {
+            return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                    encodedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+        final String[] parts = encodedPassword.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3) {
+            return false;
+        }
+        final int rounds;
+        final byte[] salt;
+        final byte[] expected;
+        try {
+            rounds = Integer.parseInt(parts[0]);
+            salt = DECODER.decode(parts[1]);
+            expected = DECODER.decode(parts[2]);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        final byte[] actual = await(executor.submit(() -> pbkdf2(rawPassword, salt, rounds)));
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    /**
+     * @return whether the encoded password is not hashed, or hashed with
+     * fewer iterations than this encoder uses
+     */
+    public boolean needsRehash(final String encodedPassword) {
+        if (encodedPassword == null || !encodedPassword.startsWith(PREFIX)) {
+            return true;
+        }
+        final int end = encodedPassword.indexOf('$', PREFIX.length());
+        try {
+            return end < 0 || Integer.parseInt(encodedPassword.substring(PREFIX.length(), end)) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static byte[] pbkdf2(final String password, final byte[] salt, final int iterations)
+            throws GeneralSecurityException {
+        final var spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static byte[] await(final Future<byte[]> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new IllegalStateException("interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("cannot hash password", e.getCause());
+        }
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "PasswordEncoder[iterations=" + iterations
+                + ", threads=" + executor.getMaximumPoolSize()
+                + ", queued=" + getQueueSize() + "]";
+    }
+}
@@ -0,0 +1,21 @@
+package org.apache.catalina;
+
+import org.apache.catalina.mapper.MappingData;
+import org.apache.coyote.http11.HttpRequest;
+import org.apache.coyote.http11.HttpResponse;
+
+/**
+ * Handles the requests that the {@link org.apache.catalina.mapper.Mapper}
+ * routes to it.
+ */
+@FunctionalInterface
+public interface Controller {
+
+    /**
+     * @param request  the request, only valid for the duration of this call
+     * @param response the response to fill in
+     * @param mapping  the route that matched, with its path variables; also
+     *                 only valid for the duration of this call
+     */
+    void service(HttpRequest request, HttpResponse response, MappingData mapping);
+}
@@ -0,0 +1,53 @@
+package org.apache.catalina;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An <b>Executor</b> runs the processors of accepted connections on behalf of
+ * a <code>Connector</code>, and reports how busy it is so that it can be sized
+ * under real load.
+ */
+public interface Executor extends java.util.concurrent.Executor {
+
+    /**
+     * Run the task, waiting at most {@code timeout} for a free worker. A
+     * thread that must not block, such as a poller serving many connections,
+     * passes zero.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException if no worker
+     *                                                         became free in time
+     */
+    default void execute(final Runnable task, final long timeout, final TimeUnit unit) {
+        execute(task);
+    }
+
+    /**
+     * @return the name of this executor, used as the worker thread name prefix
+     */
+    String getName();
+
+    /**
+     * @return the number of tasks currently being executed
+     */
+    int getActiveCount();
+
+    /**
+     * @return the number of tasks waiting for a free worker
+     */
+    int getQueueSize();
+
+    /**
+     * @return the number of tasks that have completed execution
+     */
+    long getCompletedTaskCount();
+
+    /**
+     * @return the number of tasks refused because the executor was saturated
+     */
+    long getRejectedCount();
+
+    /**
+     * Stop accepting new tasks and release the worker threads.
+     */
+    void stop();
+}
@@ -0,0 +1,30 @@
+package org.apache.catalina.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link org.apache.catalina.Controller} to be found when the server
+ * starts and routed the requests for its paths and methods.
+ *
+ * @see org.apache.catalina.startup.ContextConfig
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface RequestMapping {
+
+    /**
+     * @return the path patterns, in {@link org.apache.catalina.mapper.Mapper}
+     * syntax
+     */
+    String[] value();
+
+    /**
+     * @return the HTTP methods; none means any method
+     */
+    String[] method() default {};
+}
@@ -1,82 +1,69 @@
 package org.apache.catalina.connector;
 
-import org.apache.coyote.http11.Http11Processor;
+import org.apache.catalina.Executor;
+import org.apache.catalina.core.StandardThreadExecutor;
+import org.apache.coyote.http11.Http11Protocol;
+import org.apache.tomcat.util.net.AbstractEndpoint;
+import org.apache.tomcat.util.net.JioEndpoint;
+import org.apache.tomcat.util.net.NioEndpoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.net.ServerSocket;
-import java.net.Socket;
-
-public class Connector implements Runnable {
+public class Connector {
 
     private static final Logger log = LoggerFactory.getLogger(Connector.class);
 
     private static final int DEFAULT_PORT = 8080;
     private static final int DEFAULT_ACCEPT_COUNT = 100;
 
-    private final ServerSocket serverSocket;
-    private boolean stopped;
+    private final Executor executor;
+    private final Http11Protocol protocol;
+    private final AbstractEndpoint endpoint;
 
     public Connector() {
         this(DEFAULT_PORT, DEFAULT_ACCEPT_COUNT);
     }
 
     public Connector(final int port, final int acceptCount) {
-        this.serverSocket = createServerSocket(port, acceptCount);
-        this.stopped = false;
+        this(port, acceptCount, new StandardThreadExecutor(acceptCount));
     }
 
-    private ServerSocket createServerSocket(final int port, final int acceptCount) {
-        try {
-            final int checkedPort = checkPort(port);
-            final int checkedAcceptCount = checkAcceptCount(acceptCount);
-            return new ServerSocket(checkedPort, checkedAcceptCount);
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
+    public Connector(final int port, final int acceptCount, final Executor executor) {
+        this(port, acceptCount, executor, new Http11Protocol(), false);
     }
 
-    public void start() {
-        var thread = new Thread(this);
-        thread.setDaemon(true);
-        thread.start();
-        stopped = false;
-        log.info("Web Application Server started {} port.", serverSocket.getLocalPort());
+    public Connector(final int port, final int acceptCount, final Executor executor,
+                     final Http11Protocol protocol, final boolean useNio) {
+        this.executor = executor;
+        this.protocol = protocol;
+        this.endpoint = createEndpoint(checkPort(port), checkAcceptCount(acceptCount), useNio);
     }
 
-    @Override
-    public void run() {
-        // 클라이언트가 연결될때까지 대기한다.
-        while (!stopped) {
-            connect();
+    private AbstractEndpoint createEndpoint(final int port, final int acceptCount, final boolean useNio) {
+        if (useNio) {
+            return new NioEndpoint(port, acceptCount, executor, protocol);
         }
+        return new JioEndpoint(port, acceptCount, executor, protocol);
     }
 
-    private void connect() {
-        try {
-            process(serverSocket.accept());
-        } catch (IOException e) {
-            log.error(e.getMessage(), e);
-        }
+    public void start() {
+        endpoint.start();
+        log.info("Web Application Server started {} port. ({})", endpoint.getLocalPort(),
+                endpoint.getClass().getSimpleName());
     }
 
-    private void process(final Socket connection) {
-        if (connection == null) {
-            return;
-        }
-        var processor = new Http11Processor(connection);
-        new Thread(processor).start();
+    public void stop() {
+        endpoint.stop();
+        log.info("executor stopped: {}", executor);
+        executor.stop();
     }
 
-    public void stop() {
-        stopped = true;
-        try {
-            serverSocket.close();
-        } catch (IOException e) {
-            log.error(e.getMessage(), e);
-        }
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public Http11Protocol getProtocol() {
+        return protocol;
     }
 
     private int checkPort(final int port) {
@@ -0,0 +1,350 @@
+package org.apache.catalina.connector;
+
+import org.apache.catalina.Controller;
+import org.apache.catalina.mapper.Mapper;
+import org.apache.catalina.mapper.MappingData;
+import org.apache.catalina.webresources.ETags;
+import org.apache.catalina.webresources.StaticResource;
+import org.apache.catalina.webresources.StaticResourceCache;
+import org.apache.catalina.webresources.StaticResources;
+import org.apache.coyote.Adapter;
+import org.apache.coyote.CompressionConfig;
+import org.apache.coyote.http11.EncodedResponse;
+import org.apache.coyote.http11.HeaderName;
+import org.apache.coyote.http11.HttpRequest;
+import org.apache.coyote.http11.HttpResponse;
+import org.apache.coyote.http11.HttpStatus;
+import org.apache.tomcat.util.http.FastHttpDateFormat;
+import org.apache.tomcat.util.http.Ranges;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Default adapter: routes each request through a {@link Mapper} to the
+ * controller added for its method and path. Whatever no controller claims
+ * falls through to the {@code /**} route, which answers {@code /} with a
+ * greeting and every other {@code GET} or {@code HEAD} with the matching
+ * file under the static directory. A path that has routes, but none for the method, is
+ * answered with {@code 405} and the methods it does accept.
+ * <p>
+ * Small resources are served from {@link StaticResourceCache} as fully
+ * encoded responses; larger ones are sent from the file system. Text bodies
+ * are gzip compressed for clients that accept it, and the compressed variant
+ * is what gets cached for them. Static resources carry a strong
+ * {@code ETag} and, when known, {@code Last-Modified}; a request whose
+ * {@code If-None-Match} or {@code If-Modified-Since} shows its copy is
+ * current is answered with a headers-only {@code 304}.
+ * <p>
+ * A {@code Range} request is answered with {@code 206 Partial Content},
+ * always in the identity coding, from slices of the file's shared memory
+ * mapping. Several ranges are sent as {@code multipart/byteranges}.
+ */
+public class CoyoteAdapter implements Adapter {
+
+    private static final byte[] WELCOME = "Hello world!".getBytes(StandardCharsets.UTF_8);
+    private static final String HTML = "text/html;charset=utf-8";
+    private static final String NOT_FOUND_PAGE = "/404.html";
+    // 요청 경로는 항상 '/'로 시작하므로 경로 키와 겹치지 않는다.
+    private static final String NOT_FOUND_KEY = "404:" + NOT_FOUND_PAGE;
+    private static final String BOUNDARY = "TOMCAT_MIME_BOUNDARY";
+    private static final int MAPPING_NOTE = 0;
+
+    private final StaticResources resources;
+    private final StaticResourceCache cache;
+    private final CompressionConfig compression;
+    private final Mapper mapper = new Mapper();
+
+    public CoyoteAdapter() {
+        this(new StaticResources(), new StaticResourceCache(), new CompressionConfig());
+    }
+
+    public CoyoteAdapter(final StaticResources resources, final StaticResourceCache cache,
+                         final CompressionConfig compression) {
+        this.resources = resources;
+        this.cache = cache;
+        this.compression = compression;
+        mapper.addRoute(Mapper.ANY_METHOD, "/**", this::serveStatic);
+    }
+
+    /**
+     * Route requests for the method and path pattern to the controller.
+     * Routes are added before the connector starts.
+     *
+     * @see Mapper#addRoute
+     */
+    public void addController(final String method, final String pattern, final Controller controller) {
+        mapper.addRoute(method, pattern, controller);
+    }
+
+    @Override
+    public void service(final HttpRequest request, final HttpResponse response) {
+        MappingData mapping = (MappingData) request.getNote(MAPPING_NOTE);
+        if (mapping == null) {
+            mapping = new MappingData();
+            request.setNote(MAPPING_NOTE, mapping);
+        }
+        final Controller controller = mapper.map(request.method(), request.requestURI(), mapping);
+        if (controller != null) {
+            controller.service(request, response, mapping);
+            return;
+        }
+        if (mapping.isPathMatched()) {
+            response.setStatus(HttpStatus.METHOD_NOT_ALLOWED);
+            response.setHeader(HeaderName.ALLOW, mapping.getAllow());
+            response.setHeader(HeaderName.CONTENT_LENGTH, "0");
+            return;
+        }
+        notFound(compression.acceptsGzip(request), response);
+    }
+
+    private void serveStatic(final HttpRequest request, final HttpResponse response, final MappingData mapping) {
+        final boolean gzip = compression.acceptsGzip(request);
+        final String path = request.getRequestURI();
+        if ("/".equals(path)) {
+            response.setBody(WELCOME, HTML);
+            compression.compress(response, gzip);
+            return;
+        }
+        final boolean get = request.method().equals("GET");
+        // HEAD 는 GET 과 같은 응답을 만들고 본문은 프로세서가 버린다. Range 는 GET 에만 적용된다.
+        final boolean readable = get || request.method().equals("HEAD");
+        final String range = get ? request.getHeaders().getHeader(HeaderName.RANGE) : null;
+        if (readable && range == null && sendCached(path, gzip, response)) {
+            revalidate(request, response);
+            return;
+        }
+        final StaticResource resource = resources.getResource(path);
+        if (resource == null) {
+            notFound(gzip, response);
+            return;
+        }
+        if (!readable) {
+            response.setStatus(HttpStatus.METHOD_NOT_ALLOWED);
+            response.setHeader(HeaderName.ALLOW, "GET, HEAD");
+            response.setHeader(HeaderName.CONTENT_LENGTH, "0");
+            return;
+        }
+        if (range != null) {
+            if (sendRanges(request, range, resource, response)) {
+                return;
+            }
+            // 전체를 보내게 되었으면 이미 인코딩해 둔 응답을 쓰고, 없을 때만 파일을 다시 읽는다.
+            if (sendCached(path, gzip, response)) {
+                revalidate(request, response);
+                return;
+            }
+        }
+        send(path, gzip, resource, response);
+        revalidate(request, response);
+    }
+
+    /**
+     * @return whether the request was answered; {@code false} means the
+     * {@code Range} header does not apply and the whole file should be sent
+     */
+    private boolean sendRanges(final HttpRequest request, final String range, final StaticResource resource,
+                               final HttpResponse response) {
+        if (resource.getLength() > Integer.MAX_VALUE || !ifRangeMatches(request, resource)) {
+            return false;
+        }
+        final Ranges ranges = Ranges.parse(range, resource.getLength());
+        if (ranges == null) {
+            return false;
+        }
+        if (isNotModified(request.getHeaders().getHeader(HeaderName.IF_NONE_MATCH),
+                request.getHeaders().getHeader(HeaderName.IF_MODIFIED_SINCE),
+                resource.getETag(), resource.getLastModified())) {
+            setValidators(true, resource, response);
+            response.setNotModified();
+            return true;
+        }
+        if (!ranges.isSatisfiable()) {
+            response.setStatus(HttpStatus.RANGE_NOT_SATISFIABLE);
+            response.setHeader(HeaderName.CONTENT_RANGE, "bytes */" + resource.getLength());
+            response.setHeader(HeaderName.CONTENT_LENGTH, "0");
+            return true;
+        }
+        final ByteBuffer content;
+        try {
+            content = resources.getContentBuffer(resource);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        response.setStatus(HttpStatus.PARTIAL_CONTENT);
+        final List<Ranges.Range> parts = ranges.getRanges();
+        if (parts.size() == 1) {
+            final Ranges.Range part = parts.get(0);
+            response.setBody(new ByteBuffer[]{slice(content, part)}, part.length(), resource.getContentType());
+            response.setHeader(HeaderName.CONTENT_RANGE, part.toContentRange(resource.getLength()));
+        } else {
+            sendMultipart(content, parts, resource, response);
+        }
+        setValidators(true, resource, response);
+        if (compression.isCompressible(resource.getContentType(), resource.getLength())) {
+            response.setHeader(HeaderName.VARY, HeaderName.ACCEPT_ENCODING.getName());
+        }
+        return true;
+    }
+
+    private static void sendMultipart(final ByteBuffer content, final List<Ranges.Range> parts,
+                                      final StaticResource resource, final HttpResponse response) {
+        final ByteBuffer[] buffers = new ByteBuffer[parts.size() * 2 + 1];
+        long length = 0;
+        for (int i = 0; i < parts.size(); i++) {
+            final Ranges.Range part = parts.get(i);
+            final byte[] partHead = ("\r\n--" + BOUNDARY + "\r\n"
+                    + "Content-Type: " + resource.getContentType() + "\r\n"
+                    + "Content-Range: " + part.toContentRange(resource.getLength()) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.ISO_8859_1);
+            buffers[i * 2] = ByteBuffer.wrap(partHead);
+            buffers[i * 2 + 1] = slice(content, part);
+            length += partHead.length + part.length();
+        }
+        final byte[] end = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1);
+        buffers[buffers.length - 1] = ByteBuffer.wrap(end);
+        length += end.length;
+        response.setBody(buffers, length, "multipart/byteranges; boundary=" + BOUNDARY);
+    }
+
+    private static ByteBuffer slice(final ByteBuffer content, final Ranges.Range part) {
+        // 절대 위치로 자르므로 공유된 매핑의 position 은 건드리지 않는다.
+        return content.slice((int) part.getStart(), (int) part.length());
+    }
+
+    /**
+     * An {@code If-Range} entity tag must match strongly, and a date must be
+     * exactly the modification time; otherwise the whole file is sent.
+     */
+    private static boolean ifRangeMatches(final HttpRequest request, final StaticResource resource) {
+        final String ifRange = request.getHeaders().getHeader(HeaderName.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        final String value = ifRange.trim();
+        if (value.startsWith("\"")) {
+            return value.equals(resource.getETag());
+        }
+        if (value.startsWith("W/")) {
+            return false;
+        }
+        final long date = FastHttpDateFormat.parseDate(value);
+        return date >= 0 && resource.getLastModified() >= 0 && date / 1000 == resource.getLastModified() / 1000;
+    }
+
+    /**
+     * Replace a {@code 200} with a headers-only {@code 304} when the client's
+     * copy is current. As RFC 9110 section 13.2.2 orders it,
+     * {@code If-Modified-Since} is only looked at when there is no
+     * {@code If-None-Match}.
+     */
+    private static void revalidate(final HttpRequest request, final HttpResponse response) {
+        if (response.getStatus() != HttpStatus.OK) {
+            return;
+        }
+        final String ifNoneMatch = request.getHeaders().getHeader(HeaderName.IF_NONE_MATCH);
+        final String ifModifiedSince = ifNoneMatch == null
+                ? request.getHeaders().getHeader(HeaderName.IF_MODIFIED_SINCE)
+                : null;
+        if (ifNoneMatch == null && ifModifiedSince == null) {
+            return;
+        }
+        final EncodedResponse encoded = response.getEncoded();
+        if (encoded == null) {
+            if (isNotModified(ifNoneMatch, ifModifiedSince, response.getHeader(HeaderName.ETAG.getName()),
+                    FastHttpDateFormat.parseDate(response.getHeader(HeaderName.LAST_MODIFIED.getName())))) {
+                response.setNotModified();
+            }
+            return;
+        }
+        if (encoded.getNotModified() != null
+                && isNotModified(ifNoneMatch, ifModifiedSince, encoded.getETag(), encoded.getLastModified())) {
+            response.setEncoded(encoded.getNotModified());
+        }
+    }
+
+    private static boolean isNotModified(final String ifNoneMatch, final String ifModifiedSince,
+                                         final String etag, final long lastModified) {
+        if (ifNoneMatch != null) {
+            return ETags.matches(ifNoneMatch, etag);
+        }
+        final long since = FastHttpDateFormat.parseDate(ifModifiedSince);
+        // HTTP-date 는 초 단위이므로 밀리초는 버리고 비교한다.
+        return since >= 0 && lastModified >= 0 && lastModified / 1000 <= since / 1000;
+    }
+
+    private void notFound(final boolean gzip, final HttpResponse response) {
+        response.setStatus(HttpStatus.NOT_FOUND);
+        if (sendCached(NOT_FOUND_KEY, gzip, response)) {
+            return;
+        }
+        final StaticResource page = resources.getResource(NOT_FOUND_PAGE);
+        if (page == null) {
+            response.setHeader(HeaderName.CONTENT_LENGTH, "0");
+            return;
+        }
+        send(NOT_FOUND_KEY, gzip, page, response);
+    }
+
+    private boolean sendCached(final String key, final boolean gzip, final HttpResponse response) {
+        final EncodedResponse cached = cache.get(key, gzip, resources);
+        if (cached == null) {
+            return false;
+        }
+        response.setEncoded(cached);
+        return true;
+    }
+
+    private void send(final String key, final boolean gzip, final StaticResource resource,
+                      final HttpResponse response) {
+        final boolean tagged = response.getStatus() == HttpStatus.OK;
+        if (!cache.accepts(resource.getLength())) {
+            if (resource.isFile()) {
+                response.setFile(resource.getFile(), resource.getLength(), resource.getContentType());
+                setValidators(tagged, resource, response);
+            } else {
+                response.setBody(resource.getContent(), resource.getContentType());
+                setValidators(tagged, resource, response);
+                compression.compress(response, gzip);
+            }
+            return;
+        }
+        response.setBody(resource.readContent(), resource.getContentType());
+        setValidators(tagged, resource, response);
+        final boolean compressible = compression.isCompressible(response);
+        compression.compress(response, gzip);
+        final EncodedResponse encoded = EncodedResponse.of(response);
+        cache.put(key, gzip, encoded, resource);
+        if (!compressible) {
+            // 압축하지 않는 자원은 두 변형이 같으므로 함께 채워 둔다.
+            cache.put(key, !gzip, encoded, resource);
+        }
+        response.setEncoded(encoded);
+    }
+
+    private static void setValidators(final boolean tagged, final StaticResource resource,
+                                      final HttpResponse response) {
+        if (!tagged) {
+            return;
+        }
+        response.setHeader(HeaderName.ETAG, resource.getETag());
+        if (resource.getLastModified() >= 0) {
+            response.setHeader(HeaderName.LAST_MODIFIED, FastHttpDateFormat.formatDate(resource.getLastModified()));
+        }
+        if (resource.getLength() <= Integer.MAX_VALUE) {
+            response.setHeader(HeaderName.ACCEPT_RANGES, "bytes");
+        }
+    }
+
+    public Mapper getMapper() {
+        return mapper;
+    }
+
+    public StaticResourceCache getCache() {
+        return cache;
+    }
+}
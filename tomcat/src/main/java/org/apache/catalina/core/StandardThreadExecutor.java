@@ -0,0 +1,152 @@
+package org.apache.catalina.core;
+
+import org.apache.catalina.Executor;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of platform worker threads. Keeps {@code minSpareThreads}
+ * threads alive, grows up to {@code maxThreads}, then queues up to
+ * {@code maxQueueSize} tasks before rejecting new ones.
+ */
+public class StandardThreadExecutor implements Executor {
+
+    public static final int DEFAULT_MAX_THREADS = 200;
+    public static final int DEFAULT_MIN_SPARE_THREADS = 10;
+    public static final Duration DEFAULT_MAX_IDLE_TIME = Duration.ofMinutes(1);
+
+    private final String name;
+    private final int maxThreads;
+    private final TaskQueue taskQueue;
+    private final ThreadPoolExecutor threadPool;
+    private final AtomicInteger submittedCount = new AtomicInteger();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public StandardThreadExecutor(final int maxQueueSize) {
+        this("http-exec", DEFAULT_MAX_THREADS, DEFAULT_MIN_SPARE_THREADS, maxQueueSize, DEFAULT_MAX_IDLE_TIME);
+    }
+
+    public StandardThreadExecutor(final String name, final int maxThreads, final int minSpareThreads,
+                                  final int maxQueueSize, final Duration maxIdleTime) {
+        validate(maxThreads, minSpareThreads, maxQueueSize);
+        this.name = name;
+        this.maxThreads = maxThreads;
+        this.taskQueue = new TaskQueue(maxQueueSize);
+        this.threadPool = new ThreadPoolExecutor(minSpareThreads, maxThreads,
+                maxIdleTime.toMillis(), TimeUnit.MILLISECONDS,
+                taskQueue, new TaskThreadFactory(name), this::reject) {
+
+            @Override
+            protected void afterExecute(final Runnable task, final Throwable throwable) {
+                submittedCount.decrementAndGet();
+            }
+        };
+        this.threadPool.prestartAllCoreThreads();
+        this.taskQueue.setParent(this);
+    }
+
+    private void validate(final int maxThreads, final int minSpareThreads, final int maxQueueSize) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("maxThreads must be positive: " + maxThreads);
+        }
+        if (minSpareThreads < 0 || maxThreads < minSpareThreads) {
+            throw new IllegalArgumentException("minSpareThreads must be between 0 and maxThreads: " + minSpareThreads);
+        }
+        if (maxQueueSize < 1) {
+            throw new IllegalArgumentException("maxQueueSize must be positive: " + maxQueueSize);
+        }
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        submittedCount.incrementAndGet();
+        try {
+            threadPool.execute(task);
+        } catch (RejectedExecutionException e) {
+            submittedCount.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void reject(final Runnable task, final ThreadPoolExecutor pool) {
+        // 스레드 수를 확인한 뒤 큐에 넣기 전 사이에 스레드가 최대치에 도달했을 수 있으니 한 번 더 큐에 넣어본다.
+        if (!pool.isShutdown() && taskQueue.force(task)) {
+            return;
+        }
+        rejectedCount.increment();
+        throw new RejectedExecutionException("Executor " + name + " is saturated: " + maxThreads
+                + " threads busy and " + taskQueue.size() + " tasks queued");
+    }
+
+    @Override
+    public void stop() {
+        threadPool.shutdownNow();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getActiveCount() {
+        return threadPool.getActiveCount();
+    }
+
+    @Override
+    public int getQueueSize() {
+        return taskQueue.size();
+    }
+
+    @Override
+    public long getCompletedTaskCount() {
+        return threadPool.getCompletedTaskCount();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public int getPoolSize() {
+        return threadPool.getPoolSize();
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    int getSubmittedCount() {
+        return submittedCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return name + "[active=" + getActiveCount() + ", poolSize=" + getPoolSize()
+                + ", queued=" + getQueueSize() + ", completed=" + getCompletedTaskCount()
+                + ", rejected=" + getRejectedCount() + "]";
+    }
+
+    private static class TaskThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        private TaskThreadFactory(final String name) {
+            this.namePrefix = name + "-";
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final var thread = new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.apache.catalina.core;
+
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A bounded queue that makes the thread pool grow up to its maximum size
+ * before it starts queueing tasks. A plain {@link LinkedBlockingQueue} would
+ * only create threads above the core size once the queue is full.
+ */
+class TaskQueue extends LinkedBlockingQueue<Runnable> {
+
+    private transient volatile StandardThreadExecutor parent;
+
+    TaskQueue(final int capacity) {
+        super(capacity);
+    }
+
+    void setParent(final StandardThreadExecutor parent) {
+        this.parent = parent;
+    }
+
+    boolean force(final Runnable task) {
+        return super.offer(task);
+    }
+
+    @Override
+    public boolean offer(final Runnable task) {
+        if (parent == null) {
+            return super.offer(task);
+        }
+        // 놀고 있는 스레드가 있으면 큐에 넣어 바로 가져가게 한다.
+        if (parent.getSubmittedCount() <= parent.getPoolSize()) {
+            return super.offer(task);
+        }
+        // 최대 스레드 수에 도달하기 전이라면 false 를 반환해 스레드를 새로 만들게 한다.
+        if (parent.getPoolSize() < parent.getMaxThreads()) {
+            return false;
+        }
+        return super.offer(task);
+    }
+}
@@ -0,0 +1,126 @@
+package org.apache.catalina.core;
+
+import org.apache.catalina.Executor;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs every task on its own virtual thread. The number of tasks running at
+ * the same time is capped by {@code maxConnections}; once the cap is reached
+ * the caller waits up to {@code acquireTimeout} for a slot, so a flood of slow
+ * clients backs up into the accept queue instead of growing without bound.
+ * A caller that must not wait, like the NIO poller, passes a zero timeout to
+ * {@link #execute(Runnable, long, TimeUnit)} and is refused at once.
+ */
+public class VirtualThreadExecutor implements Executor {
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 8192;
+    public static final Duration DEFAULT_ACQUIRE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final String name;
+    private final int maxConnections;
+    private final long acquireTimeoutNanos;
+    private final Semaphore permits;
+    private final ThreadFactory threadFactory;
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private volatile boolean stopped;
+
+    public VirtualThreadExecutor(final String name, final int maxConnections, final Duration acquireTimeout) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections must be positive: " + maxConnections);
+        }
+        this.name = name;
+        this.maxConnections = maxConnections;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.permits = new Semaphore(maxConnections);
+        this.threadFactory = Thread.ofVirtual().name(name + "-", 1).factory();
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        execute(task, acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void execute(final Runnable task, final long timeout, final TimeUnit unit) {
+        if (stopped || !acquire(unit.toNanos(timeout))) {
+            rejectedCount.increment();
+            throw new RejectedExecutionException("Executor " + name + " is saturated: "
+                    + maxConnections + " connections in progress");
+        }
+        try {
+            threadFactory.newThread(() -> runAndRelease(task)).start();
+        } catch (RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private boolean acquire(final long timeoutNanos) {
+        if (timeoutNanos <= 0) {
+            return permits.tryAcquire();
+        }
+        try {
+            return permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void runAndRelease(final Runnable task) {
+        try {
+            task.run();
+        } finally {
+            permits.release();
+            completedCount.increment();
+        }
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getActiveCount() {
+        return maxConnections - permits.availablePermits();
+    }
+
+    @Override
+    public int getQueueSize() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public long getCompletedTaskCount() {
+        return completedCount.sum();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    @Override
+    public String toString() {
+        return name + "[active=" + getActiveCount() + ", maxConnections=" + maxConnections
+                + ", waiting=" + getQueueSize() + ", completed=" + getCompletedTaskCount()
+                + ", rejected=" + getRejectedCount() + "]";
+    }
+}
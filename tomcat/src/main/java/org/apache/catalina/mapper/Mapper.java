@@ -0,0 +1,332 @@
+package org.apache.catalina.mapper;
+
+import org.apache.catalina.Controller;
+import org.apache.tomcat.util.buf.ByteChunk;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Routes requests to controllers by method and path. The path patterns are
+ * compiled into a trie with one node per segment:
+ * <ul>
+ * <li>{@code /login} matches that segment literally,</li>
+ * <li>{@code /users/{id}} matches any one non-empty segment and records it
+ *     as the path variable {@code id},</li>
+ * <li>{@code /assets/**} matches the rest of the path, whatever it is, and
+ *     may only end a pattern.</li>
+ * </ul>
+ * A node finds its literal child in a small open-addressing table keyed by
+ * the segment's bytes, so matching walks the request URI once and takes the
+ * same time however many routes there are. It works on the URI's bytes in
+ * the input buffer, compares literal segments without decoding them, and
+ * only records offsets in the {@link MappingData}, so it allocates nothing.
+ * <p>
+ * At each node a literal segment is tried before a variable and a variable
+ * before a wildcard; a dead end falls back to the next choice. A route may
+ * have a controller per method and one for any method. {@code HEAD} uses the
+ * {@code GET} controller when it has none of its own.
+ * <p>
+ * Routes are added while the server starts. The mapper is not safe for
+ * adding routes while it is matching.
+ */
+public final class Mapper {
+
+    public static final String ANY_METHOD = "*";
+
+    private static final String[] METHODS = {"GET", "HEAD", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"};
+    private static final int GET = 0;
+    private static final int HEAD = 1;
+    private static final String WILDCARD = "**";
+
+    private final Node root = new Node();
+    private int routeCount;
+
+    /**
+     * @param method  an HTTP method, or {@link #ANY_METHOD}
+     * @param pattern a path starting with {@code '/'}, made of literal
+     *                segments, {@code {name}} variables and an optional
+     *                trailing {@code **}
+     * @throws IllegalArgumentException if the pattern is malformed or the
+     *                                  method and pattern are already routed
+     */
+    public void addRoute(final String method, final String pattern, final Controller controller) {
+        final int methodIndex = ANY_METHOD.equals(method) ? -1 : methodIndex(method);
+        if (!pattern.startsWith("/")) {
+            throw new IllegalArgumentException("pattern must start with '/': " + pattern);
+        }
+        final String[] segments = pattern.substring(1).split("/", -1);
+        final List<String> variableNames = new ArrayList<>();
+        Node node = root;
+        for (int i = 0; i < segments.length; i++) {
+            final String segment = segments[i];
+            if (segment.equals(WILDCARD)) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("'**' must end the pattern: " + pattern);
+                }
+                node.wildcard = route(node.wildcard, pattern, variableNames);
+                node.wildcard.put(methodIndex, controller);
+                routeCount++;
+                return;
+            }
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                final String name = segment.substring(1, segment.length() - 1);
+                if (name.isEmpty() || variableNames.contains(name)) {
+                    throw new IllegalArgumentException("bad or repeated path variable in " + pattern);
+                }
+                variableNames.add(name);
+                if (variableNames.size() > MappingData.MAX_VARIABLES) {
+                    throw new IllegalArgumentException("more than " + MappingData.MAX_VARIABLES
+                            + " path variables in " + pattern);
+                }
+                if (node.variable == null) {
+                    node.variable = new Node();
+                }
+                node = node.variable;
+            } else {
+                node = node.literalOrCreate(segment.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        node.exact = route(node.exact, pattern, variableNames);
+        node.exact.put(methodIndex, controller);
+        routeCount++;
+    }
+
+    private static Route route(final Route existing, final String pattern, final List<String> variableNames) {
+        if (existing == null) {
+            return new Route(pattern, variableNames.toArray(String[]::new));
+        }
+        if (!Arrays.equals(existing.variableNames, variableNames.toArray())) {
+            throw new IllegalArgumentException("pattern " + pattern + " names its variables differently from "
+                    + existing.pattern);
+        }
+        return existing;
+    }
+
+    /**
+     * Find the controller for the request.
+     *
+     * @param data filled in with the route and its path variables; when no
+     *             route matched the method, {@link MappingData#isPathMatched}
+     *             tells whether one matched the path
+     * @return the controller, or {@code null} if there is none
+     */
+    public Controller map(final ByteChunk method, final ByteChunk uri, final MappingData data) {
+        data.recycle(uri);
+        if (uri.isNull() || uri.length() == 0 || uri.byteAt(0) != '/' || !match(root, uri, 0, data)) {
+            return null;
+        }
+        final Controller controller = data.getRoute().controller(method);
+        data.setController(controller);
+        return controller;
+    }
+
+    /**
+     * @param from the index of the {@code '/'} before the next segment, or
+     *             the URI's length once it is used up
+     */
+    private static boolean match(final Node node, final ByteChunk uri, final int from, final MappingData data) {
+        final int length = uri.length();
+        if (from == length) {
+            if (node.exact != null) {
+                data.setRoute(node.exact);
+                return true;
+            }
+            if (node.wildcard != null) {
+                data.setWildcard(from);
+                data.setRoute(node.wildcard);
+                return true;
+            }
+            return false;
+        }
+        final int start = from + 1;
+        int end = uri.indexOf((byte) '/', start);
+        if (end < 0) {
+            end = length;
+        }
+        final Node literal = node.literal(uri, start, end);
+        if (literal != null && match(literal, uri, end, data)) {
+            return true;
+        }
+        if (node.variable != null && end > start) {
+            data.pushVariable(start, end);
+            if (match(node.variable, uri, end, data)) {
+                return true;
+            }
+            data.popVariable();
+        }
+        if (node.wildcard != null) {
+            data.setWildcard(from);
+            data.setRoute(node.wildcard);
+            return true;
+        }
+        return false;
+    }
+
+    static int methodIndex(final ByteChunk method) {
+        for (int i = 0; i < METHODS.length; i++) {
+            if (method.equals(METHODS[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int methodIndex(final String method) {
+        for (int i = 0; i < METHODS.length; i++) {
+            if (METHODS[i].equals(method)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("unsupported method: " + method);
+    }
+
+    public int getRouteCount() {
+        return routeCount;
+    }
+
+    /**
+     * The controllers of one pattern.
+     */
+    static final class Route {
+
+        private final String pattern;
+        private final String[] variableNames;
+        private final Controller[] controllers = new Controller[METHODS.length];
+        private Controller any;
+        private String allow;
+
+        private Route(final String pattern, final String[] variableNames) {
+            this.pattern = pattern;
+            this.variableNames = variableNames;
+        }
+
+        private void put(final int methodIndex, final Controller controller) {
+            if (methodIndex < 0) {
+                if (any != null) {
+                    throw new IllegalArgumentException("any method of " + pattern + " is already routed");
+                }
+                any = controller;
+            } else {
+                if (controllers[methodIndex] != null) {
+                    throw new IllegalArgumentException(METHODS[methodIndex] + " " + pattern + " is already routed");
+                }
+                controllers[methodIndex] = controller;
+            }
+            final var methods = new StringJoiner(", ");
+            for (int i = 0; i < METHODS.length; i++) {
+                if (controllers[i] != null || (i == HEAD && controllers[GET] != null)) {
+                    methods.add(METHODS[i]);
+                }
+            }
+            allow = methods.toString();
+        }
+
+        Controller controller(final ByteChunk method) {
+            final int index = methodIndex(method);
+            if (index >= 0 && controllers[index] != null) {
+                return controllers[index];
+            }
+            if (index == HEAD && controllers[GET] != null) {
+                return controllers[GET];
+            }
+            return any;
+        }
+
+        String getPattern() {
+            return pattern;
+        }
+
+        String[] getVariableNames() {
+            return variableNames;
+        }
+
+        String getAllow() {
+            return allow;
+        }
+    }
+
+    /**
+     * One segment position in the trie.
+     */
+    private static final class Node {
+
+        private byte[][] keys = new byte[0][];
+        private Node[] children = new Node[0];
+        // 자식 번호 + 1 을 담는 열린 주소 해시 표로, 0 은 빈 칸이다.
+        private int[] table = new int[1];
+        private Node variable;
+        private Route exact;
+        private Route wildcard;
+
+        private Node literal(final ByteChunk uri, final int start, final int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + (uri.byteAt(i) & 0xff);
+            }
+            final int mask = table.length - 1;
+            for (int slot = spread(hash) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+                final int child = table[slot] - 1;
+                if (regionEquals(keys[child], uri, start, end)) {
+                    return children[child];
+                }
+            }
+            return null;
+        }
+
+        private Node literalOrCreate(final byte[] key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (Arrays.equals(keys[i], key)) {
+                    return children[i];
+                }
+            }
+            final var child = new Node();
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = key;
+            children[children.length - 1] = child;
+            rebuildTable();
+            return child;
+        }
+
+        private void rebuildTable() {
+            final int size = Integer.highestOneBit(keys.length * 2 - 1) << 1;
+            table = new int[Math.max(2, size)];
+            final int mask = table.length - 1;
+            for (int i = 0; i < keys.length; i++) {
+                int slot = spread(hash(keys[i])) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = i + 1;
+            }
+        }
+
+        private static int hash(final byte[] key) {
+            int hash = 0;
+            for (final byte b : key) {
+                hash = 31 * hash + (b & 0xff);
+            }
+            return hash;
+        }
+
+        private static int spread(final int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+        private static boolean regionEquals(final byte[] key, final ByteChunk uri, final int start, final int end) {
+            if (key.length != end - start) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (key[i] != uri.byteAt(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.apache.catalina.mapper;
+
+import org.apache.catalina.Controller;
+import org.apache.tomcat.util.buf.ByteChunk;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Result of {@link Mapper#map}: the route that matched and where its path
+ * variables and wildcard lie in the request URI. Only offsets are recorded
+ * while matching; a {@code String} is made when a variable is asked for.
+ * One instance is reused for every request on a connection.
+ */
+public final class MappingData {
+
+    static final int MAX_VARIABLES = 8;
+
+    private final int[] variableStarts = new int[MAX_VARIABLES];
+    private final int[] variableEnds = new int[MAX_VARIABLES];
+    private int variableCount;
+    private int wildcardStart = -1;
+    private ByteChunk uri;
+    private Mapper.Route route;
+    private Controller controller;
+
+    void recycle(final ByteChunk uri) {
+        this.uri = uri;
+        this.variableCount = 0;
+        this.wildcardStart = -1;
+        this.route = null;
+        this.controller = null;
+    }
+
+    void pushVariable(final int start, final int end) {
+        variableStarts[variableCount] = start;
+        variableEnds[variableCount] = end;
+        variableCount++;
+    }
+
+    void popVariable() {
+        variableCount--;
+    }
+
+    void setWildcard(final int start) {
+        this.wildcardStart = start;
+    }
+
+    void setRoute(final Mapper.Route route) {
+        this.route = route;
+    }
+
+    Mapper.Route getRoute() {
+        return route;
+    }
+
+    void setController(final Controller controller) {
+        this.controller = controller;
+    }
+
+    /**
+     * @return the controller for the request, or {@code null} if no route
+     * matched its path and method
+     */
+    public Controller getController() {
+        return controller;
+    }
+
+    /**
+     * @return whether a route matched the path, even if not the method
+     */
+    public boolean isPathMatched() {
+        return route != null;
+    }
+
+    /**
+     * @return the methods the matched path accepts, for an {@code Allow}
+     * header
+     */
+    public String getAllow() {
+        return route == null ? null : route.getAllow();
+    }
+
+    /**
+     * @return the pattern of the route that matched
+     */
+    public String getPattern() {
+        return route == null ? null : route.getPattern();
+    }
+
+    /**
+     * @return the percent-decoded value of the path variable, or
+     * {@code null} if the route has no variable of that name
+     */
+    public String getPathVariable(final String name) {
+        if (route == null) {
+            return null;
+        }
+        final String[] names = route.getVariableNames();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return decode(variableStarts[i], variableEnds[i]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the part of the path the wildcard matched, starting with its
+     * {@code '/'}, or {@code null} if the route has no wildcard
+     */
+    public String getWildcardPath() {
+        if (wildcardStart < 0) {
+            return null;
+        }
+        return decode(wildcardStart, uri.length());
+    }
+
+    private String decode(final int start, final int end) {
+        final var bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = uri.byteAt(start + i);
+        }
+        final String raw = new String(bytes, StandardCharsets.UTF_8);
+        return raw.indexOf('%') < 0 ? raw : URLDecoder.decode(raw.replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+}
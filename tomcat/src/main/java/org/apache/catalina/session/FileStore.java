@@ -0,0 +1,185 @@
+package org.apache.catalina.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Directory of sessions swapped out of memory by a {@link StandardManager},
+ * one {@link SessionCodec} record per file named after the session id.
+ * Nothing about a swapped session stays on the heap, so the directory can
+ * hold any number of them. Loading a session takes it out of the directory.
+ * <p>
+ * Session ids come from clients, so an id is only turned into a file name
+ * if it is made of base64url characters. The ids of the swapped sessions are
+ * also kept in memory, so looking up an id that was never swapped out costs
+ * no file system call.
+ */
+public class FileStore {
+
+    private static final Logger log = LoggerFactory.getLogger(FileStore.class);
+
+    private static final String EXTENSION = ".session";
+    private static final int MAX_ID_LENGTH = 64;
+
+    private final Path directory;
+    private final Set<String> ids = ConcurrentHashMap.newKeySet();
+
+    public FileStore(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Remember the sessions left in the directory by the last run.
+     */
+    void open() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (final Path file : files) {
+                final String name = file.getFileName().toString();
+                final String id = name.substring(0, name.length() - EXTENSION.length());
+                if (file(id) != null) {
+                    ids.add(id);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("cannot list swapped sessions in {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * @return whether the session with this id is swapped out; this looks at
+     * memory only
+     */
+    boolean contains(final String id) {
+        return ids.contains(id);
+    }
+
+    /**
+     * Write the session to its file, replacing an older copy.
+     */
+    void save(final StandardSession session) throws IOException {
+        final Path file = file(session.getId());
+        if (file == null) {
+            throw new IOException("cannot swap out session with id " + session.getId());
+        }
+        Files.createDirectories(directory);
+        Files.write(file, SessionCodec.encode(session));
+        ids.add(session.getId());
+    }
+
+    /**
+     * Take the session with this id out of the directory. Of concurrent
+     * calls for one id only the first reads the file.
+     *
+     * @return the session, or {@code null} if it is not in the directory, has
+     * timed out or cannot be decoded
+     */
+    StandardSession load(final String id, final StandardManager manager, final long now) {
+        final Path file = file(id);
+        if (file == null || !ids.remove(id)) {
+            return null;
+        }
+        final byte[] record;
+        try {
+            record = Files.readAllBytes(file);
+            Files.deleteIfExists(file);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("cannot swap in session {}: {}", id, e.getMessage());
+            return null;
+        }
+        return SessionCodec.read(ByteBuffer.wrap(record), 0, manager, now);
+    }
+
+    /**
+     * Delete the file of the session with this id, if there is one.
+     */
+    void remove(final String id) {
+        final Path file = file(id);
+        if (file == null || !ids.remove(id)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("cannot delete swapped session {}: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * Delete the files of the sessions that have timed out at {@code now}.
+     * Only the fixed-length start of each file is read.
+     *
+     * @return the number of sessions deleted
+     */
+    int processExpires(final long now) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        int expired = 0;
+        final ByteBuffer header = ByteBuffer.allocate(SessionCodec.headerLength(MAX_ID_LENGTH));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (final Path file : files) {
+                header.clear();
+                try (final var channel = FileChannel.open(file)) {
+                    int read;
+                    do {
+                        read = channel.read(header);
+                    } while (read > 0 && header.hasRemaining());
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                if (header.position() < 2
+                        || header.position() < SessionCodec.headerLength(header.getShort(0))
+                        || SessionCodec.deadline(header, 0) <= now) {
+                    final String name = file.getFileName().toString();
+                    ids.remove(name.substring(0, name.length() - EXTENSION.length()));
+                    Files.deleteIfExists(file);
+                    expired++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("cannot expire swapped sessions in {}: {}", directory, e.getMessage());
+        }
+        return expired;
+    }
+
+    private Path file(final String id) {
+        if (id.isEmpty() || id.length() > MAX_ID_LENGTH) {
+            return null;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            final char c = id.charAt(i);
+            final boolean base64url = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_';
+            if (!base64url) {
+                return null;
+            }
+        }
+        return directory.resolve(id + EXTENSION);
+    }
+
+    /**
+     * @return the number of swapped sessions
+     */
+    public int getSize() {
+        return ids.size();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+}
@@ -0,0 +1,218 @@
+package org.apache.catalina.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Snapshot of the sessions of a {@link StandardManager}, written to one
+ * memory-mapped file when the manager stops and read back lazily after it
+ * starts. Opening the snapshot maps the file and reads its 16-byte header,
+ * so a restart costs the same whatever the number of sessions. A session is
+ * decoded only when {@link StandardManager#findSession} first asks for its
+ * id. It is then marked as loaded in the file, so an invalidated session
+ * never comes back.
+ * <p>
+ * Layout, all numbers big-endian:
+ * <pre>
+ * header   int magic, int version, int slotCount, int sessionCount
+ * slots    slotCount x (int idHash, int recordOffset)   open addressing, linear probing;
+ *                                                       offset 0 = empty, -1 = loaded
+ * records  one {@link SessionCodec} record per session
+ * </pre>
+ * <p>
+ * Sessions still in the snapshot when the manager stops again are copied
+ * into the next one unchanged, unless they have timed out in the meantime.
+ */
+public class MappedSessionStore {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedSessionStore.class);
+
+    private static final int MAGIC = 0x54534553;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int SLOT_SIZE = 8;
+    private static final int EMPTY = 0;
+    private static final int LOADED = -1;
+
+    private final Path file;
+    private final AtomicInteger remaining = new AtomicInteger();
+    private volatile MappedByteBuffer snapshot;
+    private int slotCount;
+
+    public MappedSessionStore(final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Map the snapshot left by the last stop, if there is one.
+     */
+    synchronized void open() throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try (final var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                log.warn("ignoring session snapshot {} of {} bytes", file, channel.size());
+                return;
+            }
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+                log.warn("ignoring session snapshot {} with an unknown format", file);
+                return;
+            }
+            slotCount = mapped.getInt(8);
+            remaining.set(mapped.getInt(12));
+            snapshot = mapped;
+        }
+    }
+
+    /**
+     * @return whether no session is left to load
+     */
+    boolean isEmpty() {
+        return snapshot == null || remaining.get() <= 0;
+    }
+
+    /**
+     * @return the number of sessions not loaded yet
+     */
+    public int getSize() {
+        return snapshot == null ? 0 : remaining.get();
+    }
+
+    /**
+     * Take the session with this id out of the snapshot. The manager calls
+     * this at most once at a time per id.
+     *
+     * @return the session, or {@code null} if it is not in the snapshot, has
+     * already been loaded, has timed out or cannot be decoded
+     */
+    StandardSession load(final String id, final StandardManager manager, final long now) {
+        final MappedByteBuffer mapped = snapshot;
+        if (mapped == null) {
+            return null;
+        }
+        final int hash = hash(id);
+        final int mask = slotCount - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            final int position = HEADER_SIZE + slot * SLOT_SIZE;
+            final int offset = mapped.getInt(position + 4);
+            if (offset == EMPTY) {
+                return null;
+            }
+            if (offset != LOADED && mapped.getInt(position) == hash && SessionCodec.idEquals(mapped, offset, id)) {
+                mapped.putInt(position + 4, LOADED);
+                remaining.decrementAndGet();
+                return SessionCodec.read(mapped, offset, manager, now);
+            }
+        }
+    }
+
+    /**
+     * Write the given sessions, and those of the current snapshot that were
+     * never loaded, to a new snapshot that replaces the current one.
+     */
+    synchronized void save(final Collection<StandardSession> sessions, final long now) throws IOException {
+        final var records = new ByteArrayOutputStream();
+        final var out = new DataOutputStream(records);
+        final List<String> ids = new ArrayList<>();
+        final List<Integer> offsets = new ArrayList<>();
+        for (final StandardSession session : sessions) {
+            if (!session.isValid(now)) {
+                continue;
+            }
+            ids.add(session.getId());
+            offsets.add(out.size());
+            SessionCodec.write(out, session);
+        }
+        carryOver(out, ids, offsets, now);
+        out.flush();
+
+        final int slots = Math.max(16, Integer.highestOneBit(Math.max(1, ids.size()) * 2 - 1) << 1);
+        final long recordsStart = HEADER_SIZE + (long) slots * SLOT_SIZE;
+        final long size = recordsStart + records.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("session snapshot would exceed 2GB: " + size + " bytes");
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (final var channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            mapped.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, slots).putInt(12, ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                final int hash = hash(ids.get(i));
+                int slot = hash & (slots - 1);
+                while (mapped.getInt(HEADER_SIZE + slot * SLOT_SIZE + 4) != EMPTY) {
+                    slot = (slot + 1) & (slots - 1);
+                }
+                mapped.putInt(HEADER_SIZE + slot * SLOT_SIZE, hash);
+                mapped.putInt(HEADER_SIZE + slot * SLOT_SIZE + 4, (int) recordsStart + offsets.get(i));
+            }
+            mapped.put((int) recordsStart, records.toByteArray());
+            mapped.force();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        snapshot = null;
+        remaining.set(0);
+        log.info("saved {} sessions to {}", ids.size(), file);
+    }
+
+    /**
+     * Copy the records of the current snapshot that were never loaded and
+     * have not timed out, without decoding them.
+     */
+    private void carryOver(final DataOutputStream out, final List<String> ids, final List<Integer> offsets,
+                           final long now) throws IOException {
+        final MappedByteBuffer mapped = snapshot;
+        if (mapped == null) {
+            return;
+        }
+        final Set<String> saved = new HashSet<>(ids);
+        for (int slot = 0; slot < slotCount; slot++) {
+            final int offset = mapped.getInt(HEADER_SIZE + slot * SLOT_SIZE + 4);
+            if (offset == EMPTY || offset == LOADED) {
+                continue;
+            }
+            if (SessionCodec.deadline(mapped, offset) <= now) {
+                continue;
+            }
+            final String id = SessionCodec.readId(mapped, offset);
+            if (!saved.add(id)) {
+                continue;
+            }
+            final byte[] record = new byte[SessionCodec.length(mapped, offset)];
+            mapped.get(offset, record);
+            ids.add(id);
+            offsets.add(out.size());
+            out.write(record);
+        }
+    }
+
+    private static int hash(final String id) {
+        final int h = id.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,243 @@
+package org.apache.catalina.session;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Binary record of one session, shared by {@link MappedSessionStore} and
+ * {@link FileStore}. All numbers are big-endian:
+ * <pre>
+ * short idLength, id, long creationTime, long lastAccessedTime,
+ * int maxInactiveInterval, byte isNew, int attributesLength, attributes
+ * </pre>
+ * Attributes are a count followed by name and value pairs. Strings,
+ * integers, longs and booleans have their own tags. Names and string values
+ * are an int byte length followed by UTF-8, so they may be of any length.
+ * Other values use Java serialization, and values that are not
+ * {@link Serializable} are left out.
+ */
+final class SessionCodec {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionCodec.class);
+
+    // 레코드에서 id 뒤에 오는 고정 길이 필드: creationTime, lastAccessedTime, maxInactiveInterval, isNew
+    private static final int FIXED_FIELDS_SIZE = 8 + 8 + 4 + 1;
+
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_INTEGER = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_BOOLEAN = 4;
+    private static final byte TYPE_SERIALIZED = 5;
+
+    private SessionCodec() {
+    }
+
+    static void write(final DataOutputStream out, final StandardSession session) throws IOException {
+        final byte[] id = session.getId().getBytes(StandardCharsets.ISO_8859_1);
+        out.writeShort(id.length);
+        out.write(id);
+        out.writeLong(session.creationTime());
+        out.writeLong(session.lastAccessedTime());
+        out.writeInt(session.getMaxInactiveInterval());
+        out.writeBoolean(session.isNewInternal());
+        final byte[] attributes = encodeAttributes(session);
+        out.writeInt(attributes.length);
+        out.write(attributes);
+    }
+
+    static byte[] encode(final StandardSession session) throws IOException {
+        final var bytes = new ByteArrayOutputStream();
+        final var out = new DataOutputStream(bytes);
+        write(out, session);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode the record at {@code offset}.
+     *
+     * @return the session, or {@code null} if it has timed out at {@code now}
+     * or cannot be decoded
+     */
+    static StandardSession read(final ByteBuffer buffer, final int offset, final StandardManager manager,
+                                final long now) {
+        final String id = readId(buffer, offset);
+        final int fixed = offset + 2 + id.length();
+        final var session = new StandardSession(manager, id, buffer.getLong(fixed), buffer.getLong(fixed + 8),
+                buffer.getInt(fixed + 16), buffer.get(fixed + 20) != 0);
+        if (!session.isValid(now)) {
+            return null;
+        }
+        final byte[] attributes = new byte[buffer.getInt(fixed + FIXED_FIELDS_SIZE)];
+        buffer.get(fixed + FIXED_FIELDS_SIZE + 4, attributes);
+        try (final var in = new DataInputStream(new ByteArrayInputStream(attributes))) {
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                final String name = readString(in);
+                session.attributes().put(name, readValue(in));
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            log.warn("cannot restore session {}: {}", id, e.getMessage());
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * @return the number of bytes a record needs before its attributes, for
+     * reading {@link #deadline} without reading the whole record
+     */
+    static int headerLength(final int idLength) {
+        return 2 + idLength + FIXED_FIELDS_SIZE + 4;
+    }
+
+    /**
+     * @return the length of the whole record at {@code offset}
+     */
+    static int length(final ByteBuffer buffer, final int offset) {
+        final int idLength = buffer.getShort(offset);
+        return headerLength(idLength) + buffer.getInt(offset + 2 + idLength + FIXED_FIELDS_SIZE);
+    }
+
+    /**
+     * @return the time after which the session of the record at
+     * {@code offset} expires, or {@link Long#MAX_VALUE} if it never does
+     */
+    static long deadline(final ByteBuffer buffer, final int offset) {
+        final int fixed = offset + 2 + buffer.getShort(offset);
+        final int maxInactiveInterval = buffer.getInt(fixed + 16);
+        if (maxInactiveInterval <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return buffer.getLong(fixed + 8) + maxInactiveInterval * 1000L;
+    }
+
+    static boolean idEquals(final ByteBuffer buffer, final int offset, final String id) {
+        final int length = buffer.getShort(offset);
+        if (length != id.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(offset + 2 + i) != (byte) id.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String readId(final ByteBuffer buffer, final int offset) {
+        final byte[] id = new byte[buffer.getShort(offset)];
+        buffer.get(offset + 2, id);
+        return new String(id, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] encodeAttributes(final StandardSession session) throws IOException {
+        final var body = new ByteArrayOutputStream();
+        final var out = new DataOutputStream(body);
+        int count = 0;
+        for (final Map.Entry<String, Object> attribute : session.attributes().entrySet()) {
+            if (writeAttribute(out, attribute.getKey(), attribute.getValue())) {
+                count++;
+            } else {
+                log.debug("not storing attribute {} of session {}", attribute.getKey(), session.getId());
+            }
+        }
+        out.flush();
+        final var bytes = new ByteArrayOutputStream(4 + body.size());
+        final var header = new DataOutputStream(bytes);
+        header.writeInt(count);
+        body.writeTo(header);
+        header.flush();
+        return bytes.toByteArray();
+    }
+
+    private static boolean writeAttribute(final DataOutputStream out, final String name, final Object value)
+            throws IOException {
+        if (value instanceof String s) {
+            writeString(out, name);
+            out.writeByte(TYPE_STRING);
+            writeString(out, s);
+        } else if (value instanceof Integer i) {
+            writeString(out, name);
+            out.writeByte(TYPE_INTEGER);
+            out.writeInt(i);
+        } else if (value instanceof Long l) {
+            writeString(out, name);
+            out.writeByte(TYPE_LONG);
+            out.writeLong(l);
+        } else if (value instanceof Boolean b) {
+            writeString(out, name);
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean(b);
+        } else if (value instanceof Serializable) {
+            final byte[] serialized;
+            try {
+                serialized = serialize(value);
+            } catch (NotSerializableException e) {
+                return false;
+            }
+            writeString(out, name);
+            out.writeByte(TYPE_SERIALIZED);
+            out.writeInt(serialized.length);
+            out.write(serialized);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * {@link DataOutputStream#writeUTF} is limited to 65535 encoded bytes,
+     * so strings are written with an int length instead.
+     */
+    private static void writeString(final DataOutputStream out, final String s) throws IOException {
+        final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] serialize(final Object value) throws IOException {
+        final var bytes = new ByteArrayOutputStream();
+        try (final var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object readValue(final DataInputStream in) throws IOException, ClassNotFoundException {
+        final byte type = in.readByte();
+        return switch (type) {
+            case TYPE_STRING -> readString(in);
+            case TYPE_INTEGER -> in.readInt();
+            case TYPE_LONG -> in.readLong();
+            case TYPE_BOOLEAN -> in.readBoolean();
+            case TYPE_SERIALIZED -> {
+                final byte[] serialized = new byte[in.readInt()];
+                in.readFully(serialized);
+                try (final var objectIn = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+                    yield objectIn.readObject();
+                }
+            }
+            default -> throw new IOException("unknown attribute type " + type);
+        };
+    }
+}
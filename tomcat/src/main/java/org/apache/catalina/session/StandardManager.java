@@ -0,0 +1,426 @@
+package org.apache.catalina.session;
+
+import jakarta.servlet.http.HttpSession;
+import org.apache.catalina.Manager;
+import org.apache.catalina.util.StandardSessionIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link Manager} that keeps sessions in memory. Lookups are a single read
+ * of a {@link ConcurrentHashMap} and take no lock.
+ * <p>
+ * Idle sessions are expired by a background thread that advances a
+ * {@link TimingWheel} once a second instead of scanning every session. New
+ * sessions reach the wheel through a queue, so only that thread touches it.
+ * When a session's bucket comes due, the thread checks the session's real
+ * deadline. A session that was used in the meantime is moved to its new
+ * bucket, and the others are expired. A session that times out between two
+ * ticks is caught by {@link #findSession} itself.
+ * <p>
+ * With a {@link MappedSessionStore}, {@link #stop()} saves the sessions and
+ * {@link #start()} maps the saved snapshot without reading it. A session is
+ * restored when its id is first looked up.
+ * <p>
+ * With a {@link FileStore}, sessions idle for {@link #setMaxIdleSwap
+ * maxIdleSwap} seconds are written to disk and dropped from memory, and
+ * once more than {@link #setMaxActiveSessions maxActiveSessions} are in
+ * memory the least recently used are swapped out as well. The wheel tells
+ * when a session becomes idle enough, so this needs no scan either. A
+ * swapped out session is swapped back in by {@link #findSession}. The
+ * store knows the swapped ids in memory, so an unknown or forged id costs no
+ * file system call, and the file is read outside any lock of the session
+ * map.
+ * <p>
+ * {@link #findSession} counts as a use of the session and moves its last
+ * access time, so sessions that requests keep using are never idle.
+ */
+public class StandardManager implements Manager {
+
+    private static final Logger log = LoggerFactory.getLogger(StandardManager.class);
+
+    public static final int DEFAULT_MAX_INACTIVE_INTERVAL = 30 * 60;
+    public static final String SESSION_COOKIE_NAME = "JSESSIONID";
+    private static final long TICK_MILLIS = 1000;
+    private static final long SWAP_EXPIRE_MILLIS = 60 * 1000;
+
+    private final Map<String, StandardSession> sessions = new ConcurrentHashMap<>();
+    private final Queue<StandardSession> scheduling = new ConcurrentLinkedQueue<>();
+    private final Map<String, CompletableFuture<StandardSession>> swappingIn = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private final TimingWheel wheel;
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+    private volatile int maxInactiveInterval = DEFAULT_MAX_INACTIVE_INTERVAL;
+    private volatile StandardSessionIdGenerator sessionIdGenerator = new StandardSessionIdGenerator();
+    private volatile MappedSessionStore store;
+    private volatile FileStore swap;
+    private volatile int maxIdleSwap = -1;
+    private volatile int maxActiveSessions = -1;
+    private final LongAdder swappedOutCount = new LongAdder();
+    private ScheduledExecutorService expirer;
+    private long lastSwapExpire;
+
+    public StandardManager() {
+        this(System::currentTimeMillis);
+    }
+
+    StandardManager(final LongSupplier clock) {
+        this.clock = clock;
+        this.wheel = new TimingWheel(TICK_MILLIS, clock.getAsLong());
+    }
+
+    /**
+     * Map the sessions saved by the last stop, if there is a store, and start
+     * the thread that expires idle sessions.
+     */
+    public synchronized void start() {
+        if (expirer != null) {
+            return;
+        }
+        if (store != null) {
+            try {
+                store.open();
+            } catch (IOException e) {
+                log.error("cannot open session store {}", store.getFile(), e);
+            }
+        }
+        if (isSwapping()) {
+            swap.open();
+        }
+        expirer = Executors.newSingleThreadScheduledExecutor(task -> {
+            final var thread = new Thread(task, "session-expirer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        expirer.scheduleWithFixedDelay(this::backgroundProcess, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop expiring sessions and, if there is a store, save the sessions to
+     * it and unload them.
+     */
+    public synchronized void stop() {
+        if (expirer == null) {
+            return;
+        }
+        expirer.shutdownNow();
+        expirer = null;
+        if (store == null) {
+            return;
+        }
+        try {
+            store.save(sessions.values(), currentTimeMillis());
+            sessions.clear();
+        } catch (IOException e) {
+            log.error("cannot save sessions to {}", store.getFile(), e);
+        }
+    }
+
+    /**
+     * Create a session with a new id and the default timeout, and add it.
+     */
+    public StandardSession createSession() {
+        StandardSession session;
+        do {
+            session = new StandardSession(this, sessionIdGenerator.generateSessionId(), currentTimeMillis(),
+                    maxInactiveInterval);
+        } while (sessions.putIfAbsent(session.getId(), session) != null);
+        scheduling.offer(session);
+        createdCount.increment();
+        return session;
+    }
+
+    @Override
+    public void add(final HttpSession session) {
+        final var standardSession = (StandardSession) session;
+        sessions.put(session.getId(), standardSession);
+        scheduling.offer(standardSession);
+    }
+
+    @Override
+    public StandardSession findSession(final String id) {
+        if (id == null) {
+            return null;
+        }
+        StandardSession session = sessions.get(id);
+        if (session == null && (session = load(id)) == null) {
+            return null;
+        }
+        final long now = currentTimeMillis();
+        if (!session.isValid(now)) {
+            expire(session);
+            return null;
+        }
+        session.accessed(now);
+        return session;
+    }
+
+    private StandardSession load(final String id) {
+        final FileStore swapped = swap;
+        if (swapped != null && (swapped.contains(id) || swappingIn.containsKey(id))) {
+            return swapIn(swapped, id);
+        }
+        final MappedSessionStore snapshot = store;
+        if (snapshot == null || snapshot.isEmpty()) {
+            // 방금 다른 스레드가 디스크에서 들여왔을 수 있다.
+            return sessions.get(id);
+        }
+        // 같은 id 로 동시에 찾아도 스냅숏에서는 한 번만 꺼낸다. 매핑된 메모리만 읽는다.
+        final StandardSession session = sessions.computeIfAbsent(id,
+                ignored -> snapshot.load(id, this, currentTimeMillis()));
+        if (session != null) {
+            scheduling.offer(session);
+        }
+        return session;
+    }
+
+    /**
+     * Read the session's file without holding a lock of the map. Other
+     * requests for the same id wait for the first one instead of reading.
+     */
+    private StandardSession swapIn(final FileStore swapped, final String id) {
+        final var loading = new CompletableFuture<StandardSession>();
+        final CompletableFuture<StandardSession> running = swappingIn.putIfAbsent(id, loading);
+        if (running != null) {
+            return running.join();
+        }
+        StandardSession session = null;
+        try {
+            final StandardSession loaded = swapped.load(id, this, currentTimeMillis());
+            if (loaded == null) {
+                session = sessions.get(id);
+            } else if ((session = sessions.putIfAbsent(id, loaded)) == null) {
+                session = loaded;
+                scheduling.offer(loaded);
+            }
+        } finally {
+            loading.complete(session);
+            swappingIn.remove(id, loading);
+        }
+        return session;
+    }
+
+    @Override
+    public void remove(final HttpSession session) {
+        // 휠에 남은 항목은 버킷 차례가 왔을 때 맵에 없는 것을 보고 버린다.
+        if (!sessions.remove(session.getId(), session) && swap != null) {
+            // 내보내진 뒤에 무효화된 세션이 디스크에서 되살아나지 않게 한다.
+            swap.remove(session.getId());
+        }
+    }
+
+    /**
+     * Expire the sessions whose deadline has passed and swap out idle ones.
+     * Called once a second by the background thread.
+     */
+    public void backgroundProcess() {
+        try {
+            processExpires(currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+
+    synchronized void processExpires(final long now) {
+        StandardSession session;
+        while ((session = scheduling.poll()) != null) {
+            wheel.schedule(session, Math.min(session.getDeadline(), swapTime(session)));
+        }
+        wheel.advance(now, due -> {
+            if (sessions.get(due.getId()) != due) {
+                return;
+            }
+            final long deadline = due.getDeadline();
+            if (now >= deadline) {
+                expire(due);
+                return;
+            }
+            final long swapTime = swapTime(due);
+            if (now < swapTime) {
+                wheel.schedule(due, Math.min(deadline, swapTime));
+            } else if (!swapOut(due)) {
+                wheel.schedule(due, deadline);
+            }
+        });
+        processMaxActiveSwaps(now);
+        processSwapExpires(now);
+    }
+
+    private boolean isSwapping() {
+        return swap != null && (maxIdleSwap > 0 || maxActiveSessions >= 0);
+    }
+
+    /**
+     * @return when the session will have been idle for maxIdleSwap seconds,
+     * or {@link Long#MAX_VALUE} if idle sessions are not swapped out
+     */
+    private long swapTime(final StandardSession session) {
+        final int idle = maxIdleSwap;
+        if (swap == null || idle <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return session.lastAccessedTime() + idle * 1000L;
+    }
+
+    /**
+     * Swap out the least recently used sessions while more than
+     * maxActiveSessions are in memory. Sessions used during the last tick
+     * stay, as a request may still be working with them.
+     */
+    private void processMaxActiveSwaps(final long now) {
+        final int max = maxActiveSessions;
+        final int excess = sessions.size() - max;
+        if (swap == null || max < 0 || excess <= 0) {
+            return;
+        }
+        final var oldest = new PriorityQueue<StandardSession>(excess + 1,
+                Comparator.comparingLong(StandardSession::lastAccessedTime).reversed());
+        for (final StandardSession candidate : sessions.values()) {
+            if (now - candidate.lastAccessedTime() < TICK_MILLIS) {
+                continue;
+            }
+            oldest.offer(candidate);
+            if (oldest.size() > excess) {
+                oldest.poll();
+            }
+        }
+        for (final StandardSession candidate : oldest) {
+            swapOut(candidate);
+        }
+    }
+
+    private boolean swapOut(final StandardSession session) {
+        final FileStore current = swap;
+        final long accessed = session.lastAccessedTime();
+        try {
+            current.save(session);
+        } catch (IOException e) {
+            log.warn("cannot swap out session {}: {}", session.getId(), e.getMessage());
+            return false;
+        }
+        // 파일에 쓰는 사이에 사용된 세션은 메모리에 남기고 파일을 지운다.
+        final StandardSession remaining = sessions.computeIfPresent(session.getId(),
+                (id, active) -> active == session && session.lastAccessedTime() == accessed ? null : active);
+        if (remaining != null || !session.isValid()) {
+            current.remove(session.getId());
+            return false;
+        }
+        swappedOutCount.increment();
+        return true;
+    }
+
+    private void processSwapExpires(final long now) {
+        final FileStore current = swap;
+        if (current == null || current.getSize() == 0 || now - lastSwapExpire < SWAP_EXPIRE_MILLIS) {
+            return;
+        }
+        lastSwapExpire = now;
+        expiredCount.add(current.processExpires(now));
+    }
+
+    private void expire(final StandardSession session) {
+        if (session.expire()) {
+            expiredCount.increment();
+        }
+    }
+
+    long currentTimeMillis() {
+        return clock.getAsLong();
+    }
+
+    public int getMaxInactiveInterval() {
+        return maxInactiveInterval;
+    }
+
+    /**
+     * @param maxInactiveInterval the timeout of new sessions in seconds; zero
+     *                            or less means they never time out
+     */
+    public void setMaxInactiveInterval(final int maxInactiveInterval) {
+        this.maxInactiveInterval = maxInactiveInterval;
+    }
+
+    public void setSessionIdGenerator(final StandardSessionIdGenerator sessionIdGenerator) {
+        this.sessionIdGenerator = sessionIdGenerator;
+    }
+
+    public void setStore(final MappedSessionStore store) {
+        this.store = store;
+    }
+
+    public MappedSessionStore getStore() {
+        return store;
+    }
+
+    public void setSwap(final FileStore swap) {
+        this.swap = swap;
+    }
+
+    public FileStore getSwap() {
+        return swap;
+    }
+
+    public int getMaxIdleSwap() {
+        return maxIdleSwap;
+    }
+
+    /**
+     * @param maxIdleSwap seconds of inactivity after which a session is
+     *                    swapped out; zero or less turns this off
+     */
+    public void setMaxIdleSwap(final int maxIdleSwap) {
+        this.maxIdleSwap = maxIdleSwap;
+    }
+
+    public int getMaxActiveSessions() {
+        return maxActiveSessions;
+    }
+
+    /**
+     * @param maxActiveSessions the number of sessions kept in memory before
+     *                          the least recently used are swapped out; less
+     *                          than zero means no limit
+     */
+    public void setMaxActiveSessions(final int maxActiveSessions) {
+        this.maxActiveSessions = maxActiveSessions;
+    }
+
+    public int getActiveSessions() {
+        return sessions.size();
+    }
+
+    public long getSessionCounter() {
+        return createdCount.sum();
+    }
+
+    public long getExpiredSessions() {
+        return expiredCount.sum();
+    }
+
+    public long getSwappedOutSessions() {
+        return swappedOutCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "StandardManager[active=" + getActiveSessions()
+                + ", created=" + getSessionCounter()
+                + ", expired=" + getExpiredSessions()
+                + ", swappedOut=" + getSwappedOutSessions() + "]";
+    }
+}
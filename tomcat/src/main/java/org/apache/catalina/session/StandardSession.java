@@ -0,0 +1,234 @@
+package org.apache.catalina.session;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpSessionContext;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Session kept in memory by a {@link StandardManager}. Attributes live in a
+ * concurrent map, so requests of the same client may use the session at the
+ * same time.
+ * <p>
+ * Touching the session with {@link #access()} only records the time. The
+ * manager's timing wheel notices the new deadline when the session's old
+ * bucket comes due and moves it then.
+ */
+public class StandardSession implements HttpSession {
+
+    private final StandardManager manager;
+    private final String id;
+    private final long creationTime;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private volatile long lastAccessedTime;
+    private volatile int maxInactiveInterval;
+    private volatile boolean isNew = true;
+    private volatile boolean valid = true;
+
+    // 타이밍 휠 안에서만 쓰는 필드로, 만료 스레드 외에는 건드리지 않는다.
+    StandardSession wheelNext;
+    long wheelTick;
+    boolean scheduled;
+
+    StandardSession(final StandardManager manager, final String id, final long creationTime,
+                    final int maxInactiveInterval) {
+        this(manager, id, creationTime, creationTime, maxInactiveInterval, true);
+    }
+
+    StandardSession(final StandardManager manager, final String id, final long creationTime,
+                    final long lastAccessedTime, final int maxInactiveInterval, final boolean isNew) {
+        this.manager = manager;
+        this.id = id;
+        this.creationTime = creationTime;
+        this.lastAccessedTime = lastAccessedTime;
+        this.maxInactiveInterval = maxInactiveInterval;
+        this.isNew = isNew;
+    }
+
+    /**
+     * Record that a request of the client is using the session.
+     */
+    public void access() {
+        lastAccessedTime = manager.currentTimeMillis();
+        isNew = false;
+    }
+
+    /**
+     * Record that the manager handed the session to a request, without
+     * deciding whether the client has joined it.
+     */
+    void accessed(final long now) {
+        lastAccessedTime = now;
+    }
+
+    /**
+     * @return the time after which the session expires, or
+     * {@link Long#MAX_VALUE} if it never does
+     */
+    long getDeadline() {
+        final int interval = maxInactiveInterval;
+        if (interval <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return lastAccessedTime + interval * 1000L;
+    }
+
+    long creationTime() {
+        return creationTime;
+    }
+
+    long lastAccessedTime() {
+        return lastAccessedTime;
+    }
+
+    boolean isNewInternal() {
+        return isNew;
+    }
+
+    /**
+     * @return the live attribute map, for storing and restoring the session
+     */
+    Map<String, Object> attributes() {
+        return attributes;
+    }
+
+    /**
+     * @return whether the session is valid and has not timed out at
+     * {@code now}
+     */
+    boolean isValid(final long now) {
+        return valid && now < getDeadline();
+    }
+
+    /**
+     * Invalidate the session and remove it from its manager.
+     *
+     * @return {@code false} if it had already been invalidated
+     */
+    synchronized boolean expire() {
+        if (!valid) {
+            return false;
+        }
+        valid = false;
+        manager.remove(this);
+        attributes.clear();
+        return true;
+    }
+
+    @Override
+    public long getCreationTime() {
+        checkValid();
+        return creationTime;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public long getLastAccessedTime() {
+        checkValid();
+        return lastAccessedTime;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return null;
+    }
+
+    @Override
+    public void setMaxInactiveInterval(final int interval) {
+        this.maxInactiveInterval = interval;
+    }
+
+    @Override
+    public int getMaxInactiveInterval() {
+        return maxInactiveInterval;
+    }
+
+    @Override
+    @Deprecated
+    public HttpSessionContext getSessionContext() {
+        return null;
+    }
+
+    @Override
+    public Object getAttribute(final String name) {
+        checkValid();
+        return attributes.get(name);
+    }
+
+    @Override
+    @Deprecated
+    public Object getValue(final String name) {
+        return getAttribute(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        checkValid();
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    @Deprecated
+    public String[] getValueNames() {
+        checkValid();
+        return attributes.keySet().toArray(String[]::new);
+    }
+
+    @Override
+    public void setAttribute(final String name, final Object value) {
+        checkValid();
+        if (value == null) {
+            attributes.remove(name);
+            return;
+        }
+        attributes.put(name, value);
+    }
+
+    @Override
+    @Deprecated
+    public void putValue(final String name, final Object value) {
+        setAttribute(name, value);
+    }
+
+    @Override
+    public void removeAttribute(final String name) {
+        checkValid();
+        attributes.remove(name);
+    }
+
+    @Override
+    @Deprecated
+    public void removeValue(final String name) {
+        removeAttribute(name);
+    }
+
+    @Override
+    public void invalidate() {
+        checkValid();
+        expire();
+    }
+
+    @Override
+    public boolean isNew() {
+        checkValid();
+        return isNew;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    private void checkValid() {
+        if (!valid) {
+            throw new IllegalStateException("session already invalidated: " + id);
+        }
+    }
+}
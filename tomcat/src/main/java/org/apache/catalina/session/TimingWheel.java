@@ -0,0 +1,117 @@
+package org.apache.catalina.session;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel of sessions, by deadline. Level {@code n} has
+ * {@value #SLOTS} buckets of {@code SLOTS^n} ticks each, so four levels of
+ * one-second ticks cover about 194 days; later deadlines wait in an overflow
+ * list. Scheduling is O(1), and a session is looked at only when its bucket
+ * comes due or cascades down to a finer level, never by scanning.
+ * <p>
+ * Buckets are singly linked through the sessions themselves, so the wheel
+ * allocates nothing per session. It is not thread-safe; the manager only
+ * touches it from the expiring thread.
+ */
+final class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+    private static final long WHEEL_MASK = (1L << (LEVELS * SLOT_BITS)) - 1;
+
+    private final long tickMillis;
+    private final StandardSession[][] buckets = new StandardSession[LEVELS][SLOTS];
+    private StandardSession overflow;
+    private long currentTick;
+    private int size;
+
+    TimingWheel(final long tickMillis, final long now) {
+        this.tickMillis = tickMillis;
+        this.currentTick = now / tickMillis;
+    }
+
+    /**
+     * Schedule the session for the first tick at or after {@code deadline}.
+     * Deadlines in the past come due on the next tick. A session that is
+     * already in the wheel stays where it is.
+     */
+    void schedule(final StandardSession session, final long deadline) {
+        if (session.scheduled) {
+            return;
+        }
+        session.scheduled = true;
+        final long tick = deadline / tickMillis + (deadline % tickMillis == 0 ? 0 : 1);
+        insert(session, Math.max(tick, currentTick + 1));
+        size++;
+    }
+
+    /**
+     * Move the wheel to {@code now}, handing every session whose deadline
+     * tick has passed to {@code due}. The sessions are unlinked first, so
+     * {@code due} may schedule them again.
+     */
+    void advance(final long now, final Consumer<StandardSession> due) {
+        final long target = now / tickMillis;
+        while (currentTick < target) {
+            currentTick++;
+            if ((currentTick & WHEEL_MASK) == 0) {
+                final StandardSession pending = overflow;
+                overflow = null;
+                cascade(pending);
+            }
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (level * SLOT_BITS)) - 1)) == 0) {
+                    final int slot = slot(currentTick, level);
+                    final StandardSession pending = buckets[level][slot];
+                    buckets[level][slot] = null;
+                    cascade(pending);
+                }
+            }
+            final int slot = slot(currentTick, 0);
+            StandardSession session = buckets[0][slot];
+            buckets[0][slot] = null;
+            while (session != null) {
+                final StandardSession next = session.wheelNext;
+                session.wheelNext = null;
+                session.scheduled = false;
+                size--;
+                due.accept(session);
+                session = next;
+            }
+        }
+    }
+
+    /**
+     * @return the number of sessions in the wheel
+     */
+    int size() {
+        return size;
+    }
+
+    private void cascade(StandardSession session) {
+        while (session != null) {
+            final StandardSession next = session.wheelNext;
+            insert(session, session.wheelTick);
+            session = next;
+        }
+    }
+
+    private void insert(final StandardSession session, final long tick) {
+        session.wheelTick = tick;
+        // 현재 틱과 처음으로 달라지는 자릿수 묶음이 들어갈 레벨이다. 같으면 이번 틱의 0 레벨 버킷에 들어간다.
+        final int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(tick ^ currentTick)) / SLOT_BITS;
+        if (level >= LEVELS) {
+            session.wheelNext = overflow;
+            overflow = session;
+            return;
+        }
+        final int slot = slot(tick, level);
+        session.wheelNext = buckets[level][slot];
+        buckets[level][slot] = session;
+    }
+
+    private static int slot(final long tick, final int level) {
+        return (int) (tick >>> (level * SLOT_BITS)) & (SLOTS - 1);
+    }
+}
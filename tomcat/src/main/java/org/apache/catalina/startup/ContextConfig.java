@@ -0,0 +1,155 @@
+package org.apache.catalina.startup;
+
+import org.apache.catalina.Controller;
+import org.apache.catalina.annotation.RequestMapping;
+import org.apache.catalina.connector.CoyoteAdapter;
+import org.apache.catalina.mapper.Mapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the {@link RequestMapping} controllers under a package when the
+ * server starts, creates them and routes their paths to them.
+ * <p>
+ * If the classpath has a {@link ControllerIndex} generated for the package,
+ * the classes are loaded by name from it, which costs a few class loads. Without one, for example when
+ * running from an IDE that skips the build step, the package is scanned
+ * with Reflections, which reads every class file under it.
+ * <p>
+ * A controller is created with its constructor whose parameters can all be
+ * filled from the objects given here, such as the session manager.
+ */
+public class ContextConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ContextConfig.class);
+
+    private final String basePackage;
+    private final ClassLoader classLoader;
+    private final Object[] dependencies;
+    private boolean useIndex = true;
+
+    public ContextConfig(final String basePackage, final Object... dependencies) {
+        this(basePackage, ContextConfig.class.getClassLoader(), dependencies);
+    }
+
+    ContextConfig(final String basePackage, final ClassLoader classLoader, final Object... dependencies) {
+        this.basePackage = basePackage;
+        this.classLoader = classLoader;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Find the controllers, create them and add their routes to the adapter.
+     *
+     * @return the number of controllers added
+     */
+    public int configure(final CoyoteAdapter adapter) {
+        final long start = System.nanoTime();
+        List<String> names = null;
+        if (useIndex) {
+            try {
+                names = ControllerIndex.read(classLoader, basePackage);
+            } catch (IOException e) {
+                log.warn("cannot read {}, scanning {}: {}", ControllerIndex.RESOURCE, basePackage, e.getMessage());
+            }
+        }
+        final String source = names == null ? "scanning" : "index";
+        if (names == null) {
+            names = ControllerIndex.scan(basePackage);
+        }
+        if (names.isEmpty()) {
+            log.warn("no @RequestMapping controllers found under {} by {}", basePackage, source);
+        }
+        final long found = System.nanoTime();
+        for (final String name : names) {
+            addController(adapter, loadController(name));
+        }
+        final long end = System.nanoTime();
+        log.info("found {} controllers under {} by {} in {} ms, bound in {} ms", names.size(), basePackage, source,
+                (found - start) / 1_000_000.0, (end - found) / 1_000_000.0);
+        return names.size();
+    }
+
+    private Class<? extends Controller> loadController(final String name) {
+        final Class<?> type;
+        try {
+            type = Class.forName(name, true, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("controller not found: " + name, e);
+        }
+        if (!Controller.class.isAssignableFrom(type) || !type.isAnnotationPresent(RequestMapping.class)
+                || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalStateException("not a @RequestMapping controller: " + name);
+        }
+        return type.asSubclass(Controller.class);
+    }
+
+    private void addController(final CoyoteAdapter adapter, final Class<? extends Controller> type) {
+        final RequestMapping mapping = type.getAnnotation(RequestMapping.class);
+        final Controller controller = instantiate(type);
+        final String[] methods = mapping.method().length == 0 ? new String[]{Mapper.ANY_METHOD} : mapping.method();
+        for (final String pattern : mapping.value()) {
+            for (final String method : methods) {
+                adapter.addController(method, pattern, controller);
+            }
+        }
+    }
+
+    private Controller instantiate(final Class<? extends Controller> type) {
+        for (final Constructor<?> constructor : type.getConstructors()) {
+            final Object[] arguments = resolve(constructor.getParameterTypes());
+            if (arguments == null) {
+                continue;
+            }
+            try {
+                return (Controller) constructor.newInstance(arguments);
+            } catch (InvocationTargetException e) {
+                throw new IllegalStateException("cannot create " + type.getName(), e.getCause());
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("cannot create " + type.getName(), e);
+            }
+        }
+        throw new IllegalStateException("no public constructor of " + type.getName() + " takes only "
+                + describeDependencies());
+    }
+
+    private Object[] resolve(final Class<?>[] parameterTypes) {
+        final Object[] arguments = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            for (final Object dependency : dependencies) {
+                if (parameterTypes[i].isInstance(dependency)) {
+                    arguments[i] = dependency;
+                    break;
+                }
+            }
+            if (arguments[i] == null) {
+                return null;
+            }
+        }
+        return arguments;
+    }
+
+    private String describeDependencies() {
+        final List<String> types = new ArrayList<>();
+        for (final Object dependency : dependencies) {
+            types.add(dependency.getClass().getSimpleName());
+        }
+        return types.toString();
+    }
+
+    /**
+     * @param useIndex whether to load the controllers listed in the
+     *                 {@link ControllerIndex} when there is one; if not, the
+     *                 package is always scanned
+     */
+    public void setUseIndex(final boolean useIndex) {
+        this.useIndex = useIndex;
+    }
+}
@@ -0,0 +1,116 @@
+package org.apache.catalina.startup;
+
+import org.apache.catalina.annotation.RequestMapping;
+import org.reflections.Reflections;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * List of the {@link RequestMapping} classes of an application, written at
+ * build time so that starting the server does not have to scan the
+ * classpath. The file starts with {@code package} and the base package it
+ * was generated for, followed by one class name per line; lines starting
+ * with {@code #} are comments. An index only answers for its own package, so
+ * one that comes with a library, or was written for another package, never
+ * stands in for a scan. The build runs {@link #main} after compiling:
+ * <pre>
+ * java ControllerIndex &lt;base package&gt; &lt;output file&gt;
+ * </pre>
+ */
+public final class ControllerIndex {
+
+    public static final String RESOURCE = "META-INF/tomcat/controllers.idx";
+
+    private static final String PACKAGE = "package ";
+
+    private ControllerIndex() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("usage: ControllerIndex <base package> <output file>");
+        }
+        final List<String> names = scan(args[0]);
+        write(Path.of(args[1]), args[0], names);
+        System.out.printf("indexed %d controllers of %s in %s%n", names.size(), args[0], args[1]);
+    }
+
+    /**
+     * @return the names of the classes under the package annotated with
+     * {@link RequestMapping}, sorted
+     */
+    static List<String> scan(final String basePackage) {
+        final Set<String> names = new TreeSet<>();
+        for (final Class<?> type : new Reflections(basePackage).getTypesAnnotatedWith(RequestMapping.class)) {
+            if (type.isAnnotationPresent(RequestMapping.class)) {
+                names.add(type.getName());
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    static void write(final Path file, final String basePackage, final List<String> names) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        final List<String> lines = new ArrayList<>(names.size() + 2);
+        lines.add("# generated by " + ControllerIndex.class.getSimpleName() + ", do not edit");
+        lines.add(PACKAGE + basePackage);
+        lines.addAll(names);
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the names under the package listed in the indexes visible to
+     * the class loader that were generated for it or for a package that
+     * contains it, or {@code null} if there is no such index
+     */
+    static List<String> read(final ClassLoader classLoader, final String basePackage) throws IOException {
+        final Enumeration<URL> indexes = classLoader.getResources(RESOURCE);
+        final String prefix = basePackage + ".";
+        List<String> names = null;
+        while (indexes.hasMoreElements()) {
+            final URL index = indexes.nextElement();
+            final List<String> listed = new ArrayList<>();
+            String indexPackage = null;
+            try (final var reader = new BufferedReader(
+                    new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    final String entry = line.trim();
+                    if (entry.isEmpty() || entry.startsWith("#")) {
+                        continue;
+                    }
+                    if (entry.startsWith(PACKAGE)) {
+                        indexPackage = entry.substring(PACKAGE.length()).trim();
+                    } else if (entry.startsWith(prefix)) {
+                        listed.add(entry);
+                    }
+                }
+            }
+            if (covers(indexPackage, basePackage)) {
+                if (names == null) {
+                    names = new ArrayList<>();
+                }
+                names.addAll(listed);
+            }
+        }
+        return names;
+    }
+
+    private static boolean covers(final String indexPackage, final String basePackage) {
+        return indexPackage != null
+                && (basePackage.equals(indexPackage) || basePackage.startsWith(indexPackage + "."));
+    }
+}
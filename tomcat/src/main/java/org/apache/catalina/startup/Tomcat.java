@@ -1,18 +1,67 @@
 package org.apache.catalina.startup;
 
+import org.apache.catalina.Controller;
+import org.apache.catalina.Executor;
 import org.apache.catalina.connector.Connector;
+import org.apache.catalina.connector.CoyoteAdapter;
+import org.apache.catalina.core.StandardThreadExecutor;
+import org.apache.catalina.core.VirtualThreadExecutor;
+import org.apache.catalina.session.FileStore;
+import org.apache.catalina.session.MappedSessionStore;
+import org.apache.catalina.session.StandardManager;
+import org.apache.catalina.webresources.StaticResourceCache;
+import org.apache.catalina.webresources.StaticResources;
+import org.apache.coyote.CompressionConfig;
+import org.apache.coyote.http11.Http11Protocol;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 
 public class Tomcat {
 
     private static final Logger log = LoggerFactory.getLogger(Tomcat.class);
 
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_ACCEPT_COUNT = 100;
+    private static final Path DEFAULT_SESSION_STORE = Path.of("work", "sessions.bin");
+    private static final Path DEFAULT_SESSION_SWAP = Path.of("work", "sessions");
+
+    private final StaticResourceCache staticResourceCache = new StaticResourceCache();
+    private final CompressionConfig compression = new CompressionConfig();
+    private final StandardManager manager = new StandardManager();
+    private final CoyoteAdapter adapter = new CoyoteAdapter(new StaticResources(), staticResourceCache, compression);
+    private final Http11Protocol protocol = new Http11Protocol(adapter);
+
+    private int port = DEFAULT_PORT;
+    private int acceptCount = DEFAULT_ACCEPT_COUNT;
+    private int maxThreads = StandardThreadExecutor.DEFAULT_MAX_THREADS;
+    private int minSpareThreads = StandardThreadExecutor.DEFAULT_MIN_SPARE_THREADS;
+    private Duration maxIdleTime = StandardThreadExecutor.DEFAULT_MAX_IDLE_TIME;
+    private boolean useVirtualThreads = false;
+    private int maxConnections = VirtualThreadExecutor.DEFAULT_MAX_CONNECTIONS;
+    private boolean useNio = false;
+    private String controllerPackage;
+    private boolean useControllerIndex = true;
+
+    public Tomcat() {
+        manager.setStore(new MappedSessionStore(DEFAULT_SESSION_STORE));
+        manager.setSwap(new FileStore(DEFAULT_SESSION_SWAP));
+    }
+
     public void start() {
-        var connector = new Connector();
+        final long startTime = System.nanoTime();
+        if (controllerPackage != null) {
+            final var config = new ContextConfig(controllerPackage, manager);
+            config.setUseIndex(useControllerIndex);
+            config.configure(adapter);
+        }
+        var connector = new Connector(port, acceptCount, createExecutor(), protocol, useNio);
+        manager.start();
         connector.start();
+        log.info("server startup in {} ms", (System.nanoTime() - startTime) / 1_000_000.0);
 
         try {
             // make the application wait until we press any key.
@@ -20,8 +69,147 @@ public class Tomcat {
         } catch (IOException e) {
             log.error(e.getMessage(), e);
         } finally {
-            log.info("web server stop.");
+            log.info("web server stop. {} {} {}", staticResourceCache, protocol.getBufferPool(), manager);
             connector.stop();
+            manager.stop();
         }
     }
+
+    private Executor createExecutor() {
+        if (useVirtualThreads) {
+            return new VirtualThreadExecutor("http-vt", maxConnections, VirtualThreadExecutor.DEFAULT_ACQUIRE_TIMEOUT);
+        }
+        return new StandardThreadExecutor("http-exec", maxThreads, minSpareThreads, acceptCount, maxIdleTime);
+    }
+
+    public void setPort(final int port) {
+        this.port = port;
+    }
+
+    public void setAcceptCount(final int acceptCount) {
+        this.acceptCount = acceptCount;
+    }
+
+    public void setMaxThreads(final int maxThreads) {
+        this.maxThreads = maxThreads;
+    }
+
+    public void setMinSpareThreads(final int minSpareThreads) {
+        this.minSpareThreads = minSpareThreads;
+    }
+
+    public void setMaxIdleTime(final Duration maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    public void setUseVirtualThreads(final boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+    }
+
+    public void setMaxConnections(final int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public void setUseNio(final boolean useNio) {
+        this.useNio = useNio;
+    }
+
+    public void setStaticCacheMaxSize(final long maxSize) {
+        staticResourceCache.setMaxSize(maxSize);
+    }
+
+    public void setStaticCacheMaxObjectSize(final int maxObjectSize) {
+        staticResourceCache.setMaxObjectSize(maxObjectSize);
+    }
+
+    /**
+     * @param ttl how long a cached static file is served before it is checked
+     *            for changes on disk
+     */
+    public void setStaticCacheTtl(final Duration ttl) {
+        staticResourceCache.setTtl(ttl.toMillis());
+    }
+
+    public void setCompression(final boolean enabled) {
+        compression.setEnabled(enabled);
+    }
+
+    public void setCompressionMinSize(final int minSize) {
+        compression.setMinSize(minSize);
+    }
+
+    public void setBufferPoolMaxMemory(final long maxMemory) {
+        protocol.getBufferPool().setMaxMemory(maxMemory);
+    }
+
+    public void setSessionTimeout(final Duration timeout) {
+        manager.setMaxInactiveInterval((int) timeout.toSeconds());
+    }
+
+    /**
+     * @param file where sessions are saved on stop and restored from after
+     *             start, or {@code null} to keep them only in memory
+     */
+    public void setSessionStore(final Path file) {
+        manager.setStore(file == null ? null : new MappedSessionStore(file));
+    }
+
+    /**
+     * @param maxIdleSwap how long a session may stay unused before it is
+     *                    swapped out to disk, or {@code null} to keep idle
+     *                    sessions in memory
+     */
+    public void setSessionMaxIdleSwap(final Duration maxIdleSwap) {
+        manager.setMaxIdleSwap(maxIdleSwap == null ? -1 : (int) maxIdleSwap.toSeconds());
+    }
+
+    /**
+     * @param maxActiveSessions how many sessions to keep in memory before the
+     *                          least recently used are swapped out to disk,
+     *                          or -1 for no limit
+     */
+    public void setMaxActiveSessions(final int maxActiveSessions) {
+        manager.setMaxActiveSessions(maxActiveSessions);
+    }
+
+    /**
+     * Route requests for the method and path pattern to the controller.
+     * Call before {@link #start()}.
+     *
+     * @see org.apache.catalina.mapper.Mapper#addRoute
+     */
+    public void addController(final String method, final String pattern, final Controller controller) {
+        adapter.addController(method, pattern, controller);
+    }
+
+    /**
+     * Route requests to the {@link org.apache.catalina.annotation.RequestMapping
+     * RequestMapping} controllers under the package, found when the server
+     * starts.
+     *
+     * @see ContextConfig
+     */
+    public void setControllerPackage(final String controllerPackage) {
+        this.controllerPackage = controllerPackage;
+    }
+
+    /**
+     * @param useControllerIndex whether to find controllers through the index
+     *                           written by the build instead of scanning
+     */
+    public void setUseControllerIndex(final boolean useControllerIndex) {
+        this.useControllerIndex = useControllerIndex;
+    }
+
+    public StandardManager getManager() {
+        return manager;
+    }
+
+    public StaticResourceCache getStaticResourceCache() {
+        return staticResourceCache;
+    }
+
+    public Http11Protocol getProtocol() {
+        return protocol;
+    }
 }
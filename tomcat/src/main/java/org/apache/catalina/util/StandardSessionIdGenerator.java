@@ -0,0 +1,125 @@
+package org.apache.catalina.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Generates session ids from a pool of {@link SecureRandom} instances, so
+ * threads creating sessions at the same time do not queue on the lock of one
+ * shared generator. A thread takes an instance from the pool, or creates one
+ * if none is free, and puts it back afterwards; the pool therefore grows to
+ * the number of threads that ever generated an id at the same time.
+ * <p>
+ * The default algorithm is SHA1PRNG, which locks each instance on its own
+ * and is the fastest of the JDK generators. The platform default on Linux,
+ * NativePRNG, serializes every instance on one process-wide lock, so pooling
+ * it would not help. Instances are seeded when they are created, not on
+ * first use, and a few are created up front.
+ * <p>
+ * Ids are the random bytes in URL-safe base64 without padding, written
+ * straight into the bytes of the resulting string.
+ */
+public class StandardSessionIdGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(StandardSessionIdGenerator.class);
+
+    public static final int DEFAULT_SESSION_ID_LENGTH = 16;
+    public static final String DEFAULT_ALGORITHM = "SHA1PRNG";
+
+    private static final long SLOW_SEEDING_MILLIS = 100;
+    private static final byte[] BASE64_URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+            .getBytes(StandardCharsets.ISO_8859_1);
+
+    private final Queue<SecureRandom> randoms = new ConcurrentLinkedQueue<>();
+    private final int sessionIdLength;
+    private final String algorithm;
+
+    public StandardSessionIdGenerator() {
+        this(DEFAULT_SESSION_ID_LENGTH, DEFAULT_ALGORITHM);
+    }
+
+    /**
+     * @param sessionIdLength the number of random bytes in an id
+     * @param algorithm       the {@link SecureRandom} algorithm, or
+     *                        {@code null} for the platform default
+     */
+    public StandardSessionIdGenerator(final int sessionIdLength, final String algorithm) {
+        if (sessionIdLength < 1) {
+            throw new IllegalArgumentException("sessionIdLength must be positive: " + sessionIdLength);
+        }
+        this.sessionIdLength = sessionIdLength;
+        this.algorithm = algorithm;
+        for (int i = 0; i < Runtime.getRuntime().availableProcessors(); i++) {
+            randoms.offer(createSecureRandom());
+        }
+    }
+
+    public String generateSessionId() {
+        final byte[] random = new byte[sessionIdLength];
+        SecureRandom secureRandom = randoms.poll();
+        if (secureRandom == null) {
+            secureRandom = createSecureRandom();
+        }
+        try {
+            secureRandom.nextBytes(random);
+        } finally {
+            randoms.offer(secureRandom);
+        }
+        return encode(random);
+    }
+
+    static String encode(final byte[] src) {
+        final byte[] dst = new byte[(src.length * 4 + 2) / 3];
+        int d = 0;
+        int s = 0;
+        for (; s + 2 < src.length; s += 3) {
+            final int bits = (src[s] & 0xff) << 16 | (src[s + 1] & 0xff) << 8 | (src[s + 2] & 0xff);
+            dst[d++] = BASE64_URL[bits >>> 18];
+            dst[d++] = BASE64_URL[bits >>> 12 & 0x3f];
+            dst[d++] = BASE64_URL[bits >>> 6 & 0x3f];
+            dst[d++] = BASE64_URL[bits & 0x3f];
+        }
+        // 남은 1~2 바이트는 패딩 없이 필요한 글자만 쓴다.
+        if (s < src.length) {
+            final int bits = (src[s] & 0xff) << 16 | (s + 1 < src.length ? (src[s + 1] & 0xff) << 8 : 0);
+            dst[d++] = BASE64_URL[bits >>> 18];
+            dst[d++] = BASE64_URL[bits >>> 12 & 0x3f];
+            if (s + 1 < src.length) {
+                dst[d] = BASE64_URL[bits >>> 6 & 0x3f];
+            }
+        }
+        return new String(dst, StandardCharsets.ISO_8859_1);
+    }
+
+    private SecureRandom createSecureRandom() {
+        final long start = System.currentTimeMillis();
+        SecureRandom secureRandom = null;
+        if (algorithm != null) {
+            try {
+                secureRandom = SecureRandom.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                log.warn("unknown SecureRandom algorithm {}, using the platform default", algorithm);
+            }
+        }
+        if (secureRandom == null) {
+            secureRandom = new SecureRandom();
+        }
+        // 첫 세션을 만드는 요청이 시드 비용을 치르지 않도록 미리 시드를 채운다.
+        secureRandom.nextInt();
+        final long elapsed = System.currentTimeMillis() - start;
+        if (elapsed > SLOW_SEEDING_MILLIS) {
+            log.warn("creating a SecureRandom ({}) took {}ms", secureRandom.getAlgorithm(), elapsed);
+        }
+        return secureRandom;
+    }
+
+    public int getSessionIdLength() {
+        return sessionIdLength;
+    }
+}
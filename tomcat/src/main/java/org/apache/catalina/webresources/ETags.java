@@ -0,0 +1,78 @@
+package org.apache.catalina.webresources;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Strong entity tags derived from the content of a resource. Files are
+ * hashed through a small buffer, so computing a tag never holds the whole
+ * body in memory.
+ */
+public final class ETags {
+
+    private static final String ALGORITHM = "SHA-256";
+    private static final int TAG_BYTES = 16;
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+
+    private ETags() {
+    }
+
+    public static String of(final Path file) throws IOException {
+        final MessageDigest digest = newDigest();
+        final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        try (final var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return format(digest.digest());
+    }
+
+    public static String of(final byte[] content) {
+        return format(newDigest().digest(content));
+    }
+
+    /**
+     * Whether the value of an {@code If-None-Match} header matches the given
+     * tag. Uses the weak comparison RFC 9110 prescribes for this header, so
+     * {@code W/} prefixes are ignored.
+     */
+    public static boolean matches(final String ifNoneMatch, final String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        final String opaqueTag = opaqueTag(etag);
+        for (final String candidate : ifNoneMatch.split(",")) {
+            final String trimmed = candidate.trim();
+            if ("*".equals(trimmed) || opaqueTag.equals(opaqueTag(trimmed))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(final String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static String format(final byte[] hash) {
+        return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, TAG_BYTES)) + '"';
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALGORITHM + " is required on every Java platform", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.apache.catalina.webresources;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Content types by file extension. The table is built once when the class is
+ * loaded and only read afterwards.
+ */
+public final class MimeTypes {
+
+    public static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private static final Map<String, String> TYPES = Map.ofEntries(
+            Map.entry("html", "text/html;charset=utf-8"),
+            Map.entry("htm", "text/html;charset=utf-8"),
+            Map.entry("css", "text/css;charset=utf-8"),
+            Map.entry("js", "text/javascript;charset=utf-8"),
+            Map.entry("json", "application/json;charset=utf-8"),
+            Map.entry("txt", "text/plain;charset=utf-8"),
+            Map.entry("xml", "application/xml;charset=utf-8"),
+            Map.entry("svg", "image/svg+xml"),
+            Map.entry("png", "image/png"),
+            Map.entry("jpg", "image/jpeg"),
+            Map.entry("jpeg", "image/jpeg"),
+            Map.entry("gif", "image/gif"),
+            Map.entry("webp", "image/webp"),
+            Map.entry("ico", "image/x-icon"),
+            Map.entry("woff", "font/woff"),
+            Map.entry("woff2", "font/woff2"),
+            Map.entry("ttf", "font/ttf"),
+            Map.entry("map", "application/json;charset=utf-8"),
+            Map.entry("pdf", "application/pdf")
+    );
+
+    private MimeTypes() {
+    }
+
+    public static String getContentType(final String path) {
+        final int dot = path.lastIndexOf('.');
+        if (dot < 0 || dot < path.lastIndexOf('/')) {
+            return DEFAULT_CONTENT_TYPE;
+        }
+        final var extension = path.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return TYPES.getOrDefault(extension, DEFAULT_CONTENT_TYPE);
+    }
+}
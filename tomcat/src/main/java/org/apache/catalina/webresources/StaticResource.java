@@ -0,0 +1,95 @@
+package org.apache.catalina.webresources;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A file under the static directory. When the directory is on the file
+ * system only the path is kept, so the body can be sent straight from the
+ * file; when it is packed in a jar the bytes are read into memory instead.
+ */
+public class StaticResource {
+
+    private final String path;
+    private final String contentType;
+    private final long length;
+    private final Path file;
+    private final byte[] content;
+    private final String etag;
+    private final long lastModified;
+
+    private StaticResource(final String path, final String contentType, final long length,
+                           final Path file, final byte[] content, final String etag, final long lastModified) {
+        this.path = path;
+        this.contentType = contentType;
+        this.length = length;
+        this.file = file;
+        this.content = content;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    static StaticResource ofFile(final String path, final Path file, final long length, final String etag,
+                                 final long lastModified) {
+        return new StaticResource(path, MimeTypes.getContentType(path), length, file, null, etag, lastModified);
+    }
+
+    static StaticResource ofBytes(final String path, final byte[] content, final String etag) {
+        return new StaticResource(path, MimeTypes.getContentType(path), content.length, null, content, etag, -1);
+    }
+
+    /**
+     * @return the whole body in memory, reading the file if necessary
+     */
+    public byte[] readContent() {
+        if (content != null) {
+            return content;
+        }
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public boolean isFile() {
+        return file != null;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * @return a strong entity tag of the content, quoted
+     */
+    public String getETag() {
+        return etag;
+    }
+
+    /**
+     * @return the modification time in milliseconds since the epoch, or
+     * {@code -1} if it is unknown, as for resources read from a jar
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+}
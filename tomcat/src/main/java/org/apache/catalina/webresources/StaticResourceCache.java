@@ -0,0 +1,288 @@
+package org.apache.catalina.webresources;
+
+import org.apache.coyote.http11.EncodedResponse;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pre-encoded responses for static resources, keyed by request path and
+ * bounded by the total number of bytes held. When a new entry does not fit,
+ * the least recently used entries are evicted until it does. Resources larger
+ * than {@code maxObjectSize} are never cached and keep being sent from the
+ * file system.
+ * <p>
+ * Each path holds up to two variants, one for clients that accept gzip and
+ * one for clients that do not, so a file is compressed only once. When a
+ * resource is not compressible both variants are the same response and its
+ * bytes are only counted once.
+ * <p>
+ * An entry remembers the size and modification time of the file it was
+ * made from. Like Tomcat's resource cache, a hit older than {@code ttl}
+ * checks the file again, and a file that changed is evicted so its new
+ * content and entity tag are served from then on.
+ * <p>
+ * Lookups take no lock, so recency is tracked the way a clock cache does
+ * it: a hit only sets a flag on its entry, writing it at most once between
+ * two evictions. Eviction walks the entries from the oldest put, gives a
+ * flagged entry a second chance at the back of the order, and removes the
+ * first one that is not flagged. The entry being put is never evicted.
+ */
+public class StaticResourceCache {
+
+    public static final long DEFAULT_MAX_SIZE = 10 * 1024 * 1024;
+    public static final int DEFAULT_MAX_OBJECT_SIZE = 512 * 1024;
+    public static final long DEFAULT_TTL = 5000;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // 넣은 순서대로 둔 eviction 순서로, lock 을 잡고서만 바꾼다.
+    private final LinkedHashMap<String, Entry> order = new LinkedHashMap<>();
+    private final Object lock = new Object();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private volatile long maxSize;
+    private volatile int maxObjectSize;
+    private volatile long ttl = DEFAULT_TTL;
+    private volatile long size;
+
+    public StaticResourceCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_MAX_OBJECT_SIZE);
+    }
+
+    public StaticResourceCache(final long maxSize, final int maxObjectSize) {
+        this.maxSize = maxSize;
+        this.maxObjectSize = maxObjectSize;
+    }
+
+    public EncodedResponse get(final String key, final boolean gzip) {
+        return get(key, gzip, null);
+    }
+
+    /**
+     * @param resources where to check that the file of the entry has not
+     *                  changed, once its ttl has passed
+     */
+    public EncodedResponse get(final String key, final boolean gzip, final StaticResources resources) {
+        final Entry entry = entries.get(key);
+        EncodedResponse response = entry == null ? null : entry.get(gzip);
+        if (response != null && resources != null && !entry.isCurrent(resources, ttl)) {
+            remove(key, entry);
+            response = null;
+        }
+        if (response == null) {
+            missCount.increment();
+            return null;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        hitCount.increment();
+        return response;
+    }
+
+    /**
+     * @return whether a resource of this many bytes would be kept
+     */
+    public boolean accepts(final long length) {
+        return length <= maxObjectSize && length <= maxSize;
+    }
+
+    public void put(final String key, final boolean gzip, final EncodedResponse response) {
+        put(key, gzip, response, null);
+    }
+
+    /**
+     * @param resource the version of the resource the response was made from,
+     *                 or {@code null} if the entry never needs checking
+     */
+    public void put(final String key, final boolean gzip, final EncodedResponse response,
+                    final StaticResource resource) {
+        if (!accepts(response.length())) {
+            return;
+        }
+        synchronized (lock) {
+            Entry entry = entries.get(key);
+            if (entry == null || !entry.isVersion(resource)) {
+                // 다른 버전의 변형과 섞이지 않도록 항목을 새로 만든다.
+                if (entry != null) {
+                    size -= entry.size();
+                }
+                entry = new Entry(resource, System.currentTimeMillis() + ttl);
+                entries.put(key, entry);
+                order.remove(key);
+                order.put(key, entry);
+            }
+            size -= entry.size();
+            entry.set(gzip, response);
+            size += entry.size();
+            evict(key);
+        }
+    }
+
+    private void remove(final String key, final Entry entry) {
+        synchronized (lock) {
+            if (entries.remove(key, entry)) {
+                order.remove(key);
+                size -= entry.size();
+                evictionCount.increment();
+            }
+        }
+    }
+
+    /**
+     * Remove entries until the cache fits, keeping {@code keep}.
+     */
+    private void evict(final String keep) {
+        while (size > maxSize && !order.isEmpty()) {
+            final Iterator<Map.Entry<String, Entry>> oldest = order.entrySet().iterator();
+            final Map.Entry<String, Entry> candidate = oldest.next();
+            final String key = candidate.getKey();
+            final Entry entry = candidate.getValue();
+            if (key.equals(keep) || entry.referenced) {
+                if (order.size() == 1) {
+                    return;
+                }
+                // 두 번째 기회를 주고 맨 뒤로 보낸다.
+                entry.referenced = false;
+                oldest.remove();
+                order.put(key, entry);
+                continue;
+            }
+            oldest.remove();
+            entries.remove(key);
+            size -= entry.size();
+            evictionCount.increment();
+        }
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            entries.clear();
+            order.clear();
+            size = 0;
+        }
+    }
+
+    public void setMaxSize(final long maxSize) {
+        this.maxSize = maxSize;
+        synchronized (lock) {
+            evict(null);
+        }
+    }
+
+    public void setMaxObjectSize(final int maxObjectSize) {
+        this.maxObjectSize = maxObjectSize;
+    }
+
+    /**
+     * @param ttl milliseconds a cached file is trusted before it is checked
+     *            again; zero checks it on every hit
+     */
+    public void setTtl(final long ttl) {
+        this.ttl = ttl;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "StaticResourceCache[size=" + getSize() + "/" + maxSize
+                + ", entries=" + getEntryCount()
+                + ", hits=" + getHitCount()
+                + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + "]";
+    }
+
+    private static final class Entry {
+
+        private final String path;
+        private final long lastModified;
+        private final long length;
+        private volatile EncodedResponse identity;
+        private volatile EncodedResponse gzip;
+        private volatile long nextCheck;
+        private volatile boolean referenced;
+
+        private Entry(final StaticResource resource, final long nextCheck) {
+            this.path = resource == null ? null : resource.getPath();
+            this.lastModified = resource == null ? -1 : resource.getLastModified();
+            this.length = resource == null ? -1 : resource.getLength();
+            this.nextCheck = nextCheck;
+        }
+
+        EncodedResponse get(final boolean gzip) {
+            return gzip ? this.gzip : identity;
+        }
+
+        void set(final boolean gzip, final EncodedResponse response) {
+            if (gzip) {
+                this.gzip = response;
+            } else {
+                this.identity = response;
+            }
+        }
+
+        boolean isVersion(final StaticResource resource) {
+            if (resource == null) {
+                return path == null;
+            }
+            return resource.getPath().equals(path) && resource.getLastModified() == lastModified
+                    && resource.getLength() == length;
+        }
+
+        /**
+         * @return whether the file is unchanged; it is only looked at once
+         * the ttl has passed since the last look
+         */
+        boolean isCurrent(final StaticResources resources, final long ttl) {
+            if (path == null) {
+                return true;
+            }
+            final long now = System.currentTimeMillis();
+            if (now < nextCheck) {
+                return true;
+            }
+            if (resources.isModified(path, lastModified, length)) {
+                return false;
+            }
+            nextCheck = now + ttl;
+            return true;
+        }
+
+        long size() {
+            final EncodedResponse plain = identity;
+            final EncodedResponse gzipped = gzip;
+            final long bytes = plain == null ? 0 : plain.length();
+            if (gzipped == null || gzipped == plain) {
+                return bytes;
+            }
+            return bytes + gzipped.length();
+        }
+    }
+}
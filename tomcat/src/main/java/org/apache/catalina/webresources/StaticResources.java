@@ -0,0 +1,203 @@
+package org.apache.catalina.webresources;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps request paths to files under the {@code static} directory of the
+ * class path. Paths that would leave the directory are treated as missing.
+ * <p>
+ * The entity tag of each resource is computed the first time a version of
+ * it is looked up and remembered until the file's size or modification time
+ * changes. The same goes for the read-only memory mapping used to serve
+ * parts of a file, which is created on first use and shared by every
+ * request for that version. {@link #isModified} tells a cache whether a
+ * version it holds is still the one on disk.
+ */
+public class StaticResources {
+
+    public static final String DEFAULT_BASE = "static";
+
+    private final String base;
+    private final ClassLoader classLoader;
+    private final Path root;
+    private final Map<String, Version> versions = new ConcurrentHashMap<>();
+
+    public StaticResources() {
+        this(DEFAULT_BASE, StaticResources.class.getClassLoader());
+    }
+
+    public StaticResources(final String base, final ClassLoader classLoader) {
+        this.base = base;
+        this.classLoader = classLoader;
+        this.root = findRoot(base, classLoader);
+    }
+
+    /**
+     * @return the directory on the file system, or {@code null} when the
+     * resources are packed in a jar and must be read through the class loader
+     */
+    private static Path findRoot(final String base, final ClassLoader classLoader) {
+        final URL url = classLoader.getResource(base);
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return Path.of(url.toURI()).toAbsolutePath().normalize();
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param path the request path, starting with {@code /}
+     * @return the resource, or {@code null} if there is no such file
+     */
+    public StaticResource getResource(final String path) {
+        if (path.isEmpty() || path.charAt(0) != '/' || path.indexOf('\\') >= 0) {
+            return null;
+        }
+        if (root != null) {
+            return getFileResource(path);
+        }
+        return getClassPathResource(path);
+    }
+
+    /**
+     * @return whether the file at the path is no longer the version with
+     * this modification time and length; resources packed in a jar never
+     * change
+     */
+    public boolean isModified(final String path, final long lastModified, final long length) {
+        if (root == null) {
+            return false;
+        }
+        final Path file = resolve(path);
+        if (file == null) {
+            return true;
+        }
+        try {
+            final var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return !attributes.isRegularFile() || attributes.lastModifiedTime().toMillis() != lastModified
+                    || attributes.size() != length;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    private Path resolve(final String path) {
+        final Path file = root.resolve(path.substring(1)).normalize();
+        return file.startsWith(root) ? file : null;
+    }
+
+    private StaticResource getFileResource(final String path) {
+        final Path file = resolve(path);
+        if (file == null) {
+            return null;
+        }
+        try {
+            final var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return null;
+            }
+            final long lastModified = attributes.lastModifiedTime().toMillis();
+            final String etag = etag(path, lastModified, attributes.size(), () -> ETags.of(file));
+            return StaticResource.ofFile(path, file, attributes.size(), etag, lastModified);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private StaticResource getClassPathResource(final String path) {
+        if (path.contains("..") || path.endsWith("/")) {
+            return null;
+        }
+        try (final InputStream inputStream = classLoader.getResourceAsStream(base + path)) {
+            if (inputStream == null) {
+                return null;
+            }
+            final byte[] content = inputStream.readAllBytes();
+            // jar 안의 자원은 실행 중에 바뀌지 않으므로 길이만으로 버전을 구분한다.
+            return StaticResource.ofBytes(path, content, etag(path, -1, content.length, () -> ETags.of(content)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the content of the resource as a read-only buffer; for a file
+     * this is a memory mapping shared with other requests, so callers must
+     * slice or duplicate it rather than move its position
+     */
+    public ByteBuffer getContentBuffer(final StaticResource resource) throws IOException {
+        if (!resource.isFile()) {
+            return ByteBuffer.wrap(resource.getContent()).asReadOnlyBuffer();
+        }
+        final Version version = versions.get(resource.getPath());
+        if (version == null || version.lastModified != resource.getLastModified()
+                || version.length != resource.getLength()) {
+            return map(resource.getFile(), resource.getLength());
+        }
+        MappedByteBuffer mapped = version.mapped;
+        if (mapped == null) {
+            synchronized (version) {
+                mapped = version.mapped;
+                if (mapped == null) {
+                    mapped = map(resource.getFile(), resource.getLength());
+                    version.mapped = mapped;
+                }
+            }
+        }
+        return mapped;
+    }
+
+    private static MappedByteBuffer map(final Path file, final long length) throws IOException {
+        try (final var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // 매핑은 채널을 닫아도 유지된다.
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+    }
+
+    private String etag(final String path, final long lastModified, final long length,
+                        final ETagSupplier supplier) throws IOException {
+        final Version version = versions.get(path);
+        if (version != null && version.lastModified == lastModified && version.length == length) {
+            return version.etag;
+        }
+        final String etag = supplier.get();
+        versions.put(path, new Version(lastModified, length, etag));
+        return etag;
+    }
+
+    @FunctionalInterface
+    private interface ETagSupplier {
+
+        String get() throws IOException;
+    }
+
+    private static final class Version {
+
+        private final long lastModified;
+        private final long length;
+        private final String etag;
+        private volatile MappedByteBuffer mapped;
+
+        private Version(final long lastModified, final long length, final String etag) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.etag = etag;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.apache.coyote;
+
+import org.apache.coyote.http11.HttpRequest;
+import org.apache.coyote.http11.HttpResponse;
+
+/**
+ * Bridge between the protocol layer and the application. The processor
+ * parses a request, the adapter fills in the response, and the processor
+ * writes it back to the connection.
+ */
+public interface Adapter {
+
+    /**
+     * Handle a parsed request.
+     *
+     * @param request  the request, only valid for the duration of this call
+     * @param response the response to fill in
+     */
+    void service(HttpRequest request, HttpResponse response);
+}
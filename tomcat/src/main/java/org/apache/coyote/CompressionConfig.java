@@ -0,0 +1,145 @@
+package org.apache.coyote;
+
+import org.apache.coyote.http11.HeaderName;
+import org.apache.coyote.http11.HttpRequest;
+import org.apache.coyote.http11.HttpResponse;
+import org.apache.tomcat.util.buf.ByteChunk;
+import org.apache.tomcat.util.compress.DeflaterPool;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * When and how response bodies are gzip compressed. Only in-memory bodies
+ * of a text-like type and at least {@code minSize} bytes long are
+ * compressed, and only for clients that list {@code gzip} in
+ * {@code Accept-Encoding}.
+ */
+public class CompressionConfig {
+
+    public static final int DEFAULT_MIN_SIZE = 2048;
+    public static final Set<String> DEFAULT_COMPRESSIBLE_MIME_TYPES = Set.of(
+            "text/html", "text/css", "text/javascript", "text/plain", "text/xml",
+            "application/javascript", "application/json", "application/xml", "image/svg+xml");
+
+    private static final String GZIP = "gzip";
+    private static final String VARY_VALUE = HeaderName.ACCEPT_ENCODING.getName();
+
+    private final DeflaterPool deflaterPool;
+    private volatile int minSize = DEFAULT_MIN_SIZE;
+    private volatile boolean enabled = true;
+    private final Set<String> compressibleMimeTypes;
+
+    public CompressionConfig() {
+        this(new DeflaterPool(), DEFAULT_COMPRESSIBLE_MIME_TYPES);
+    }
+
+    public CompressionConfig(final DeflaterPool deflaterPool, final Set<String> compressibleMimeTypes) {
+        this.deflaterPool = deflaterPool;
+        this.compressibleMimeTypes = Set.copyOf(compressibleMimeTypes);
+    }
+
+    /**
+     * Whether the client accepts a gzip coded response, honouring
+     * {@code q=0} as a refusal.
+     */
+    public boolean acceptsGzip(final HttpRequest request) {
+        final ByteChunk acceptEncoding = request.getHeaders().getValue(HeaderName.ACCEPT_ENCODING);
+        if (acceptEncoding == null || acceptEncoding.isNull()) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (final String coding : acceptEncoding.toString().split(",")) {
+            final int semicolon = coding.indexOf(';');
+            final String name = (semicolon < 0 ? coding : coding.substring(0, semicolon)).trim();
+            final boolean acceptable = semicolon < 0 || !isZeroQuality(coding.substring(semicolon + 1));
+            if (GZIP.equalsIgnoreCase(name)) {
+                return acceptable;
+            }
+            if ("*".equals(name)) {
+                wildcard = acceptable;
+            }
+        }
+        return wildcard;
+    }
+
+    private static boolean isZeroQuality(final String parameters) {
+        for (final String parameter : parameters.split(";")) {
+            final String trimmed = parameter.trim();
+            if (trimmed.length() > 2 && (trimmed.charAt(0) == 'q' || trimmed.charAt(0) == 'Q')
+                    && trimmed.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(trimmed.substring(2)) <= 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the response's body would be compressed for a client that
+     * accepts gzip. Such responses depend on {@code Accept-Encoding} and
+     * need {@code Vary}.
+     */
+    public boolean isCompressible(final HttpResponse response) {
+        if (response.getFile() != null || response.getBuffers() != null || response.getEncoded() != null
+                || response.getHeader(HeaderName.CONTENT_ENCODING.getName()) != null) {
+            return false;
+        }
+        return isCompressible(response.getHeader(HeaderName.CONTENT_TYPE.getName()), response.getBody().length);
+    }
+
+    /**
+     * Whether a body of this type and length is one this configuration
+     * compresses, regardless of how the body is held.
+     */
+    public boolean isCompressible(final String contentType, final long length) {
+        if (!enabled || length < minSize || contentType == null) {
+            return false;
+        }
+        final int semicolon = contentType.indexOf(';');
+        final String mimeType = semicolon < 0 ? contentType : contentType.substring(0, semicolon);
+        return compressibleMimeTypes.contains(mimeType.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Compress the response body in place if it is compressible, and mark
+     * it as varying by {@code Accept-Encoding} either way. A strong
+     * {@code ETag} is given a {@code -gzip} suffix, since the compressed
+     * bytes are a different representation.
+     */
+    public void compress(final HttpResponse response, final boolean acceptsGzip) {
+        if (!isCompressible(response)) {
+            return;
+        }
+        response.setHeader(HeaderName.VARY, VARY_VALUE);
+        if (!acceptsGzip) {
+            return;
+        }
+        final byte[] compressed = deflaterPool.gzip(response.getBody());
+        response.setBody(compressed, response.getHeader(HeaderName.CONTENT_TYPE.getName()));
+        response.setHeader(HeaderName.CONTENT_ENCODING, GZIP);
+        final String etag = response.getHeader(HeaderName.ETAG.getName());
+        if (etag != null && etag.endsWith("\"")) {
+            response.setHeader(HeaderName.ETAG, etag.substring(0, etag.length() - 1) + "-" + GZIP + "\"");
+        }
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public void setMinSize(final int minSize) {
+        this.minSize = minSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+}
@@ -0,0 +1,31 @@
+package org.apache.coyote;
+
+import org.apache.tomcat.util.net.NioChannel;
+
+import java.io.IOException;
+
+/**
+ * Processor for connections driven by readiness events rather than by a
+ * thread blocked on the socket. An instance belongs to a single connection
+ * and keeps whatever it has read so far between events.
+ */
+public interface NioProcessor {
+
+    /**
+     * Continue processing the connection after the endpoint detected that data
+     * can be read from it. Implementations must not block waiting for more
+     * input; if a request is incomplete they return {@link SocketState#OPEN}
+     * and are called again on the next read event.
+     *
+     * @param channel the connection that became readable
+     * @return whether the connection should be kept open or closed
+     * @throws IOException if reading from or writing to the channel fails
+     */
+    SocketState process(NioChannel channel) throws IOException;
+
+    /**
+     * Give back whatever the processor borrowed for the connection. Called
+     * once the connection has been closed.
+     */
+    void release();
+}
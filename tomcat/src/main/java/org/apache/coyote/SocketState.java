@@ -0,0 +1,17 @@
+package org.apache.coyote;
+
+/**
+ * What the endpoint should do with a connection once a processor returns.
+ */
+public enum SocketState {
+
+    /**
+     * Keep the connection and wait for more data to arrive.
+     */
+    OPEN,
+
+    /**
+     * Close the connection.
+     */
+    CLOSED
+}
@@ -0,0 +1,90 @@
+package org.apache.coyote.http11;
+
+import org.apache.tomcat.util.http.FastHttpDateFormat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * What both HTTP/1.1 processors do with a parsed request: let the adapter
+ * build the response, decide whether the connection stays open, and queue
+ * the response on the connection's output buffer, either whole or streamed
+ * through {@link Http11OutputStream}. Every response gets a {@code Date}
+ * header from the shared clock in {@link FastHttpDateFormat}. The response
+ * to a {@code HEAD} request is built like the one to a {@code GET}, and
+ * only its head is sent.
+ * <p>
+ * An adapter that hands work to a bounded executor lets its
+ * {@link RejectedExecutionException} through when the executor is full. It
+ * is answered with an empty {@code 503} at once, so an overload of one kind
+ * of request is shed instead of tying up connector threads.
+ */
+abstract class AbstractHttp11Processor {
+
+    private static final Logger log = LoggerFactory.getLogger(AbstractHttp11Processor.class);
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    protected final Http11Protocol protocol;
+    private final HttpResponse response = new HttpResponse();
+    private final Http11OutputStream outputStream;
+    private int servedRequests = 0;
+
+    protected AbstractHttp11Processor(final Http11Protocol protocol) {
+        this.protocol = protocol;
+        this.outputStream = new Http11OutputStream(response, protocol.getBufferPool());
+        response.setOutputStream(outputStream);
+    }
+
+    /**
+     * @return whether the connection may be kept open for another request
+     */
+    protected boolean service(final HttpRequest request, final Http11OutputBuffer outputBuffer) throws IOException {
+        final boolean keepAlive = protocol.keepAlive(request, ++servedRequests);
+        final boolean http10 = request.protocol().equals(HttpRequest.HTTP_1_0);
+        final boolean head = request.method().equals("HEAD");
+        response.recycle();
+        outputStream.recycle(outputBuffer, keepAlive, http10, head);
+        try {
+            protocol.getAdapter().service(request, response);
+        } catch (RuntimeException e) {
+            final boolean overloaded = e instanceof RejectedExecutionException;
+            if (overloaded) {
+                log.debug("rejected {} {}: {}", request.method(), request.getRequestURI(), e.getMessage());
+            } else {
+                log.error(e.getMessage(), e);
+            }
+            if (outputStream.isCommitted()) {
+                // 이미 헤더를 보냈으므로 500 으로 바꿀 수 없다. 연결을 끊어 응답이 잘렸음을 알린다.
+                outputStream.abort();
+                return false;
+            }
+            response.recycle();
+            outputStream.recycle(outputBuffer, keepAlive, http10, head);
+            if (overloaded) {
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE);
+                response.setHeader(HeaderName.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            } else {
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR);
+            }
+            response.setHeader(HeaderName.CONTENT_LENGTH, "0");
+        }
+        outputStream.finish();
+        return keepAlive && !outputStream.isCloseRequired();
+    }
+
+    /**
+     * Answer a request that could not be parsed. The connection is closed
+     * afterwards.
+     */
+    protected void sendError(final HttpStatus status, final Http11OutputBuffer outputBuffer) throws IOException {
+        response.recycle();
+        response.setStatus(status);
+        response.setHeader(HeaderName.CONTENT_LENGTH, "0");
+        response.setHeader(HeaderName.DATE, FastHttpDateFormat.getCurrentDate());
+        response.setHeader(HeaderName.CONNECTION, "close");
+        outputBuffer.write(response);
+    }
+}
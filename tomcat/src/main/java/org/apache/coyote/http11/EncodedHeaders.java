@@ -0,0 +1,171 @@
+package org.apache.coyote.http11;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Response heads written straight into a byte buffer from pre-encoded
+ * pieces: the status line of every {@link HttpStatus}, the {@code "Name: "}
+ * prefix of every {@link HeaderName}, and whole lines for the name/value
+ * pairs almost every response repeats. Only values that are not in the
+ * table, such as lengths and entity tags, are encoded per response, and
+ * then without an intermediate string. The {@code Date} line is encoded
+ * once for each new value of the shared clock.
+ * <p>
+ * Names and values are written one byte per character, so a character
+ * above {@code 0xFF} is rejected instead of being mangled, and so are CR
+ * and LF, which would end the line and let the value inject headers.
+ */
+final class EncodedHeaders {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final int LINE_OVERHEAD = ": ".length() + " \r\n".length();
+
+    private static final Map<String, byte[]> PREFIXES = new HashMap<>();
+    private static final Map<String, Map<String, byte[]>> LINES = new HashMap<>();
+
+    static {
+        for (final HeaderName name : HeaderName.values()) {
+            PREFIXES.put(name.getName(), encode(name.getName() + ": "));
+        }
+        line(HeaderName.CONTENT_TYPE, "text/html;charset=utf-8");
+        line(HeaderName.CONTENT_TYPE, "text/css;charset=utf-8");
+        line(HeaderName.CONTENT_TYPE, "text/javascript;charset=utf-8");
+        line(HeaderName.CONTENT_TYPE, "text/plain;charset=utf-8");
+        line(HeaderName.CONTENT_TYPE, "application/json;charset=utf-8");
+        line(HeaderName.CONTENT_TYPE, "image/svg+xml");
+        line(HeaderName.CONTENT_LENGTH, "0");
+        line(HeaderName.CONNECTION, "close");
+        line(HeaderName.CONNECTION, "keep-alive");
+        line(HeaderName.TRANSFER_ENCODING, "chunked");
+        line(HeaderName.CONTENT_ENCODING, "gzip");
+        line(HeaderName.VARY, "Accept-Encoding");
+        line(HeaderName.ACCEPT_RANGES, "bytes");
+        line(HeaderName.ALLOW, "GET");
+    }
+
+    private static volatile DateLine dateLine = new DateLine(null, null);
+
+    private EncodedHeaders() {
+    }
+
+    private static void line(final HeaderName name, final String value) {
+        LINES.computeIfAbsent(name.getName(), ignored -> new HashMap<>())
+                .put(value, encode(name.getName() + ": " + value + " \r\n"));
+    }
+
+    private static byte[] encode(final String s) {
+        return s.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * @return the whole pre-encoded line for this header, or {@code null} if
+     * it is not a common one
+     */
+    static byte[] line(final String name, final String value) {
+        if (HeaderName.DATE.getName().equals(name)) {
+            return dateLine(value);
+        }
+        final Map<String, byte[]> values = LINES.get(name);
+        return values == null ? null : values.get(value);
+    }
+
+    private static byte[] dateLine(final String value) {
+        final DateLine current = dateLine;
+        // 공유 시계는 1초 동안 같은 String 인스턴스를 돌려주므로 참조만 비교한다.
+        if (current.value == value) {
+            return current.line;
+        }
+        final byte[] line = encode(HeaderName.DATE.getName() + ": " + value + " \r\n");
+        dateLine = new DateLine(value, line);
+        return line;
+    }
+
+    static int headLength(final HttpStatus status, final Map<String, String> headers) {
+        int length = status.statusLine().length + CRLF.length;
+        for (final Map.Entry<String, String> header : headers.entrySet()) {
+            length += lineLength(header.getKey(), header.getValue());
+        }
+        return length;
+    }
+
+    static int lineLength(final String name, final String value) {
+        final byte[] line = line(name, value);
+        if (line != null) {
+            return line.length;
+        }
+        return name.length() + value.length() + LINE_OVERHEAD;
+    }
+
+    /**
+     * Put the status line, the headers and the blank line that ends them.
+     * The destination must have {@link #headLength} bytes remaining.
+     */
+    static void putHead(final ByteBuffer dst, final HttpStatus status, final Map<String, String> headers) {
+        dst.put(status.statusLine());
+        for (final Map.Entry<String, String> header : headers.entrySet()) {
+            putLine(dst, header.getKey(), header.getValue());
+        }
+        dst.put(CRLF);
+    }
+
+    /**
+     * Put one header line. The destination must have {@link #lineLength}
+     * bytes remaining.
+     */
+    static void putLine(final ByteBuffer dst, final String name, final String value) {
+        final byte[] line = line(name, value);
+        if (line != null) {
+            dst.put(line);
+            return;
+        }
+        // 한 글자라도 쓰기 전에 검사해야 버퍼에 잘린 줄이 남지 않는다.
+        check(name, value);
+        final byte[] prefix = PREFIXES.get(name);
+        if (prefix != null) {
+            dst.put(prefix);
+        } else {
+            putLatin1(dst, name);
+            dst.put((byte) ':').put((byte) ' ');
+        }
+        putLatin1(dst, value);
+        dst.put((byte) ' ').put(CRLF);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the name or value has CR, LF or a
+     *                                  character that is not Latin-1
+     */
+    static void check(final String name, final String value) {
+        checkLatin1(name);
+        checkLatin1(value);
+    }
+
+    private static void checkLatin1(final String s) {
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (c == '\r' || c == '\n' || c > 0xFF) {
+                throw new IllegalArgumentException("invalid character 0x" + Integer.toHexString(c) + " in a header");
+            }
+        }
+    }
+
+    private static void putLatin1(final ByteBuffer dst, final String s) {
+        for (int i = 0; i < s.length(); i++) {
+            dst.put((byte) s.charAt(i));
+        }
+    }
+
+    private static final class DateLine {
+
+        private final String value;
+        private final byte[] line;
+
+        private DateLine(final String value, final byte[] line) {
+            this.value = value;
+            this.line = line;
+        }
+    }
+}
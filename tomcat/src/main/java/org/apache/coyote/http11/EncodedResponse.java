@@ -0,0 +1,101 @@
+package org.apache.coyote.http11;
+
+import org.apache.tomcat.util.http.FastHttpDateFormat;
+
+import java.util.LinkedHashMap;
+
+/**
+ * A complete response, status line, headers and body, already encoded as it
+ * goes on the wire. Sending it is a single buffer write. Headers the
+ * processor adds later, such as {@code Connection: close}, are spliced in at
+ * {@link #getHeaderEnd()} without re-encoding the rest.
+ * <p>
+ * A response with an {@code ETag} or {@code Last-Modified} also carries the
+ * {@code 304 Not Modified} answer for it, encoded at the same time, so a successful revalidation is
+ * just as cheap.
+ */
+public final class EncodedResponse {
+
+    private final HttpStatus status;
+    private final byte[] bytes;
+    private final int headerEnd;
+    private final String etag;
+    private final long lastModified;
+    private final EncodedResponse notModified;
+
+    private EncodedResponse(final HttpStatus status, final byte[] bytes, final int headerEnd,
+                            final String etag, final long lastModified, final EncodedResponse notModified) {
+        this.status = status;
+        this.bytes = bytes;
+        this.headerEnd = headerEnd;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.notModified = notModified;
+    }
+
+    /**
+     * Encode a response whose body is held in memory.
+     */
+    public static EncodedResponse of(final HttpResponse response) {
+        if (response.getFile() != null || response.getBuffers() != null) {
+            throw new IllegalArgumentException("only byte array bodies can be pre-encoded");
+        }
+        final byte[] head = Http11OutputBuffer.encodeHead(response);
+        final byte[] body = response.getBody();
+        final byte[] bytes = new byte[head.length + body.length];
+        System.arraycopy(head, 0, bytes, 0, head.length);
+        System.arraycopy(body, 0, bytes, head.length, body.length);
+        final String etag = response.getHeader(HeaderName.ETAG.getName());
+        final long lastModified = FastHttpDateFormat.parseDate(response.getHeader(HeaderName.LAST_MODIFIED.getName()));
+        final boolean validated = etag != null || lastModified >= 0;
+        // 헤더를 끝내는 빈 줄 바로 앞이 추가 헤더를 끼워 넣을 위치다.
+        return new EncodedResponse(response.getStatus(), bytes, head.length - 2, etag, lastModified,
+                validated ? notModified(response) : null);
+    }
+
+    private static EncodedResponse notModified(final HttpResponse response) {
+        final var headers = new LinkedHashMap<>(response.getHeaders());
+        headers.keySet().retainAll(HttpResponse.NOT_MODIFIED_HEADERS);
+        final byte[] head = Http11OutputBuffer.encodeHead(HttpStatus.NOT_MODIFIED, headers);
+        return new EncodedResponse(HttpStatus.NOT_MODIFIED, head, head.length - 2, null, -1, null);
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    public int getHeaderEnd() {
+        return headerEnd;
+    }
+
+    public int length() {
+        return bytes.length;
+    }
+
+    /**
+     * @return the entity tag of this response, or {@code null} if it has none
+     */
+    public String getETag() {
+        return etag;
+    }
+
+    /**
+     * @return the value of {@code Last-Modified} in milliseconds since the
+     * epoch, or {@code -1} if the response has none
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return the encoded {@code 304} for this response, or {@code null} if
+     * it has no validator to revalidate against
+     */
+    public EncodedResponse getNotModified() {
+        return notModified;
+    }
+}
@@ -0,0 +1,140 @@
+package org.apache.coyote.http11;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Header names that appear on almost every request or response. Each one
+ * owns a fixed slot in {@link HttpHeaders}, and a name read from the wire is
+ * matched against this table case-insensitively without lowercasing it into
+ * a new {@code String}. The table is sized from the number of constants,
+ * to a power of two at least twice as large, so a probe always ends at an
+ * empty slot however many constants are added.
+ */
+public enum HeaderName {
+
+    HOST("Host"),
+    CONNECTION("Connection"),
+    CONTENT_TYPE("Content-Type"),
+    CONTENT_LENGTH("Content-Length"),
+    TRANSFER_ENCODING("Transfer-Encoding"),
+    COOKIE("Cookie"),
+    ACCEPT("Accept"),
+    ACCEPT_ENCODING("Accept-Encoding"),
+    ACCEPT_LANGUAGE("Accept-Language"),
+    USER_AGENT("User-Agent"),
+    REFERER("Referer"),
+    ORIGIN("Origin"),
+    CACHE_CONTROL("Cache-Control"),
+    PRAGMA("Pragma"),
+    UPGRADE("Upgrade"),
+    AUTHORIZATION("Authorization"),
+    IF_NONE_MATCH("If-None-Match"),
+    IF_MODIFIED_SINCE("If-Modified-Since"),
+    IF_RANGE("If-Range"),
+    RANGE("Range"),
+    SET_COOKIE("Set-Cookie"),
+    LOCATION("Location"),
+    ALLOW("Allow"),
+    CONTENT_ENCODING("Content-Encoding"),
+    VARY("Vary"),
+    ETAG("ETag"),
+    LAST_MODIFIED("Last-Modified"),
+    DATE("Date"),
+    ACCEPT_RANGES("Accept-Ranges"),
+    CONTENT_RANGE("Content-Range"),
+    RETRY_AFTER("Retry-After"),
+    ;
+
+    private static final int TABLE_SIZE = Integer.highestOneBit(values().length * 2 - 1) << 1;
+    private static final int MASK = TABLE_SIZE - 1;
+    private static final HeaderName[] TABLE = new HeaderName[TABLE_SIZE];
+
+    static {
+        for (final HeaderName headerName : values()) {
+            int index = headerName.hash & MASK;
+            while (TABLE[index] != null) {
+                index = (index + 1) & MASK;
+            }
+            TABLE[index] = headerName;
+        }
+    }
+
+    private final String name;
+    private final int hash;
+
+    HeaderName(final String name) {
+        this.name = name;
+        this.hash = hash(name);
+    }
+
+    /**
+     * Find the well-known header whose name is in {@code [start, end)} of the
+     * buffer, ignoring case.
+     *
+     * @return the header, or {@code null} if the name is not a well-known one
+     */
+    public static HeaderName lookup(final ByteBuffer buffer, final int start, final int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + toLower(buffer.get(i));
+        }
+        h = spread(h);
+        for (int index = h & MASK; TABLE[index] != null; index = (index + 1) & MASK) {
+            final HeaderName candidate = TABLE[index];
+            if (candidate.hash == h && candidate.matches(buffer, start, end)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the well-known header with the given name, ignoring case, or
+     * {@code null} if there is none
+     */
+    public static HeaderName lookup(final String name) {
+        final int h = hash(name);
+        for (int index = h & MASK; TABLE[index] != null; index = (index + 1) & MASK) {
+            final HeaderName candidate = TABLE[index];
+            if (candidate.hash == h && candidate.name.equalsIgnoreCase(name)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private boolean matches(final ByteBuffer buffer, final int start, final int end) {
+        if (end - start != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (toLower(buffer.get(start + i)) != toLower(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(final String name) {
+        int h = 0;
+        for (int i = 0; i < name.length(); i++) {
+            h = 31 * h + toLower(name.charAt(i));
+        }
+        return spread(h);
+    }
+
+    private static int spread(final int h) {
+        return h ^ (h >>> 16);
+    }
+
+    private static int toLower(final int c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c + ('a' - 'A');
+        }
+        return c;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,140 @@
+package org.apache.coyote.http11;
+
+import org.apache.tomcat.util.buf.ByteBufferPool;
+import org.apache.tomcat.util.net.NioChannel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Bytes read from a connection, and the request being parsed from them.
+ * Both the blocking and the non-blocking processor read through this class,
+ * so they share one parser. Whatever follows a complete request stays in the
+ * buffer and becomes the start of the next request on the same connection.
+ * <p>
+ * The buffer comes from the connector's {@link ByteBufferPool}. The pool
+ * may hand out a larger buffer than asked for, so reads are limited to the
+ * configured size. A non-blocking connection gives its buffer back whenever
+ * it waits for a new request with nothing buffered.
+ */
+public class Http11InputBuffer {
+
+    private static final int READ_BUFFER_SIZE = 8 * 1024;
+
+    private final ByteBufferPool bufferPool;
+    private final int size;
+    private final Http11Parser parser;
+    private final HttpRequest request = new HttpRequest();
+    private ByteBuffer buffer;
+    private boolean requestInUse = false;
+
+    public Http11InputBuffer(final Http11Protocol protocol) {
+        this.bufferPool = protocol.getBufferPool();
+        this.size = protocol.getMaxHttpHeaderSize() + READ_BUFFER_SIZE;
+        this.parser = new Http11Parser(protocol.getMaxRequestLineSize(), protocol.getMaxHttpHeaderSize(),
+                protocol.getMaxPostSize());
+    }
+
+    /**
+     * Block until a whole request has been read from the stream.
+     *
+     * @return the request, or {@code null} if the peer closed the connection
+     */
+    public HttpRequest readRequest(final ReadableByteChannel channel) throws IOException {
+        HttpRequest parsed;
+        while ((parsed = parseRequest()) == null) {
+            checkCapacity();
+            if (channel.read(buffer) < 0) {
+                return null;
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Read whatever the channel has without blocking.
+     *
+     * @return {@code false} if the peer closed the connection
+     */
+    public boolean fill(final NioChannel channel) throws IOException {
+        releaseRequest();
+        checkCapacity();
+        int read;
+        while (buffer.hasRemaining() && (read = channel.read(buffer)) != 0) {
+            if (read < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Take the next complete request out of the buffered bytes. The request
+     * returned by the previous call is recycled first.
+     *
+     * @return the request, or {@code null} if more bytes are needed
+     */
+    public HttpRequest parseRequest() {
+        releaseRequest();
+        if (buffer == null) {
+            return null;
+        }
+        if (!parser.parse(buffer, request)) {
+            return null;
+        }
+        requestInUse = true;
+        return request;
+    }
+
+    /**
+     * Give the buffer back to the pool if no bytes of a next request are
+     * waiting in it. Called while the connection waits for its next read
+     * event, so idle connections hold no buffer.
+     */
+    public void recycle() {
+        releaseRequest();
+        if (buffer != null && buffer.position() == 0) {
+            release();
+        }
+    }
+
+    /**
+     * Give the buffer back to the pool when the connection is closed.
+     */
+    public void release() {
+        if (buffer == null) {
+            return;
+        }
+        if (requestInUse) {
+            request.recycle();
+            requestInUse = false;
+        }
+        parser.reset();
+        bufferPool.release(buffer);
+        buffer = null;
+    }
+
+    private void releaseRequest() {
+        if (!requestInUse) {
+            return;
+        }
+        buffer.flip();
+        buffer.position(parser.getConsumed());
+        buffer.compact();
+        parser.reset();
+        request.recycle();
+        requestInUse = false;
+    }
+
+    private void checkCapacity() {
+        if (buffer == null) {
+            buffer = bufferPool.acquire(size);
+        }
+        buffer.limit(size);
+        if (!buffer.hasRemaining()) {
+            throw new HttpParseException(HttpStatus.REQUEST_HEADER_FIELDS_TOO_LARGE,
+                    "request exceeds " + size + " bytes");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.apache.coyote.http11;
+
+import org.apache.coyote.NioProcessor;
+import org.apache.coyote.SocketState;
+import org.apache.tomcat.util.net.NioChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+public class Http11NioProcessor extends AbstractHttp11Processor implements NioProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(Http11NioProcessor.class);
+
+    private final Http11InputBuffer inputBuffer;
+    private Http11OutputBuffer outputBuffer;
+
+    public Http11NioProcessor(final Http11Protocol protocol) {
+        super(protocol);
+        this.inputBuffer = new Http11InputBuffer(protocol);
+    }
+
+    @Override
+    public SocketState process(final NioChannel channel) throws IOException {
+        if (outputBuffer == null) {
+            outputBuffer = new Http11OutputBuffer(channel, protocol.getBufferPool(), protocol.getOutputBufferSize());
+        }
+        try {
+            if (!inputBuffer.fill(channel)) {
+                return SocketState.CLOSED;
+            }
+            return service();
+        } catch (HttpParseException e) {
+            log.warn("bad request from {}: {}", channel.getSocketChannel().getRemoteAddress(), e.getMessage());
+            sendError(e.getStatus(), outputBuffer);
+            return SocketState.CLOSED;
+        } finally {
+            try {
+                outputBuffer.flush();
+            } finally {
+                outputBuffer.release();
+            }
+        }
+    }
+
+    private SocketState service() throws IOException {
+        // 읽기 이벤트는 새 데이터가 도착해야 다시 발생하므로, 이미 버퍼에 들어온 요청은 모두 처리한다.
+        // 응답은 요청 순서대로 출력 버퍼에 모았다가 한 번에 내보낸다.
+        HttpRequest request;
+        while ((request = inputBuffer.parseRequest()) != null) {
+            if (!service(request, outputBuffer)) {
+                return SocketState.CLOSED;
+            }
+        }
+        inputBuffer.recycle();
+        return SocketState.OPEN;
+    }
+
+    @Override
+    public void release() {
+        inputBuffer.release();
+    }
+}
@@ -0,0 +1,190 @@
+package org.apache.coyote.http11;
+
+import org.apache.tomcat.util.buf.ByteBufferPool;
+import org.apache.tomcat.util.net.SocketWrapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Collects the responses of a connection and writes them to the socket in as
+ * few writes as possible. Responses to pipelined requests are appended in the
+ * order the requests arrived and only sent when the processor flushes.
+ * <p>
+ * A file body is never copied into the buffer: the pending bytes are flushed
+ * and the file is handed to the socket with {@link SocketWrapper#sendFile}.
+ * Response heads are put into the buffer from the pre-encoded pieces in
+ * {@link EncodedHeaders}.
+ * <p>
+ * The buffer is taken from the connector's {@link ByteBufferPool} on the
+ * first write and given back by {@link #release()} once the processor has
+ * flushed, so a connection waiting for its next request holds none.
+ */
+public class Http11OutputBuffer {
+
+    private final SocketWrapper socket;
+    private final ByteBufferPool bufferPool;
+    private final int size;
+    private ByteBuffer buffer;
+
+    public Http11OutputBuffer(final SocketWrapper socket, final ByteBufferPool bufferPool, final int size) {
+        this.socket = socket;
+        this.bufferPool = bufferPool;
+        this.size = size;
+    }
+
+    public void write(final HttpResponse response) throws IOException {
+        write(response, false);
+    }
+
+    /**
+     * Queue the response. With {@code headOnly}, as for a {@code HEAD}
+     * request, only the status line and headers are written; the headers,
+     * {@code Content-Length} included, are the ones the body would have had.
+     */
+    public void write(final HttpResponse response, final boolean headOnly) throws IOException {
+        if (response.getEncoded() != null) {
+            write(response.getEncoded(), response.getHeaders(), headOnly);
+            return;
+        }
+        writeHead(response.getStatus(), response.getHeaders());
+        if (headOnly) {
+            return;
+        }
+        if (response.getBuffers() != null) {
+            for (final ByteBuffer src : response.getBuffers()) {
+                write(src.duplicate());
+            }
+            return;
+        }
+        if (response.getFile() == null) {
+            write(response.getBody());
+            return;
+        }
+        flush();
+        try (final var file = FileChannel.open(response.getFile(), StandardOpenOption.READ)) {
+            socket.sendFile(file, 0, response.getFileLength());
+        }
+    }
+
+    private void write(final EncodedResponse encoded, final Map<String, String> extraHeaders,
+                       final boolean headOnly) throws IOException {
+        final byte[] bytes = encoded.getBytes();
+        final int headerEnd = encoded.getHeaderEnd();
+        // 헤더를 끝내는 빈 줄은 headerEnd 뒤의 두 바이트다.
+        final int end = headOnly ? headerEnd + 2 : bytes.length;
+        if (extraHeaders.isEmpty()) {
+            write(bytes, 0, end);
+            return;
+        }
+        write(bytes, 0, headerEnd);
+        for (final Map.Entry<String, String> header : extraHeaders.entrySet()) {
+            writeHeader(header.getKey(), header.getValue());
+        }
+        write(bytes, headerEnd, end - headerEnd);
+    }
+
+    /**
+     * Put one header line straight into the buffer, without building an
+     * intermediate string or byte array.
+     */
+    private void writeHeader(final String name, final String value) throws IOException {
+        final int length = EncodedHeaders.lineLength(name, value);
+        if (length > buffer.remaining()) {
+            flush();
+        }
+        if (length > buffer.capacity()) {
+            final ByteBuffer line = ByteBuffer.allocate(length);
+            EncodedHeaders.putLine(line, name, value);
+            write(line.array());
+            return;
+        }
+        EncodedHeaders.putLine(buffer, name, value);
+    }
+
+    /**
+     * Put a response head straight into the buffer.
+     */
+    void writeHead(final HttpStatus status, final Map<String, String> headers) throws IOException {
+        acquire();
+        final int length = EncodedHeaders.headLength(status, headers);
+        if (length > buffer.remaining()) {
+            flush();
+        }
+        if (length > buffer.capacity()) {
+            write(encodeHead(status, headers));
+            return;
+        }
+        EncodedHeaders.putHead(buffer, status, headers);
+    }
+
+    static byte[] encodeHead(final HttpResponse response) {
+        return encodeHead(response.getStatus(), response.getHeaders());
+    }
+
+    static byte[] encodeHead(final HttpStatus status, final Map<String, String> headers) {
+        final ByteBuffer head = ByteBuffer.allocate(EncodedHeaders.headLength(status, headers));
+        EncodedHeaders.putHead(head, status, headers);
+        return head.array();
+    }
+
+    public void write(final byte[] bytes) throws IOException {
+        write(bytes, 0, bytes.length);
+    }
+
+    public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+        acquire();
+        if (length > buffer.remaining()) {
+            flush();
+        }
+        if (length > buffer.capacity()) {
+            socket.write(ByteBuffer.wrap(bytes, offset, length));
+            return;
+        }
+        buffer.put(bytes, offset, length);
+    }
+
+    /**
+     * Write the remaining bytes of {@code src}, copying them into the buffer
+     * if they fit and handing them to the socket directly otherwise.
+     */
+    public void write(final ByteBuffer src) throws IOException {
+        acquire();
+        if (src.remaining() > buffer.remaining()) {
+            flush();
+        }
+        if (src.remaining() > buffer.capacity()) {
+            socket.write(src);
+            return;
+        }
+        buffer.put(src);
+    }
+
+    public void flush() throws IOException {
+        if (buffer == null || buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        socket.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Give the buffer back to the pool. Anything not flushed is discarded.
+     */
+    public void release() {
+        if (buffer != null) {
+            bufferPool.release(buffer);
+            buffer = null;
+        }
+    }
+
+    private void acquire() {
+        if (buffer == null) {
+            buffer = bufferPool.acquire(size);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package org.apache.coyote.http11;
+
+import org.apache.tomcat.util.buf.ByteBufferPool;
+import org.apache.tomcat.util.http.FastHttpDateFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The body stream of a response, for handlers that write their body instead
+ * of handing over a complete array.
+ * <p>
+ * Written bytes are collected in a buffer borrowed from a
+ * {@link ByteBufferPool}. If the handler finishes before the buffer fills,
+ * the response goes out with a {@code Content-Length}, just like a body set
+ * with {@link HttpResponse#setBody(byte[], String)}. Once the buffer fills
+ * the headers are committed and the body continues with
+ * {@code Transfer-Encoding: chunked}, one chunk per buffer, so a body of any
+ * size streams through a constant amount of memory. A handler that sets
+ * {@code Content-Length} itself gets its bytes passed through unchunked.
+ * HTTP/1.0 clients do not understand chunks; for them the body is delimited
+ * by closing the connection.
+ * <p>
+ * The response to a {@code HEAD} request goes through the same steps, so
+ * its headers, {@code Content-Length} or {@code Transfer-Encoding}
+ * included, are those of the {@code GET}, but its body bytes are dropped.
+ */
+public class Http11OutputStream extends OutputStream {
+
+    private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.ISO_8859_1);
+    private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+    private final HttpResponse response;
+    private final ByteBufferPool bufferPool;
+    private Http11OutputBuffer outputBuffer;
+    private ByteBuffer buffer;
+    private boolean keepAlive;
+    private boolean http10;
+    private boolean headOnly;
+    private boolean used;
+    private boolean committed;
+    private boolean chunked;
+    private boolean finished;
+
+    Http11OutputStream(final HttpResponse response, final ByteBufferPool bufferPool) {
+        this.response = response;
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * Prepare for the next response on the connection.
+     */
+    void recycle(final Http11OutputBuffer outputBuffer, final boolean keepAlive, final boolean http10,
+                 final boolean headOnly) {
+        release();
+        this.outputBuffer = outputBuffer;
+        this.keepAlive = keepAlive;
+        this.http10 = http10;
+        this.headOnly = headOnly;
+        this.used = false;
+        this.committed = false;
+        this.chunked = false;
+        this.finished = false;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        if (finished) {
+            throw new IOException("response already finished");
+        }
+        used = true;
+        if (len == 0) {
+            return;
+        }
+        if (buffer == null) {
+            buffer = bufferPool.acquire();
+        }
+        if (len <= buffer.remaining()) {
+            buffer.put(b, off, len);
+            return;
+        }
+        // 버퍼를 넘치는 순간 헤더를 확정하고 지금까지 모은 것과 새 바이트를 내보낸다.
+        commit();
+        drain();
+        if (len >= buffer.capacity()) {
+            writeBody(b, off, len);
+            return;
+        }
+        buffer.put(b, off, len);
+    }
+
+    /**
+     * Send what has been written so far. The headers are committed, so the
+     * body continues chunked unless a length was set.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (finished) {
+            return;
+        }
+        used = true;
+        commit();
+        drain();
+        outputBuffer.flush();
+    }
+
+    /**
+     * Finish the response. Nothing can be written afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+
+    /**
+     * Send the response, whether or not the handler used this stream.
+     */
+    void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        try {
+            if (!used) {
+                prepareHeaders();
+                outputBuffer.write(response, headOnly);
+            } else if (!committed) {
+                final int length = buffer == null ? 0 : buffer.position();
+                response.setHeader(HeaderName.CONTENT_LENGTH, String.valueOf(length));
+                commit();
+                drain();
+            } else {
+                drain();
+                if (chunked && !headOnly) {
+                    outputBuffer.write(LAST_CHUNK);
+                }
+            }
+        } finally {
+            finished = true;
+            release();
+        }
+    }
+
+    /**
+     * Give the buffer back without finishing, after the handler failed.
+     */
+    void abort() {
+        finished = true;
+        release();
+    }
+
+    /**
+     * @return whether the response was committed in a way that requires the
+     * connection to be closed after it
+     */
+    boolean isCloseRequired() {
+        return committed && !keepAlive;
+    }
+
+    boolean isCommitted() {
+        return committed;
+    }
+
+    private void commit() throws IOException {
+        if (committed) {
+            return;
+        }
+        committed = true;
+        if (response.getHeader(HeaderName.CONTENT_LENGTH.getName()) == null) {
+            if (http10) {
+                keepAlive = false;
+            } else {
+                chunked = true;
+                response.setHeader(HeaderName.TRANSFER_ENCODING, "chunked");
+            }
+        }
+        prepareHeaders();
+        outputBuffer.writeHead(response.getStatus(), response.getHeaders());
+    }
+
+    private void prepareHeaders() {
+        response.setHeader(HeaderName.DATE, FastHttpDateFormat.getCurrentDate());
+        if (!keepAlive) {
+            response.setHeader(HeaderName.CONNECTION, "close");
+        }
+    }
+
+    private void drain() throws IOException {
+        if (buffer == null || buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        if (headOnly) {
+            buffer.clear();
+            return;
+        }
+        if (!chunked) {
+            outputBuffer.write(buffer);
+        } else {
+            writeChunkSize(buffer.remaining());
+            outputBuffer.write(buffer);
+            outputBuffer.write(CRLF);
+        }
+        buffer.clear();
+    }
+
+    private void writeBody(final byte[] b, final int off, final int len) throws IOException {
+        if (headOnly) {
+            return;
+        }
+        if (!chunked) {
+            outputBuffer.write(b, off, len);
+            return;
+        }
+        writeChunkSize(len);
+        outputBuffer.write(b, off, len);
+        outputBuffer.write(CRLF);
+    }
+
+    private void writeChunkSize(final int len) throws IOException {
+        outputBuffer.write(Integer.toHexString(len).getBytes(StandardCharsets.ISO_8859_1));
+        outputBuffer.write(CRLF);
+    }
+
+    private void release() {
+        if (buffer != null) {
+            bufferPool.release(buffer);
+            buffer = null;
+        }
+    }
+}
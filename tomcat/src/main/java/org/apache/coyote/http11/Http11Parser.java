@@ -0,0 +1,354 @@
+package org.apache.coyote.http11;
+
+import org.apache.tomcat.util.buf.ByteChunk;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Incremental HTTP/1.1 request parser.
+ * <p>
+ * The parser works on the bytes in {@code [0, buffer.position())} of the
+ * connection's input buffer, with the request starting at index 0. It can be
+ * called again whenever more bytes have been appended and continues where it
+ * stopped, so a request may arrive split over any number of reads. The
+ * request line and headers are recorded as {@link ByteChunk} views into the
+ * buffer; only the body is copied out, which lets the space it used be reused
+ * for the rest of the body.
+ */
+public class Http11Parser {
+
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte SP = ' ';
+    private static final byte HT = '\t';
+    private static final int MAX_CHUNK_LINE_SIZE = 1024;
+
+    private enum State {
+        REQUEST_LINE, HEADERS, BODY, CHUNK_SIZE, CHUNK_DATA, CHUNK_DATA_END, TRAILERS, DONE
+    }
+
+    private final int maxRequestLineSize;
+    private final int maxHttpHeaderSize;
+    private final int maxPostSize;
+
+    private State state = State.REQUEST_LINE;
+    private int position = 0;
+    private int lineStart = 0;
+    private int headerEnd = 0;
+    private long remaining = 0;
+
+    public Http11Parser(final int maxRequestLineSize, final int maxHttpHeaderSize, final int maxPostSize) {
+        this.maxRequestLineSize = maxRequestLineSize;
+        this.maxHttpHeaderSize = maxHttpHeaderSize;
+        this.maxPostSize = maxPostSize;
+    }
+
+    /**
+     * Continue parsing with the bytes currently in the buffer.
+     *
+     * @return {@code true} once the request, including its body, is complete
+     * @throws HttpParseException if the request is malformed or exceeds a limit
+     */
+    public boolean parse(final ByteBuffer buffer, final HttpRequest request) {
+        while (state != State.DONE) {
+            final boolean progressed = switch (state) {
+                case REQUEST_LINE -> parseRequestLine(buffer, request);
+                case HEADERS -> parseHeader(buffer, request);
+                case BODY, CHUNK_DATA -> readBody(buffer, request);
+                case CHUNK_SIZE -> parseChunkSize(buffer);
+                case CHUNK_DATA_END -> parseChunkDataEnd(buffer);
+                case TRAILERS -> parseTrailer(buffer);
+                case DONE -> true;
+            };
+            if (!progressed) {
+                reclaimBodySpace(buffer);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of bytes at the start of the buffer that belong to
+     * the request that has just been parsed
+     */
+    public int getConsumed() {
+        return position;
+    }
+
+    public void reset() {
+        state = State.REQUEST_LINE;
+        position = 0;
+        lineStart = 0;
+        headerEnd = 0;
+        remaining = 0;
+    }
+
+    private boolean parseRequestLine(final ByteBuffer buffer, final HttpRequest request) {
+        final int lf = findLineEnd(buffer);
+        if (lf < 0) {
+            if (position - lineStart > maxRequestLineSize) {
+                throw new HttpParseException(HttpStatus.URI_TOO_LONG, "request line exceeds " + maxRequestLineSize + " bytes");
+            }
+            return false;
+        }
+        final int end = trimEnd(buffer, lineStart, stripCr(buffer, lineStart, lf));
+        if (end == lineStart) {
+            // 요청 라인 앞의 빈 줄은 무시한다. (RFC 9112 2.2)
+            lineStart = position;
+            return true;
+        }
+        if (end - lineStart > maxRequestLineSize) {
+            throw new HttpParseException(HttpStatus.URI_TOO_LONG, "request line exceeds " + maxRequestLineSize + " bytes");
+        }
+
+        final int methodEnd = indexOf(buffer, lineStart, end, SP);
+        if (methodEnd <= lineStart || !isToken(buffer, lineStart, methodEnd)) {
+            throw new HttpParseException(HttpStatus.BAD_REQUEST, "invalid method");
+        }
+        final int targetStart = methodEnd + 1;
+        final int targetEnd = indexOf(buffer, targetStart, end, SP);
+        if (targetEnd <= targetStart) {
+            throw new HttpParseException(HttpStatus.BAD_REQUEST, "invalid request target");
+        }
+        request.method().set(buffer, lineStart, methodEnd);
+        final int query = indexOf(buffer, targetStart, targetEnd, (byte) '?');
+        if (query < 0) {
+            request.requestURI().set(buffer, targetStart, targetEnd);
+        } else {
+            request.requestURI().set(buffer, targetStart, query);
+            request.queryString().set(buffer, query + 1, targetEnd);
+        }
+        request.protocol().set(buffer, targetEnd + 1, end);
+        checkProtocol(request.protocol());
+
+        lineStart = position;
+        state = State.HEADERS;
+        return true;
+    }
+
+    private void checkProtocol(final ByteChunk protocol) {
+        if (protocol.equals("HTTP/1.1") || protocol.equals("HTTP/1.0")) {
+            return;
+        }
+        if (protocol.startsWith("HTTP/")) {
+            throw new HttpParseException(HttpStatus.HTTP_VERSION_NOT_SUPPORTED, "unsupported protocol: " + protocol);
+        }
+        throw new HttpParseException(HttpStatus.BAD_REQUEST, "invalid protocol: " + protocol);
+    }
+
+    private boolean parseHeader(final ByteBuffer buffer, final HttpRequest request) {
+        final int lf = findLineEnd(buffer);
+        if (position > maxHttpHeaderSize) {
+            throw new HttpParseException(HttpStatus.REQUEST_HEADER_FIELDS_TOO_LARGE, "request header exceeds " + maxHttpHeaderSize + " bytes");
+        }
+        if (lf < 0) {
+            return false;
+        }
+        final int end = stripCr(buffer, lineStart, lf);
+        if (end == lineStart) {
+            headerEnd = position;
+            lineStart = position;
+            startBody(request.getHeaders());
+            return true;
+        }
+        if (isWhitespace(buffer.get(lineStart))) {
+            throw new HttpParseException(HttpStatus.BAD_REQUEST, "obsolete header line folding");
+        }
+        final int colon = indexOf(buffer, lineStart, end, (byte) ':');
+        if (colon <= lineStart || !isToken(buffer, lineStart, colon)) {
+            throw new HttpParseException(HttpStatus.BAD_REQUEST, "invalid header field name");
+        }
+        int valueStart = colon + 1;
+        while (valueStart < end && isWhitespace(buffer.get(valueStart))) {
+            valueStart++;
+        }
+        final HeaderName name = HeaderName.lookup(buffer, lineStart, colon);
+        final boolean added = request.getHeaders()
+                .add(name, buffer, lineStart, colon, valueStart, trimEnd(buffer, valueStart, end));
+        if (!added && isFraming(name)) {
+            throw new HttpParseException(HttpStatus.BAD_REQUEST, "duplicate " + name.getName() + " header");
+        }
+        lineStart = position;
+        return true;
+    }
+
+    private static boolean isFraming(final HeaderName name) {
+        return name == HeaderName.HOST || name == HeaderName.CONTENT_LENGTH || name == HeaderName.TRANSFER_ENCODING;
+    }
+
+    private void startBody(final HttpHeaders headers) {
+        final ByteChunk transferEncoding = headers.getValue(HeaderName.TRANSFER_ENCODING);
+        if (transferEncoding != null) {
+            if (!transferEncoding.equalsIgnoreCase("chunked")) {
+                throw new HttpParseException(HttpStatus.NOT_IMPLEMENTED, "unsupported transfer encoding: " + transferEncoding);
+            }
+            state = State.CHUNK_SIZE;
+            return;
+        }
+        final ByteChunk contentLength = headers.getValue(HeaderName.CONTENT_LENGTH);
+        if (contentLength == null) {
+            state = State.DONE;
+            return;
+        }
+        try {
+            remaining = contentLength.parseLong();
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new HttpParseException(HttpStatus.BAD_REQUEST, "invalid Content-Length: " + contentLength);
+        }
+        if (remaining > maxPostSize) {
+            throw new HttpParseException(HttpStatus.PAYLOAD_TOO_LARGE, "request body exceeds " + maxPostSize + " bytes");
+        }
+        state = remaining == 0 ? State.DONE : State.BODY;
+    }
+
+    private boolean readBody(final ByteBuffer buffer, final HttpRequest request) {
+        final int available = buffer.position() - position;
+        final int length = (int) Math.min(available, remaining);
+        if (length == 0) {
+            return false;
+        }
+        request.appendBody(buffer, position, length, maxPostSize);
+        position += length;
+        lineStart = position;
+        remaining -= length;
+        if (remaining > 0) {
+            return false;
+        }
+        state = state == State.BODY ? State.DONE : State.CHUNK_DATA_END;
+        return true;
+    }
+
+    private boolean parseChunkSize(final ByteBuffer buffer) {
+        final int lf = findChunkLineEnd(buffer);
+        if (lf < 0) {
+            return false;
+        }
+        final int end = stripCr(buffer, lineStart, lf);
+        long size = 0;
+        int digits = 0;
+        for (int i = lineStart; i < end; i++) {
+            final byte b = buffer.get(i);
+            if (b == ';' || isWhitespace(b)) {
+                break;
+            }
+            final int digit = Character.digit(b, 16);
+            if (digit < 0) {
+                throw new HttpParseException(HttpStatus.BAD_REQUEST, "invalid chunk size");
+            }
+            size = size * 16 + digit;
+            if (size > maxPostSize) {
+                throw new HttpParseException(HttpStatus.PAYLOAD_TOO_LARGE, "request body exceeds " + maxPostSize + " bytes");
+            }
+            digits++;
+        }
+        if (digits == 0) {
+            throw new HttpParseException(HttpStatus.BAD_REQUEST, "missing chunk size");
+        }
+        lineStart = position;
+        remaining = size;
+        state = size == 0 ? State.TRAILERS : State.CHUNK_DATA;
+        return true;
+    }
+
+    private boolean parseChunkDataEnd(final ByteBuffer buffer) {
+        final int lf = findChunkLineEnd(buffer);
+        if (lf < 0) {
+            return false;
+        }
+        if (stripCr(buffer, lineStart, lf) != lineStart) {
+            throw new HttpParseException(HttpStatus.BAD_REQUEST, "missing CRLF after chunk data");
+        }
+        lineStart = position;
+        state = State.CHUNK_SIZE;
+        return true;
+    }
+
+    private boolean parseTrailer(final ByteBuffer buffer) {
+        final int lf = findChunkLineEnd(buffer);
+        if (lf < 0) {
+            return false;
+        }
+        // 트레일러 필드는 사용하지 않으므로 빈 줄이 나올 때까지 건너뛴다.
+        final boolean lastLine = stripCr(buffer, lineStart, lf) == lineStart;
+        lineStart = position;
+        if (lastLine) {
+            state = State.DONE;
+        }
+        return true;
+    }
+
+    private int findChunkLineEnd(final ByteBuffer buffer) {
+        final int lf = findLineEnd(buffer);
+        if (position - lineStart > MAX_CHUNK_LINE_SIZE) {
+            throw new HttpParseException(HttpStatus.BAD_REQUEST, "chunk line exceeds " + MAX_CHUNK_LINE_SIZE + " bytes");
+        }
+        return lf;
+    }
+
+    /**
+     * Once every byte after the header block has been consumed, body bytes
+     * have been copied out and their space can take the next read.
+     */
+    private void reclaimBodySpace(final ByteBuffer buffer) {
+        if (headerEnd > 0 && lineStart == position && position == buffer.position() && position > headerEnd) {
+            buffer.position(headerEnd);
+            position = headerEnd;
+            lineStart = headerEnd;
+        }
+    }
+
+    /**
+     * Scan for the next LF, remembering how far the scan got so bytes are
+     * looked at only once even if the line arrives in several reads.
+     *
+     * @return the index of the LF, or -1 if the line is not complete yet
+     */
+    private int findLineEnd(final ByteBuffer buffer) {
+        final int end = buffer.position();
+        while (position < end) {
+            if (buffer.get(position++) == LF) {
+                return position - 1;
+            }
+        }
+        return -1;
+    }
+
+    private static int stripCr(final ByteBuffer buffer, final int start, final int lf) {
+        if (lf > start && buffer.get(lf - 1) == CR) {
+            return lf - 1;
+        }
+        return lf;
+    }
+
+    private static int trimEnd(final ByteBuffer buffer, final int start, final int end) {
+        int trimmed = end;
+        while (trimmed > start && isWhitespace(buffer.get(trimmed - 1))) {
+            trimmed--;
+        }
+        return trimmed;
+    }
+
+    private static int indexOf(final ByteBuffer buffer, final int start, final int end, final byte b) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isToken(final ByteBuffer buffer, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            final byte b = buffer.get(i);
+            if (b <= SP || b >= 127 || "()<>@,;:\\\"/[]?={}".indexOf(b) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == SP || b == HT;
+    }
+}
@@ -2,19 +2,28 @@ package org.apache.coyote.http11;
 
 import com.techcourse.exception.UncheckedServletException;
 import org.apache.coyote.Processor;
+import org.apache.tomcat.util.net.JioSocketWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 
-public class Http11Processor implements Runnable, Processor {
+public class Http11Processor extends AbstractHttp11Processor implements Runnable, Processor {
 
     private static final Logger log = LoggerFactory.getLogger(Http11Processor.class);
 
     private final Socket connection;
 
     public Http11Processor(final Socket connection) {
+        this(connection, new Http11Protocol());
+    }
+
+    public Http11Processor(final Socket connection, final Http11Protocol protocol) {
+        super(protocol);
         this.connection = connection;
     }
 
@@ -28,20 +37,57 @@ public class Http11Processor implements Runnable, Processor {
     public void process(final Socket connection) {
         try (final var inputStream = connection.getInputStream();
              final var outputStream = connection.getOutputStream()) {
-
-            final var responseBody = "Hello world!";
-
-            final var response = String.join("\r\n",
-                    "HTTP/1.1 200 OK ",
-                    "Content-Type: text/html;charset=utf-8 ",
-                    "Content-Length: " + responseBody.getBytes().length + " ",
-                    "",
-                    responseBody);
-
-            outputStream.write(response.getBytes());
-            outputStream.flush();
+            connection.setSoTimeout((int) protocol.getKeepAliveTimeout().toMillis());
+            final var inputBuffer = new Http11InputBuffer(protocol);
+            final var outputBuffer = new Http11OutputBuffer(new JioSocketWrapper(connection, outputStream),
+                    protocol.getBufferPool(), protocol.getOutputBufferSize());
+            try {
+                service(inputBuffer, outputBuffer, Channels.newChannel(inputStream));
+            } catch (HttpParseException e) {
+                log.warn("bad request from {}: {}", connection.getRemoteSocketAddress(), e.getMessage());
+                sendError(e.getStatus(), outputBuffer);
+            } finally {
+                inputBuffer.release();
+            }
+            try {
+                outputBuffer.flush();
+            } finally {
+                outputBuffer.release();
+            }
+        } catch (SocketTimeoutException e) {
+            log.debug("keep-alive timeout: {}", connection.getRemoteSocketAddress());
         } catch (IOException | UncheckedServletException e) {
             log.error(e.getMessage(), e);
         }
     }
+
+    private void service(final Http11InputBuffer inputBuffer, final Http11OutputBuffer outputBuffer,
+                         final ReadableByteChannel input) throws IOException {
+        // 클라이언트가 연결을 닫거나 keep-alive 조건을 벗어날 때까지 같은 연결로 요청을 처리한다.
+        boolean keepAlive = true;
+        while (keepAlive) {
+            final HttpRequest request = nextRequest(inputBuffer, outputBuffer, input);
+            if (request == null) {
+                return;
+            }
+            keepAlive = service(request, outputBuffer);
+        }
+    }
+
+    /**
+     * Pipelined requests that are already buffered are answered without
+     * flushing, so their responses go out together in request order. The
+     * pending responses are flushed only before blocking for more input, and
+     * the output buffer goes back to the pool while the connection waits.
+     */
+    private HttpRequest nextRequest(final Http11InputBuffer inputBuffer, final Http11OutputBuffer outputBuffer,
+                                    final ReadableByteChannel input) throws IOException {
+        final HttpRequest buffered = inputBuffer.parseRequest();
+        if (buffered != null) {
+            return buffered;
+        }
+        outputBuffer.flush();
+        outputBuffer.release();
+        return inputBuffer.readRequest(input);
+    }
 }
@@ -0,0 +1,119 @@
+package org.apache.coyote.http11;
+
+import org.apache.catalina.connector.CoyoteAdapter;
+import org.apache.coyote.Adapter;
+import org.apache.tomcat.util.buf.ByteBufferPool;
+
+import java.net.Socket;
+import java.time.Duration;
+
+/**
+ * HTTP/1.1 settings shared by every connection of a connector, and the
+ * factory for the processors that apply them.
+ */
+public class Http11Protocol {
+
+    public static final int DEFAULT_MAX_KEEP_ALIVE_REQUESTS = 100;
+    public static final Duration DEFAULT_KEEP_ALIVE_TIMEOUT = Duration.ofSeconds(20);
+    public static final int DEFAULT_MAX_REQUEST_LINE_SIZE = 4 * 1024;
+    public static final int DEFAULT_MAX_HTTP_HEADER_SIZE = 8 * 1024;
+    public static final int DEFAULT_MAX_POST_SIZE = 2 * 1024 * 1024;
+    public static final int DEFAULT_OUTPUT_BUFFER_SIZE = 16 * 1024;
+
+    private final Adapter adapter;
+    private final ByteBufferPool bufferPool = new ByteBufferPool();
+    private int maxKeepAliveRequests = DEFAULT_MAX_KEEP_ALIVE_REQUESTS;
+    private Duration keepAliveTimeout = DEFAULT_KEEP_ALIVE_TIMEOUT;
+    private int maxRequestLineSize = DEFAULT_MAX_REQUEST_LINE_SIZE;
+    private int maxHttpHeaderSize = DEFAULT_MAX_HTTP_HEADER_SIZE;
+    private int maxPostSize = DEFAULT_MAX_POST_SIZE;
+    private int outputBufferSize = DEFAULT_OUTPUT_BUFFER_SIZE;
+
+    public Http11Protocol() {
+        this(new CoyoteAdapter());
+    }
+
+    public Http11Protocol(final Adapter adapter) {
+        this.adapter = adapter;
+    }
+
+    public Http11Processor createProcessor(final Socket socket) {
+        return new Http11Processor(socket, this);
+    }
+
+    public Http11NioProcessor createNioProcessor() {
+        return new Http11NioProcessor(this);
+    }
+
+    /**
+     * Decide whether the connection may stay open after answering the given
+     * request, which is the {@code servedRequests}-th one on the connection.
+     * A negative {@code maxKeepAliveRequests} means no limit.
+     */
+    boolean keepAlive(final HttpRequest request, final int servedRequests) {
+        if (!request.isKeepAlive()) {
+            return false;
+        }
+        return maxKeepAliveRequests < 0 || servedRequests < maxKeepAliveRequests;
+    }
+
+    public Adapter getAdapter() {
+        return adapter;
+    }
+
+    /**
+     * @return the direct buffers requests are read into and responses are
+     * written from, shared by every connection
+     */
+    public ByteBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    public int getMaxKeepAliveRequests() {
+        return maxKeepAliveRequests;
+    }
+
+    public void setMaxKeepAliveRequests(final int maxKeepAliveRequests) {
+        this.maxKeepAliveRequests = maxKeepAliveRequests;
+    }
+
+    public Duration getKeepAliveTimeout() {
+        return keepAliveTimeout;
+    }
+
+    public void setKeepAliveTimeout(final Duration keepAliveTimeout) {
+        this.keepAliveTimeout = keepAliveTimeout;
+    }
+
+    public int getMaxRequestLineSize() {
+        return maxRequestLineSize;
+    }
+
+    public void setMaxRequestLineSize(final int maxRequestLineSize) {
+        this.maxRequestLineSize = maxRequestLineSize;
+    }
+
+    public int getMaxHttpHeaderSize() {
+        return maxHttpHeaderSize;
+    }
+
+    public void setMaxHttpHeaderSize(final int maxHttpHeaderSize) {
+        this.maxHttpHeaderSize = maxHttpHeaderSize;
+    }
+
+    public int getMaxPostSize() {
+        return maxPostSize;
+    }
+
+    public void setMaxPostSize(final int maxPostSize) {
+        this.maxPostSize = maxPostSize;
+    }
+
+    public int getOutputBufferSize() {
+        return outputBufferSize;
+    }
+
+    public void setOutputBufferSize(final int outputBufferSize) {
+        this.outputBufferSize = outputBufferSize;
+    }
+}
@@ -0,0 +1,122 @@
+package org.apache.coyote.http11;
+
+import org.apache.tomcat.util.buf.ByteChunk;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Request headers as views into the input buffer.
+ * <p>
+ * Well-known headers are kept in a slot per {@link HeaderName}, so looking one
+ * up is an array access. Other headers go to a map keyed by the lower-cased
+ * name. Which slots are set is tracked in a bitmask of one bit per
+ * {@link HeaderName}, sized from the enum like the name table of
+ * {@link HeaderName}. Only the first occurrence of a header is kept. The slot objects
+ * survive {@link #recycle()} and are reused for the next request on the
+ * connection.
+ */
+public class HttpHeaders {
+
+    private static final HeaderName[] NAMES = HeaderName.values();
+
+    private final ByteChunk[] known = new ByteChunk[NAMES.length];
+    private final Map<String, ByteChunk> others = new HashMap<>();
+    private final long[] present = new long[(NAMES.length + Long.SIZE - 1) / Long.SIZE];
+
+    public HttpHeaders() {
+        for (int i = 0; i < known.length; i++) {
+            known[i] = new ByteChunk();
+        }
+    }
+
+    /**
+     * @return {@code false} if a header with the same name was already added,
+     * in which case this one is ignored
+     */
+    boolean add(final HeaderName name, final ByteBuffer buffer, final int nameStart, final int nameEnd,
+                final int valueStart, final int valueEnd) {
+        if (name != null) {
+            final int word = name.ordinal() >>> 6;
+            // 시프트는 하위 6비트만 쓰므로 워드 안의 위치가 된다.
+            final long bit = 1L << name.ordinal();
+            if ((present[word] & bit) != 0) {
+                return false;
+            }
+            present[word] |= bit;
+            known[name.ordinal()].set(buffer, valueStart, valueEnd);
+            return true;
+        }
+        final var key = decode(buffer, nameStart, nameEnd).toLowerCase(Locale.ROOT);
+        if (others.containsKey(key)) {
+            return false;
+        }
+        final var value = new ByteChunk();
+        value.set(buffer, valueStart, valueEnd);
+        others.put(key, value);
+        return true;
+    }
+
+    private static String decode(final ByteBuffer buffer, final int start, final int end) {
+        final byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * @return the value of the header, or {@code null} if it is absent
+     */
+    public ByteChunk getValue(final HeaderName name) {
+        if ((present[name.ordinal() >>> 6] & (1L << name.ordinal())) == 0) {
+            return null;
+        }
+        return known[name.ordinal()];
+    }
+
+    public ByteChunk getValue(final String name) {
+        final HeaderName headerName = HeaderName.lookup(name);
+        if (headerName != null) {
+            return getValue(headerName);
+        }
+        return others.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    public String getHeader(final HeaderName name) {
+        final ByteChunk value = getValue(name);
+        if (value == null) {
+            return null;
+        }
+        return value.toString();
+    }
+
+    public String getHeader(final String name) {
+        final ByteChunk value = getValue(name);
+        if (value == null) {
+            return null;
+        }
+        return value.toString();
+    }
+
+    public int size() {
+        int count = others.size();
+        for (final long bits : present) {
+            count += Long.bitCount(bits);
+        }
+        return count;
+    }
+
+    void recycle() {
+        for (int word = 0; word < present.length; word++) {
+            for (long bits = present[word]; bits != 0; bits &= bits - 1) {
+                known[word * Long.SIZE + Long.numberOfTrailingZeros(bits)].recycle();
+            }
+            present[word] = 0L;
+        }
+        if (!others.isEmpty()) {
+            others.clear();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.apache.coyote.http11;
+
+/**
+ * Thrown when a request cannot be parsed. The connection can not be trusted
+ * to be in sync with request boundaries anymore, so it is answered with the
+ * given status and closed.
+ */
+public class HttpParseException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public HttpParseException(final HttpStatus status, final String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,117 @@
+package org.apache.coyote.http11;
+
+import org.apache.tomcat.util.buf.ByteChunk;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A request read from a connection. The request line and headers are views
+ * into the connection's input buffer, so one instance is reused for every
+ * request on the connection and is only valid until the next one is parsed.
+ */
+public class HttpRequest {
+
+    static final String HTTP_1_0 = "HTTP/1.0";
+    public static final int MAX_NOTES = 4;
+    private static final int INITIAL_BODY_CAPACITY = 1024;
+
+    private final ByteChunk method = new ByteChunk();
+    private final ByteChunk requestURI = new ByteChunk();
+    private final ByteChunk queryString = new ByteChunk();
+    private final ByteChunk protocol = new ByteChunk();
+    private final HttpHeaders headers = new HttpHeaders();
+    private byte[] body = new byte[0];
+    private int bodyLength = 0;
+    private final Object[] notes = new Object[MAX_NOTES];
+
+    public boolean isKeepAlive() {
+        final ByteChunk connection = headers.getValue(HeaderName.CONNECTION);
+        if (protocol.equals(HTTP_1_0)) {
+            return connection != null && connection.hasToken("keep-alive");
+        }
+        return connection == null || !connection.hasToken("close");
+    }
+
+    void appendBody(final ByteBuffer buffer, final int start, final int length, final int maxPostSize) {
+        if (bodyLength + length > maxPostSize) {
+            throw new HttpParseException(HttpStatus.PAYLOAD_TOO_LARGE, "request body exceeds " + maxPostSize + " bytes");
+        }
+        if (bodyLength + length > body.length) {
+            final int capacity = Math.max(INITIAL_BODY_CAPACITY, Math.max(body.length * 2, bodyLength + length));
+            body = Arrays.copyOf(body, Math.min(capacity, maxPostSize));
+        }
+        buffer.get(start, body, bodyLength, length);
+        bodyLength += length;
+    }
+
+    void recycle() {
+        method.recycle();
+        requestURI.recycle();
+        queryString.recycle();
+        protocol.recycle();
+        headers.recycle();
+        bodyLength = 0;
+    }
+
+    public ByteChunk method() {
+        return method;
+    }
+
+    public ByteChunk requestURI() {
+        return requestURI;
+    }
+
+    public ByteChunk queryString() {
+        return queryString;
+    }
+
+    public ByteChunk protocol() {
+        return protocol;
+    }
+
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    public String getMethod() {
+        return method.toString();
+    }
+
+    public String getRequestURI() {
+        return requestURI.toString();
+    }
+
+    public String getQueryString() {
+        return queryString.toString();
+    }
+
+    public String getProtocol() {
+        return protocol.toString();
+    }
+
+    public String getHeader(final String name) {
+        return headers.getHeader(name);
+    }
+
+    public int getContentLength() {
+        return bodyLength;
+    }
+
+    public byte[] getBody() {
+        return Arrays.copyOf(body, bodyLength);
+    }
+
+    /**
+     * Objects the layers above attach to the request, such as the adapter's
+     * mapping state. Notes outlive {@link #recycle()}, so an object stored
+     * once is reused for every request on the connection.
+     */
+    public Object getNote(final int index) {
+        return notes[index];
+    }
+
+    public void setNote(final int index, final Object value) {
+        notes[index] = value;
+    }
+}
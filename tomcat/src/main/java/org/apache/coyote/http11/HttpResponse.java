@@ -0,0 +1,188 @@
+package org.apache.coyote.http11;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A response under construction. The body is either an in-memory byte array,
+ * a file, which is sent straight from the file system without passing
+ * through the heap, or a sequence of buffers such as slices of a mapped
+ * file. A response may also be replaced wholesale by an
+ * {@link EncodedResponse}, in which case the headers set afterwards are the
+ * only ones still to be encoded. One instance is reused for every request on
+ * a connection.
+ */
+public class HttpResponse {
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    /**
+     * Headers a 304 response repeats from the response it stands for
+     * (RFC 9110 section 15.4.5). Everything else, the body headers in
+     * particular, is dropped.
+     */
+    static final Set<String> NOT_MODIFIED_HEADERS = Set.of(
+            HeaderName.ETAG.getName(), HeaderName.VARY.getName(), HeaderName.CACHE_CONTROL.getName());
+
+    private HttpStatus status = HttpStatus.OK;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+    private byte[] body = EMPTY_BODY;
+    private Path file;
+    private long fileLength;
+    private ByteBuffer[] buffers;
+    private EncodedResponse encoded;
+    private Http11OutputStream outputStream;
+
+    public void setStatus(final HttpStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value has CR, LF or a
+     *                                  character that is not Latin-1
+     */
+    public void setHeader(final HeaderName name, final String value) {
+        EncodedHeaders.check(name.getName(), value);
+        headers.put(name.getName(), value);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the name or value has CR, LF or a
+     *                                  character that is not Latin-1
+     */
+    public void setHeader(final String name, final String value) {
+        EncodedHeaders.check(name, value);
+        headers.put(name, value);
+    }
+
+    public void setBody(final byte[] body, final String contentType) {
+        this.body = body;
+        this.file = null;
+        this.buffers = null;
+        this.encoded = null;
+        setHeader(HeaderName.CONTENT_TYPE, contentType);
+        setHeader(HeaderName.CONTENT_LENGTH, String.valueOf(body.length));
+    }
+
+    public void setFile(final Path file, final long length, final String contentType) {
+        this.body = EMPTY_BODY;
+        this.buffers = null;
+        this.encoded = null;
+        this.file = file;
+        this.fileLength = length;
+        setHeader(HeaderName.CONTENT_TYPE, contentType);
+        setHeader(HeaderName.CONTENT_LENGTH, String.valueOf(length));
+    }
+
+    /**
+     * Use the remaining bytes of the buffers, in order, as the body. The
+     * buffers are only read, through duplicates, so they may be shared with
+     * other responses.
+     */
+    public void setBody(final ByteBuffer[] buffers, final long length, final String contentType) {
+        this.body = EMPTY_BODY;
+        this.file = null;
+        this.buffers = buffers;
+        this.encoded = null;
+        setHeader(HeaderName.CONTENT_TYPE, contentType);
+        setHeader(HeaderName.CONTENT_LENGTH, String.valueOf(length));
+    }
+
+    /**
+     * Answer with an empty {@code 302 Found} pointing to the location.
+     */
+    public void sendRedirect(final String location) {
+        setStatus(HttpStatus.FOUND);
+        setHeader(HeaderName.LOCATION, location);
+        setHeader(HeaderName.CONTENT_LENGTH, "0");
+    }
+
+    /**
+     * Replace the status, headers and body with a pre-encoded response.
+     */
+    public void setEncoded(final EncodedResponse encoded) {
+        this.status = encoded.getStatus();
+        this.headers.clear();
+        this.body = EMPTY_BODY;
+        this.file = null;
+        this.fileLength = 0;
+        this.buffers = null;
+        this.encoded = encoded;
+    }
+
+    /**
+     * Turn the response into a headers-only {@code 304 Not Modified},
+     * keeping the validators and caching headers.
+     */
+    public void setNotModified() {
+        this.status = HttpStatus.NOT_MODIFIED;
+        this.headers.keySet().retainAll(NOT_MODIFIED_HEADERS);
+        this.body = EMPTY_BODY;
+        this.file = null;
+        this.fileLength = 0;
+        this.buffers = null;
+        this.encoded = null;
+    }
+
+    void recycle() {
+        status = HttpStatus.OK;
+        headers.clear();
+        body = EMPTY_BODY;
+        file = null;
+        fileLength = 0;
+        buffers = null;
+        encoded = null;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public String getHeader(final String name) {
+        return headers.get(name);
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getFileLength() {
+        return fileLength;
+    }
+
+    /**
+     * @return a stream to write the body to instead of setting it; headers
+     * must be set before the first write that commits the response
+     * @see Http11OutputStream
+     */
+    public OutputStream getOutputStream() {
+        if (outputStream == null) {
+            throw new IllegalStateException("response is not attached to a connection");
+        }
+        return outputStream;
+    }
+
+    void setOutputStream(final Http11OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    public ByteBuffer[] getBuffers() {
+        return buffers;
+    }
+
+    public EncodedResponse getEncoded() {
+        return encoded;
+    }
+}
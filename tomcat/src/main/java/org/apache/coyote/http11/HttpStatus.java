@@ -0,0 +1,48 @@
+package org.apache.coyote.http11;
+
+import java.nio.charset.StandardCharsets;
+
+public enum HttpStatus {
+
+    OK(200, "OK"),
+    PARTIAL_CONTENT(206, "Partial Content"),
+    FOUND(302, "Found"),
+    NOT_MODIFIED(304, "Not Modified"),
+    BAD_REQUEST(400, "Bad Request"),
+    NOT_FOUND(404, "Not Found"),
+    METHOD_NOT_ALLOWED(405, "Method Not Allowed"),
+    PAYLOAD_TOO_LARGE(413, "Payload Too Large"),
+    URI_TOO_LONG(414, "URI Too Long"),
+    RANGE_NOT_SATISFIABLE(416, "Range Not Satisfiable"),
+    REQUEST_HEADER_FIELDS_TOO_LARGE(431, "Request Header Fields Too Large"),
+    INTERNAL_SERVER_ERROR(500, "Internal Server Error"),
+    NOT_IMPLEMENTED(501, "Not Implemented"),
+    SERVICE_UNAVAILABLE(503, "Service Unavailable"),
+    HTTP_VERSION_NOT_SUPPORTED(505, "HTTP Version Not Supported"),
+    ;
+
+    private final int code;
+    private final String reasonPhrase;
+    private final byte[] statusLine;
+
+    HttpStatus(final int code, final String reasonPhrase) {
+        this.code = code;
+        this.reasonPhrase = reasonPhrase;
+        this.statusLine = ("HTTP/1.1 " + code + " " + reasonPhrase + " \r\n").getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * @return the encoded status line, CRLF included; shared, not to be modified
+     */
+    byte[] statusLine() {
+        return statusLine;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getReasonPhrase() {
+        return reasonPhrase;
+    }
+}
@@ -0,0 +1,402 @@
+package org.apache.tomcat.util.buf;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Direct buffers shared by every connection of a connector, so reading
+ * requests and writing responses does not allocate for each connection or
+ * each response.
+ * <p>
+ * Sizes are rounded up to a size class, a power of two from
+ * {@link #MIN_SIZE_CLASS} to {@link #MAX_SIZE_CLASS}. A released buffer goes
+ * to a small cache of the releasing thread first and to a shared queue of its
+ * class when that is full. Virtual threads get no cache: they live for one
+ * connection, so whatever they cached would die with them.
+ * <p>
+ * The direct memory allocated by the pool, idle or in use, never exceeds
+ * {@code maxMemory}. When a new buffer would not fit, idle buffers of other
+ * classes are dropped to make room; if that is not enough, and for sizes
+ * above the largest class, a plain heap buffer is handed out instead and
+ * dropped again on release. Buffers that are collected without having been
+ * released, including those left in the cache of a thread that ended, give
+ * their memory back to the budget.
+ * <p>
+ * With leak detection on, which is the default when debug logging is enabled
+ * for this class, each buffer remembers where it was acquired, and a buffer
+ * collected without having been released is logged with that stack trace.
+ */
+public class ByteBufferPool {
+
+    private static final Logger log = LoggerFactory.getLogger(ByteBufferPool.class);
+
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+    public static final int MIN_SIZE_CLASS = 4 * 1024;
+    public static final int MAX_SIZE_CLASS = 64 * 1024;
+    public static final long DEFAULT_MAX_MEMORY = 64L * 1024 * 1024;
+    public static final int DEFAULT_THREAD_CACHE_SIZE = 64 * 1024;
+
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_SIZE_CLASS);
+    private static final int SIZE_CLASSES = Integer.numberOfTrailingZeros(MAX_SIZE_CLASS) - MIN_SHIFT + 1;
+
+    private final SizeClass[] sizeClasses = new SizeClass[SIZE_CLASSES];
+    private final ThreadLocal<ThreadCache> threadCaches = ThreadLocal.withInitial(ThreadCache::new);
+    private final Map<Allocation, Allocation> allocations = new ConcurrentHashMap<>();
+    private final ReferenceQueue<ByteBuffer> collected = new ReferenceQueue<>();
+    private final AtomicLong allocatedMemory = new AtomicLong();
+    private final LongAdder idleMemory = new LongAdder();
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder reuseCount = new LongAdder();
+    private final LongAdder allocationCount = new LongAdder();
+    private final LongAdder fallbackCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final int threadCacheSize;
+    private final boolean leakDetection;
+    private volatile long maxMemory;
+
+    public ByteBufferPool() {
+        this(DEFAULT_MAX_MEMORY, DEFAULT_THREAD_CACHE_SIZE, log.isDebugEnabled());
+    }
+
+    public ByteBufferPool(final long maxMemory, final int threadCacheSize, final boolean leakDetection) {
+        this.maxMemory = maxMemory;
+        this.threadCacheSize = threadCacheSize;
+        this.leakDetection = leakDetection;
+        for (int i = 0; i < SIZE_CLASSES; i++) {
+            sizeClasses[i] = new SizeClass(MIN_SIZE_CLASS << i);
+        }
+    }
+
+    /**
+     * @return a cleared buffer of {@link #DEFAULT_BUFFER_SIZE} bytes
+     */
+    public ByteBuffer acquire() {
+        return acquire(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @return a cleared buffer of at least {@code size} bytes, direct unless
+     * the pool is out of memory or the size is above the largest class
+     */
+    public ByteBuffer acquire(final int size) {
+        acquireCount.increment();
+        final int index = indexFor(size);
+        if (index < 0) {
+            fallbackCount.increment();
+            return ByteBuffer.allocate(size);
+        }
+        ByteBuffer buffer = pollCached(index);
+        if (buffer == null) {
+            buffer = sizeClasses[index].poll();
+        }
+        if (buffer != null) {
+            reuseCount.increment();
+        } else if ((buffer = allocate(index)) == null) {
+            fallbackCount.increment();
+            return ByteBuffer.allocate(size);
+        }
+        if (leakDetection) {
+            track(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Give back a buffer obtained from {@link #acquire}. The caller must not
+     * touch it afterwards.
+     */
+    public void release(final ByteBuffer buffer) {
+        if (!buffer.isDirect()) {
+            return;
+        }
+        final int index = indexFor(buffer.capacity());
+        if (index < 0 || sizeClasses[index].capacity != buffer.capacity()) {
+            return;
+        }
+        if (leakDetection && !untrack(buffer)) {
+            return;
+        }
+        buffer.clear();
+        if (!offerCached(index, buffer)) {
+            sizeClasses[index].offer(buffer);
+        }
+    }
+
+    private static int indexFor(final int size) {
+        if (size > MAX_SIZE_CLASS) {
+            return -1;
+        }
+        final int rounded = Math.max(size, MIN_SIZE_CLASS);
+        return Integer.SIZE - Integer.numberOfLeadingZeros(rounded - 1) - MIN_SHIFT;
+    }
+
+    private ByteBuffer pollCached(final int index) {
+        if (Thread.currentThread().isVirtual()) {
+            return null;
+        }
+        return threadCaches.get().poll(index);
+    }
+
+    private boolean offerCached(final int index, final ByteBuffer buffer) {
+        if (Thread.currentThread().isVirtual()) {
+            return false;
+        }
+        return threadCaches.get().offer(index, buffer);
+    }
+
+    private ByteBuffer allocate(final int index) {
+        expunge();
+        final int capacity = sizeClasses[index].capacity;
+        if (!reserve(capacity)) {
+            dropIdle(capacity, index);
+            if (!reserve(capacity)) {
+                return null;
+            }
+        }
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(capacity);
+        final var allocation = new Allocation(buffer, collected);
+        allocations.put(allocation, allocation);
+        allocationCount.increment();
+        return buffer;
+    }
+
+    private boolean reserve(final int capacity) {
+        long current;
+        do {
+            current = allocatedMemory.get();
+            if (current + capacity > maxMemory) {
+                return false;
+            }
+        } while (!allocatedMemory.compareAndSet(current, current + capacity));
+        return true;
+    }
+
+    /**
+     * Drop idle buffers of other classes, largest first, until {@code needed}
+     * more bytes fit in the budget.
+     */
+    private void dropIdle(final int needed, final int keep) {
+        for (int i = SIZE_CLASSES - 1; i >= 0; i--) {
+            if (i == keep) {
+                continue;
+            }
+            ByteBuffer buffer;
+            while (allocatedMemory.get() + needed > maxMemory && (buffer = sizeClasses[i].poll()) != null) {
+                if (allocations.remove(new Allocation(buffer)) != null) {
+                    allocatedMemory.addAndGet(-buffer.capacity());
+                }
+            }
+        }
+    }
+
+    /**
+     * Give the memory of collected buffers back to the budget, reporting
+     * those that were still in use.
+     */
+    private void expunge() {
+        Reference<? extends ByteBuffer> reference;
+        while ((reference = collected.poll()) != null) {
+            final var allocation = (Allocation) reference;
+            if (allocations.remove(allocation) == null) {
+                continue;
+            }
+            allocatedMemory.addAndGet(-allocation.capacity);
+            if (allocation.acquiredAt != null) {
+                leakCount.increment();
+                log.error("buffer of {} bytes was never released", allocation.capacity, allocation.acquiredAt);
+            }
+        }
+    }
+
+    private void track(final ByteBuffer buffer) {
+        final Allocation allocation = allocations.get(new Allocation(buffer));
+        if (allocation != null) {
+            allocation.acquiredAt = new Throwable("buffer acquired here");
+        }
+    }
+
+    private boolean untrack(final ByteBuffer buffer) {
+        final Allocation allocation = allocations.get(new Allocation(buffer));
+        if (allocation == null) {
+            log.warn("released a buffer of {} bytes this pool does not own", buffer.capacity(), new Throwable());
+            return false;
+        }
+        if (allocation.acquiredAt == null) {
+            log.warn("buffer of {} bytes released twice", buffer.capacity(), new Throwable());
+            return false;
+        }
+        allocation.acquiredAt = null;
+        return true;
+    }
+
+    public long getMaxMemory() {
+        return maxMemory;
+    }
+
+    public void setMaxMemory(final long maxMemory) {
+        this.maxMemory = maxMemory;
+    }
+
+    /**
+     * @return the direct memory owned by the pool, whether idle, cached by a
+     * thread or in use
+     */
+    public long getAllocatedMemory() {
+        expunge();
+        return allocatedMemory.get();
+    }
+
+    /**
+     * @return the memory of the buffers waiting in the shared queues; buffers
+     * in per-thread caches are not counted
+     */
+    public long getIdleMemory() {
+        return idleMemory.sum();
+    }
+
+    public long getAcquireCount() {
+        return acquireCount.sum();
+    }
+
+    public long getReuseCount() {
+        return reuseCount.sum();
+    }
+
+    public long getAllocationCount() {
+        return allocationCount.sum();
+    }
+
+    public long getFallbackCount() {
+        return fallbackCount.sum();
+    }
+
+    public long getLeakCount() {
+        expunge();
+        return leakCount.sum();
+    }
+
+    public boolean isLeakDetection() {
+        return leakDetection;
+    }
+
+    @Override
+    public String toString() {
+        return "ByteBufferPool[allocated=" + getAllocatedMemory() + "/" + maxMemory
+                + ", idle=" + getIdleMemory()
+                + ", acquired=" + getAcquireCount()
+                + ", reused=" + getReuseCount()
+                + ", allocations=" + getAllocationCount()
+                + ", fallbacks=" + getFallbackCount()
+                + ", leaks=" + getLeakCount() + "]";
+    }
+
+    private final class SizeClass {
+
+        private final int capacity;
+        private final Queue<ByteBuffer> idle = new ConcurrentLinkedQueue<>();
+
+        private SizeClass(final int capacity) {
+            this.capacity = capacity;
+        }
+
+        private ByteBuffer poll() {
+            final ByteBuffer buffer = idle.poll();
+            if (buffer != null) {
+                idleMemory.add(-capacity);
+            }
+            return buffer;
+        }
+
+        private void offer(final ByteBuffer buffer) {
+            idleMemory.add(capacity);
+            idle.offer(buffer);
+        }
+    }
+
+    /**
+     * Buffers kept by one platform thread, up to {@code threadCacheSize}
+     * bytes in total. Only the owning thread touches it.
+     */
+    private final class ThreadCache {
+
+        private final ByteBuffer[][] stacks = new ByteBuffer[SIZE_CLASSES][];
+        private final int[] counts = new int[SIZE_CLASSES];
+        private int size;
+
+        private ThreadCache() {
+            for (int i = 0; i < SIZE_CLASSES; i++) {
+                stacks[i] = new ByteBuffer[threadCacheSize / sizeClasses[i].capacity];
+            }
+        }
+
+        private ByteBuffer poll(final int index) {
+            if (counts[index] == 0) {
+                return null;
+            }
+            final ByteBuffer buffer = stacks[index][--counts[index]];
+            stacks[index][counts[index]] = null;
+            size -= buffer.capacity();
+            return buffer;
+        }
+
+        private boolean offer(final int index, final ByteBuffer buffer) {
+            if (counts[index] == stacks[index].length || size + buffer.capacity() > threadCacheSize) {
+                return false;
+            }
+            stacks[index][counts[index]++] = buffer;
+            size += buffer.capacity();
+            return true;
+        }
+    }
+
+    /**
+     * A direct buffer allocated by the pool, compared by identity because a
+     * buffer's own {@code equals} looks at its content. Registered instances
+     * are enqueued once their buffer has been collected; unregistered ones
+     * only serve as lookup keys.
+     */
+    private static final class Allocation extends WeakReference<ByteBuffer> {
+
+        private final int hash;
+        private final int capacity;
+        private volatile Throwable acquiredAt;
+
+        private Allocation(final ByteBuffer buffer) {
+            this(buffer, null);
+        }
+
+        private Allocation(final ByteBuffer buffer, final ReferenceQueue<ByteBuffer> queue) {
+            super(buffer, queue);
+            this.hash = System.identityHashCode(buffer);
+            this.capacity = buffer.capacity();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Allocation other)) {
+                return false;
+            }
+            final ByteBuffer buffer = get();
+            return buffer != null && buffer == other.get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
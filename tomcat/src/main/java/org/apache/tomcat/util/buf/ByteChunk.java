@@ -0,0 +1,179 @@
+package org.apache.tomcat.util.buf;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A view of a range of bytes inside a buffer. Request parsing points chunks
+ * at the bytes it recognised instead of copying them, and the comparisons
+ * below work on the bytes directly, treating them as US-ASCII. A
+ * {@code String} is only created when {@link #toString()} is called.
+ * <p>
+ * A chunk is only valid until the bytes it points to are overwritten, i.e.
+ * until the request it belongs to has been recycled.
+ */
+public final class ByteChunk {
+
+    private ByteBuffer buffer;
+    private int start;
+    private int end;
+    private String string;
+
+    public void set(final ByteBuffer buffer, final int start, final int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+        this.string = null;
+    }
+
+    public void recycle() {
+        this.buffer = null;
+        this.start = 0;
+        this.end = 0;
+        this.string = null;
+    }
+
+    public boolean isNull() {
+        return buffer == null;
+    }
+
+    public int length() {
+        return end - start;
+    }
+
+    public byte byteAt(final int index) {
+        return buffer.get(start + index);
+    }
+
+    public int indexOf(final byte b, final int fromIndex) {
+        for (int i = start + fromIndex; i < end; i++) {
+            if (buffer.get(i) == b) {
+                return i - start;
+            }
+        }
+        return -1;
+    }
+
+    public boolean equals(final String s) {
+        if (isNull() || s.length() != length()) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (buffer.get(start + i) != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean equalsIgnoreCase(final String s) {
+        if (isNull() || s.length() != length()) {
+            return false;
+        }
+        return regionMatchesIgnoreCase(start, s);
+    }
+
+    public boolean startsWith(final String prefix) {
+        if (isNull() || prefix.length() > length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (buffer.get(start + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether this chunk, read as a comma separated list such as a
+     * {@code Connection} header, contains the given token.
+     */
+    public boolean hasToken(final String token) {
+        if (isNull()) {
+            return false;
+        }
+        int tokenStart = start;
+        while (tokenStart < end) {
+            int tokenEnd = tokenStart;
+            while (tokenEnd < end && buffer.get(tokenEnd) != ',') {
+                tokenEnd++;
+            }
+            int from = tokenStart;
+            int to = tokenEnd;
+            while (from < to && isWhitespace(buffer.get(from))) {
+                from++;
+            }
+            while (to > from && isWhitespace(buffer.get(to - 1))) {
+                to--;
+            }
+            if (to - from == token.length() && regionMatchesIgnoreCase(from, token)) {
+                return true;
+            }
+            tokenStart = tokenEnd + 1;
+        }
+        return false;
+    }
+
+    private boolean regionMatchesIgnoreCase(final int offset, final String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (toLower(buffer.get(offset + i)) != toLower(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parse the chunk as a non-negative decimal number.
+     *
+     * @throws NumberFormatException if the chunk is empty, contains anything
+     *                               but digits or overflows a long
+     */
+    public long parseLong() {
+        if (isNull() || length() == 0) {
+            throw new NumberFormatException("empty number");
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            final byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                throw new NumberFormatException("not a number: " + this);
+            }
+            value = Math.addExact(Math.multiplyExact(value, 10), b - '0');
+        }
+        return value;
+    }
+
+    public byte[] getBytes() {
+        final byte[] bytes = new byte[length()];
+        buffer.get(start, bytes);
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        if (isNull()) {
+            return null;
+        }
+        if (string == null) {
+            if (buffer.hasArray()) {
+                string = new String(buffer.array(), buffer.arrayOffset() + start, length(), StandardCharsets.ISO_8859_1);
+            } else {
+                string = new String(getBytes(), StandardCharsets.ISO_8859_1);
+            }
+        }
+        return string;
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private static int toLower(final int c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c + ('a' - 'A');
+        }
+        return c;
+    }
+}
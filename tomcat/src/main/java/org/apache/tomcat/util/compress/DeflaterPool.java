@@ -0,0 +1,96 @@
+package org.apache.tomcat.util.compress;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip compression with reusable {@link Deflater}s. Each deflater owns
+ * native zlib state that is only freed by {@link Deflater#end()}, so
+ * creating one per response is expensive; idle deflaters are kept here and
+ * reset between uses. At most {@code maxIdle} are kept, extra ones are ended
+ * when returned.
+ */
+public class DeflaterPool {
+
+    public static final int DEFAULT_MAX_IDLE = Runtime.getRuntime().availableProcessors() * 2;
+
+    private static final byte[] GZIP_HEADER = {
+            0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+    private static final int TRAILER_SIZE = 8;
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    private final Queue<Deflater> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final int maxIdle;
+    private final int level;
+
+    public DeflaterPool() {
+        this(DEFAULT_MAX_IDLE, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    public DeflaterPool(final int maxIdle, final int level) {
+        this.maxIdle = maxIdle;
+        this.level = level;
+    }
+
+    /**
+     * @return {@code src} in gzip format (RFC 1952)
+     */
+    public byte[] gzip(final byte[] src) {
+        final Deflater deflater = borrow();
+        try {
+            final var out = new ByteArrayOutputStream(src.length / 4 + GZIP_HEADER.length + TRAILER_SIZE);
+            out.write(GZIP_HEADER, 0, GZIP_HEADER.length);
+            deflater.setInput(src);
+            deflater.finish();
+            final byte[] chunk = new byte[CHUNK_SIZE];
+            while (!deflater.finished()) {
+                final int n = deflater.deflate(chunk);
+                out.write(chunk, 0, n);
+            }
+            final var crc = new CRC32();
+            crc.update(src);
+            writeIntLE(out, (int) crc.getValue());
+            writeIntLE(out, src.length);
+            return out.toByteArray();
+        } finally {
+            release(deflater);
+        }
+    }
+
+    private static void writeIntLE(final ByteArrayOutputStream out, final int value) {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    private Deflater borrow() {
+        final Deflater deflater = idle.poll();
+        if (deflater == null) {
+            // gzip 헤더와 트레일러는 직접 쓰므로 raw deflate 스트림을 만든다.
+            return new Deflater(level, true);
+        }
+        idleCount.decrementAndGet();
+        return deflater;
+    }
+
+    private void release(final Deflater deflater) {
+        deflater.reset();
+        if (idleCount.incrementAndGet() > maxIdle) {
+            idleCount.decrementAndGet();
+            deflater.end();
+            return;
+        }
+        idle.offer(deflater);
+    }
+
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+}
@@ -0,0 +1,38 @@
+package org.apache.tomcat.util.http;
+
+/**
+ * Reads values out of a {@code Cookie} request header (RFC 6265 section
+ * 5.4) without building a map of every cookie.
+ */
+public final class Cookies {
+
+    private Cookies() {
+    }
+
+    /**
+     * @return the value of the first cookie with this name, without
+     * surrounding quotes, or {@code null} if there is none
+     */
+    public static String getValue(final String header, final String name) {
+        if (header == null) {
+            return null;
+        }
+        int start = 0;
+        while (start < header.length()) {
+            int end = header.indexOf(';', start);
+            if (end < 0) {
+                end = header.length();
+            }
+            final int equals = Parameters.indexOf(header, '=', start, end);
+            if (equals >= 0 && header.substring(start, equals).trim().equals(name)) {
+                final String value = header.substring(equals + 1, end).trim();
+                if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                    return value.substring(1, value.length() - 1);
+                }
+                return value;
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+}
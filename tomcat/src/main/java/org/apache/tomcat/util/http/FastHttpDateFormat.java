@@ -0,0 +1,130 @@
+package org.apache.tomcat.util.http;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HTTP-date formatting and parsing (RFC 9110 section 5.6.7) with caches, so
+ * the values seen on almost every request are converted only once.
+ * <p>
+ * The current date, used for the {@code Date} header, is shared by all
+ * threads and reformatted at most once per second. Other formatted and
+ * parsed dates are remembered in small maps that are cleared when they grow
+ * past {@link #CACHE_SIZE}.
+ */
+public final class FastHttpDateFormat {
+
+    static final int CACHE_SIZE = 1000;
+
+    private static final DateTimeFormatter IMF_FIXDATE =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+    // 두 자리 연도는 50년 넘게 미래로 보이면 과거로 해석한다 (RFC 9110 5.6.7).
+    private static final DateTimeFormatter RFC_850 = new DateTimeFormatterBuilder()
+            .appendPattern("EEEE, dd-MMM-")
+            .appendValueReduced(ChronoField.YEAR, 2, 2, LocalDate.now(ZoneOffset.UTC).minusYears(49))
+            .appendPattern(" HH:mm:ss 'GMT'")
+            .toFormatter(Locale.US)
+            .withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter ASCTIME =
+            DateTimeFormatter.ofPattern("EEE MMM ppd HH:mm:ss yyyy", Locale.US).withZone(ZoneOffset.UTC);
+
+    private static final Map<Long, String> formatCache = new ConcurrentHashMap<>();
+    private static final Map<String, Long> parseCache = new ConcurrentHashMap<>();
+
+    private static volatile CurrentDate currentDate = new CurrentDate(-1, null);
+
+    private FastHttpDateFormat() {
+    }
+
+    /**
+     * @return the current time as an HTTP-date
+     */
+    public static String getCurrentDate() {
+        final long second = System.currentTimeMillis() / 1000;
+        final CurrentDate date = currentDate;
+        if (date.second == second) {
+            return date.value;
+        }
+        // 여러 스레드가 동시에 갱신해도 같은 값을 만들 뿐이므로 잠그지 않는다.
+        final String value = IMF_FIXDATE.format(Instant.ofEpochSecond(second));
+        currentDate = new CurrentDate(second, value);
+        return value;
+    }
+
+    /**
+     * @param millis a time in milliseconds since the epoch; the fraction of a
+     *               second is dropped, HTTP-dates only have seconds
+     */
+    public static String formatDate(final long millis) {
+        final long second = Math.floorDiv(millis, 1000L);
+        final String cached = formatCache.get(second);
+        if (cached != null) {
+            return cached;
+        }
+        final String value = IMF_FIXDATE.format(Instant.ofEpochSecond(second));
+        if (formatCache.size() > CACHE_SIZE) {
+            formatCache.clear();
+        }
+        formatCache.put(second, value);
+        return value;
+    }
+
+    /**
+     * Parse an HTTP-date in the preferred IMF-fixdate format or one of the
+     * two obsolete formats recipients must still accept.
+     *
+     * @return milliseconds since the epoch, or {@code -1} if the value is not
+     * an HTTP-date
+     */
+    public static long parseDate(final String value) {
+        if (value == null) {
+            return -1;
+        }
+        final Long cached = parseCache.get(value);
+        if (cached != null) {
+            return cached;
+        }
+        final long millis = parse(value.trim());
+        if (parseCache.size() > CACHE_SIZE) {
+            parseCache.clear();
+        }
+        parseCache.put(value, millis);
+        return millis;
+    }
+
+    private static long parse(final String value) {
+        for (final DateTimeFormatter formatter : new DateTimeFormatter[]{IMF_FIXDATE, RFC_850}) {
+            try {
+                return ZonedDateTime.parse(value, formatter).toInstant().toEpochMilli();
+            } catch (DateTimeParseException ignored) {
+                // 다음 형식으로 시도한다.
+            }
+        }
+        try {
+            return LocalDateTime.parse(value, ASCTIME).toInstant(ZoneOffset.UTC).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    private static final class CurrentDate {
+
+        private final long second;
+        private final String value;
+
+        private CurrentDate(final long second, final String value) {
+            this.second = second;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.apache.tomcat.util.http;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parses {@code application/x-www-form-urlencoded} data, as found in a
+ * query string or a form body, decoded as UTF-8.
+ */
+public final class Parameters {
+
+    private Parameters() {
+    }
+
+    /**
+     * @return the parameters in order; a name given more than once keeps its
+     * first value, and pairs that cannot be decoded are left out
+     */
+    public static Map<String, String> parse(final String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String> parameters = new LinkedHashMap<>();
+        int start = 0;
+        while (start <= encoded.length()) {
+            int end = encoded.indexOf('&', start);
+            if (end < 0) {
+                end = encoded.length();
+            }
+            if (end > start) {
+                final int equals = indexOf(encoded, '=', start, end);
+                final boolean hasValue = equals >= 0;
+                try {
+                    final String name = decode(encoded.substring(start, hasValue ? equals : end));
+                    final String value = hasValue ? decode(encoded.substring(equals + 1, end)) : "";
+                    parameters.putIfAbsent(name, value);
+                } catch (IllegalArgumentException ignored) {
+                    // 잘못된 퍼센트 인코딩은 그 쌍만 버린다.
+                }
+            }
+            start = end + 1;
+        }
+        return parameters;
+    }
+
+    /**
+     * @return the index of {@code c} in {@code [from, to)}, or -1; the search
+     * never looks past the current pair, so parsing stays linear
+     */
+    static int indexOf(final String value, final char c, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (value.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String decode(final String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
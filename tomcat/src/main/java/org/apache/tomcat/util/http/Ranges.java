@@ -0,0 +1,176 @@
+package org.apache.tomcat.util.http;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A parsed {@code Range} header (RFC 9110 section 14.2), resolved against
+ * the length of the representation it applies to.
+ * <p>
+ * Overlapping and adjacent ranges are coalesced and sent in ascending
+ * order, so no byte is sent twice. A header whose ranges add up to more
+ * than the whole representation is ignored, as Apache httpd does, since it
+ * can only be asking for duplicates; the whole representation is sent
+ * instead.
+ */
+public final class Ranges {
+
+    /**
+     * More ranges than this in one request are not worth answering piece by
+     * piece; the header is ignored and the whole representation is sent.
+     */
+    public static final int MAX_RANGES = 64;
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final List<Range> ranges;
+
+    private Ranges(final List<Range> ranges) {
+        this.ranges = ranges;
+    }
+
+    /**
+     * @return the satisfiable ranges, which may be none, or {@code null} if
+     * the header should be ignored because it is malformed, uses a unit other
+     * than bytes, asks for too many ranges or for more bytes than there are
+     */
+    public static Ranges parse(final String value, final long length) {
+        if (value == null || !value.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+            return null;
+        }
+        final String[] specs = value.substring(BYTES_UNIT.length()).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+        final List<Range> ranges = new ArrayList<>(specs.length);
+        long total = 0;
+        for (final String spec : specs) {
+            final String trimmed = spec.trim();
+            final int dash = trimmed.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            final long first = parseNumber(trimmed.substring(0, dash));
+            final long last = parseNumber(trimmed.substring(dash + 1));
+            if (first == -2 || last == -2 || (first == -1 && last == -1) || (first >= 0 && last >= 0 && last < first)) {
+                return null;
+            }
+            final Range range = resolve(first, last, length);
+            if (range != null) {
+                ranges.add(range);
+                total += range.length();
+            }
+        }
+        if (total > length) {
+            return null;
+        }
+        return new Ranges(Collections.unmodifiableList(coalesce(ranges)));
+    }
+
+    /**
+     * @return the ranges sorted by start, with overlapping or adjacent ones
+     * merged
+     */
+    private static List<Range> coalesce(final List<Range> ranges) {
+        if (ranges.size() < 2) {
+            return ranges;
+        }
+        ranges.sort(Comparator.comparingLong(Range::getStart));
+        final List<Range> merged = new ArrayList<>(ranges.size());
+        Range current = ranges.get(0);
+        for (int i = 1; i < ranges.size(); i++) {
+            final Range next = ranges.get(i);
+            if (next.start <= current.end + 1) {
+                current = new Range(current.start, Math.max(current.end, next.end));
+            } else {
+                merged.add(current);
+                current = next;
+            }
+        }
+        merged.add(current);
+        return merged;
+    }
+
+    /**
+     * @return the range within {@code [0, length)}, or {@code null} if it is
+     * not satisfiable
+     */
+    private static Range resolve(final long first, final long last, final long length) {
+        if (first == -1) {
+            // suffix-range: 마지막 last 바이트
+            if (last == 0 || length == 0) {
+                return null;
+            }
+            return new Range(Math.max(0, length - last), length - 1);
+        }
+        if (first >= length) {
+            return null;
+        }
+        return new Range(first, last == -1 ? length - 1 : Math.min(last, length - 1));
+    }
+
+    /**
+     * @return the number, {@code -1} if empty or {@code -2} if malformed
+     */
+    private static long parseNumber(final String s) {
+        final String trimmed = s.trim();
+        if (trimmed.isEmpty()) {
+            return -1;
+        }
+        if (trimmed.length() > 18) {
+            return -2;
+        }
+        long value = 0;
+        for (int i = 0; i < trimmed.length(); i++) {
+            final char c = trimmed.charAt(i);
+            if (c < '0' || c > '9') {
+                return -2;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    public boolean isSatisfiable() {
+        return !ranges.isEmpty();
+    }
+
+    public List<Range> getRanges() {
+        return ranges;
+    }
+
+    /**
+     * An inclusive byte range, as written in {@code Content-Range}.
+     */
+    public static final class Range {
+
+        private final long start;
+        private final long end;
+
+        Range(final long start, final long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        public long length() {
+            return end - start + 1;
+        }
+
+        /**
+         * @return the value of {@code Content-Range} for this range
+         */
+        public String toContentRange(final long completeLength) {
+            return "bytes " + start + "-" + end + "/" + completeLength;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.apache.tomcat.util.net;
+
+import org.apache.catalina.Executor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts connections on a port and hands them to the {@link Executor} for
+ * processing. Subclasses decide how sockets are accepted and how the
+ * connection waits for data between requests.
+ */
+public abstract class AbstractEndpoint {
+
+    private static final Logger log = LoggerFactory.getLogger(AbstractEndpoint.class);
+
+    private static final int INITIAL_ERROR_DELAY = 50;
+    private static final int MAX_ERROR_DELAY = 1600;
+
+    protected final Executor executor;
+
+    protected AbstractEndpoint(final Executor executor) {
+        this.executor = executor;
+    }
+
+    public abstract void start();
+
+    public abstract void stop();
+
+    public abstract int getLocalPort();
+
+    protected void dispatch(final Runnable task, final Closeable connection) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("connection rejected: {}", executor);
+            close(connection);
+        }
+    }
+
+    /**
+     * Like {@link #dispatch}, but refuse at once instead of waiting for a
+     * free worker, for threads that serve other connections too.
+     */
+    protected void dispatchNow(final Runnable task, final Closeable connection) {
+        try {
+            executor.execute(task, 0, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            log.warn("connection rejected: {}", executor);
+            close(connection);
+        }
+    }
+
+    /**
+     * Back off after an accept failure, as Tomcat does, so that a lasting
+     * error such as running out of file descriptors neither spins a core nor
+     * floods the log. The first failure is retried at once; each following
+     * one waits twice as long as the last, up to {@value #MAX_ERROR_DELAY}ms.
+     *
+     * @param currentErrorDelay the value returned for the previous failure,
+     *                          or zero after a successful accept
+     * @return the delay to pass in for the next failure
+     */
+    protected int handleExceptionWithDelay(final int currentErrorDelay) {
+        if (currentErrorDelay > 0) {
+            try {
+                Thread.sleep(currentErrorDelay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (currentErrorDelay == 0) {
+            return INITIAL_ERROR_DELAY;
+        }
+        return Math.min(currentErrorDelay * 2, MAX_ERROR_DELAY);
+    }
+
+    protected void close(final Closeable connection) {
+        try {
+            connection.close();
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+        }
+    }
+}
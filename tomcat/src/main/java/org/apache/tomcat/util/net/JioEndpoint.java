@@ -0,0 +1,87 @@
+package org.apache.tomcat.util.net;
+
+import org.apache.catalina.Executor;
+import org.apache.coyote.http11.Http11Protocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+
+/**
+ * Blocking endpoint: one {@link ServerSocket#accept()} loop, and a worker
+ * thread held by each connection for as long as it stays open.
+ * <p>
+ * Connections are accepted through a blocking {@link ServerSocketChannel} so
+ * that every socket has a channel to transfer files to.
+ */
+public class JioEndpoint extends AbstractEndpoint implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(JioEndpoint.class);
+
+    private final ServerSocketChannel serverSocket;
+    private final Http11Protocol protocol;
+    private volatile boolean stopped;
+
+    public JioEndpoint(final int port, final int acceptCount, final Executor executor, final Http11Protocol protocol) {
+        super(executor);
+        this.protocol = protocol;
+        this.serverSocket = createServerSocket(port, acceptCount);
+        this.stopped = false;
+    }
+
+    private ServerSocketChannel createServerSocket(final int port, final int acceptCount) {
+        try {
+            return ServerSocketChannel.open().bind(new InetSocketAddress(port), acceptCount);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void start() {
+        var thread = new Thread(this, "http-jio-acceptor");
+        thread.setDaemon(true);
+        thread.start();
+        stopped = false;
+    }
+
+    @Override
+    public void run() {
+        // 클라이언트가 연결될때까지 대기한다.
+        int errorDelay = 0;
+        while (!stopped) {
+            try {
+                process(serverSocket.accept().socket());
+                errorDelay = 0;
+            } catch (IOException e) {
+                if (!stopped) {
+                    log.error(e.getMessage(), e);
+                    errorDelay = handleExceptionWithDelay(errorDelay);
+                }
+            }
+        }
+    }
+
+    private void process(final Socket connection) {
+        if (connection == null) {
+            return;
+        }
+        dispatch(protocol.createProcessor(connection), connection);
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        close(serverSocket);
+    }
+
+    @Override
+    public int getLocalPort() {
+        return serverSocket.socket().getLocalPort();
+    }
+}
@@ -0,0 +1,57 @@
+package org.apache.tomcat.util.net;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+public class JioSocketWrapper implements SocketWrapper {
+
+    private final Socket socket;
+    private final OutputStream outputStream;
+    private WritableByteChannel channel;
+
+    public JioSocketWrapper(final Socket socket, final OutputStream outputStream) {
+        this.socket = socket;
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public void write(final ByteBuffer src) throws IOException {
+        if (src.hasArray()) {
+            outputStream.write(src.array(), src.arrayOffset() + src.position(), src.remaining());
+            src.position(src.limit());
+            return;
+        }
+        // direct 나 mapped 버퍼는 배열이 없으므로 채널로 내보낸다.
+        final WritableByteChannel target = channel();
+        while (src.hasRemaining()) {
+            target.write(src);
+        }
+    }
+
+    @Override
+    public void sendFile(final FileChannel file, final long position, final long count) throws IOException {
+        final WritableByteChannel target = channel();
+        long sent = 0;
+        while (sent < count) {
+            final long written = file.transferTo(position + sent, count - sent, target);
+            if (written <= 0 && position + sent >= file.size()) {
+                throw new EOFException("file shorter than " + (position + count) + " bytes");
+            }
+            sent += written;
+        }
+    }
+
+    private WritableByteChannel channel() {
+        // 채널로 accept 한 소켓이면 커널이 직접 복사하고, 그렇지 않으면 스트림으로 흘려보낸다.
+        if (channel == null) {
+            channel = socket.getChannel() != null ? socket.getChannel() : Channels.newChannel(outputStream);
+        }
+        return channel;
+    }
+}
@@ -0,0 +1,110 @@
+package org.apache.tomcat.util.net;
+
+import org.apache.coyote.NioProcessor;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A non-blocking {@link SocketChannel} together with the processor that
+ * keeps the state of its connection between readiness events.
+ * <p>
+ * Reads never block. Writes, including file transfers, block the calling
+ * worker until everything has been written, waiting for writability on a
+ * temporary selector taken from a shared pool, so the poller's selector is
+ * never touched by workers.
+ */
+public class NioChannel implements SocketWrapper, Closeable {
+
+    private static final long WRITE_TIMEOUT_MILLIS = 20_000;
+    private static final Queue<Selector> BLOCKING_SELECTORS = new ConcurrentLinkedQueue<>();
+
+    private final SocketChannel socketChannel;
+    private final NioProcessor processor;
+    private volatile long lastAccess;
+
+    public NioChannel(final SocketChannel socketChannel, final NioProcessor processor) {
+        this.socketChannel = socketChannel;
+        this.processor = processor;
+    }
+
+    public int read(final ByteBuffer dst) throws IOException {
+        return socketChannel.read(dst);
+    }
+
+    @Override
+    public void write(final ByteBuffer src) throws IOException {
+        while (src.hasRemaining()) {
+            if (socketChannel.write(src) == 0) {
+                awaitWritable();
+            }
+        }
+    }
+
+    @Override
+    public void sendFile(final FileChannel file, final long position, final long count) throws IOException {
+        long sent = 0;
+        while (sent < count) {
+            final long written = file.transferTo(position + sent, count - sent, socketChannel);
+            if (written == 0) {
+                if (position + sent >= file.size()) {
+                    throw new EOFException("file shorter than " + (position + count) + " bytes");
+                }
+                awaitWritable();
+            }
+            sent += written;
+        }
+    }
+
+    private void awaitWritable() throws IOException {
+        final var pooled = BLOCKING_SELECTORS.poll();
+        final var selector = pooled != null ? pooled : Selector.open();
+        SelectionKey key = null;
+        try {
+            key = socketChannel.register(selector, SelectionKey.OP_WRITE);
+            if (selector.select(WRITE_TIMEOUT_MILLIS) == 0) {
+                throw new SocketTimeoutException("write timed out after " + WRITE_TIMEOUT_MILLIS + "ms");
+            }
+        } finally {
+            if (key != null) {
+                key.cancel();
+                selector.selectNow();
+            }
+            BLOCKING_SELECTORS.offer(selector);
+        }
+    }
+
+    public void access() {
+        this.lastAccess = System.currentTimeMillis();
+    }
+
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    public SocketChannel getSocketChannel() {
+        return socketChannel;
+    }
+
+    public NioProcessor getProcessor() {
+        return processor;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            socketChannel.close();
+        } finally {
+            processor.release();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package org.apache.tomcat.util.net;
+
+import org.apache.catalina.Executor;
+import org.apache.coyote.SocketState;
+import org.apache.coyote.http11.Http11Protocol;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking endpoint. An acceptor thread accepts connections and hands
+ * them to poller threads, each of which waits for read readiness on its own
+ * {@link Selector}. A worker thread is only taken when a connection has data
+ * to read, so an idle connection costs a selection key instead of a thread.
+ * Connections that stay idle longer than the keep-alive timeout are closed by
+ * their poller.
+ */
+public class NioEndpoint extends AbstractEndpoint implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(NioEndpoint.class);
+
+    private static final long SELECT_TIMEOUT_MILLIS = 1000;
+    private static final int DEFAULT_POLLER_COUNT = Math.min(2, Runtime.getRuntime().availableProcessors());
+
+    private final ServerSocketChannel serverChannel;
+    private final Http11Protocol protocol;
+    private final Poller[] pollers;
+    private final AtomicInteger pollerRotater = new AtomicInteger();
+    private volatile boolean stopped;
+
+    public NioEndpoint(final int port, final int acceptCount, final Executor executor, final Http11Protocol protocol) {
+        super(executor);
+        this.protocol = protocol;
+        this.serverChannel = createServerChannel(port, acceptCount);
+        this.pollers = new Poller[DEFAULT_POLLER_COUNT];
+        for (int i = 0; i < pollers.length; i++) {
+            pollers[i] = new Poller();
+        }
+        this.stopped = false;
+    }
+
+    private ServerSocketChannel createServerChannel(final int port, final int acceptCount) {
+        try {
+            final var channel = ServerSocketChannel.open();
+            channel.bind(new InetSocketAddress(port), acceptCount);
+            return channel;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void start() {
+        stopped = false;
+        for (int i = 0; i < pollers.length; i++) {
+            startDaemon(pollers[i], "http-nio-poller-" + i);
+        }
+        startDaemon(this, "http-nio-acceptor");
+    }
+
+    private void startDaemon(final Runnable runnable, final String name) {
+        final var thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        int errorDelay = 0;
+        while (!stopped) {
+            final SocketChannel socketChannel;
+            try {
+                socketChannel = serverChannel.accept();
+                errorDelay = 0;
+            } catch (IOException e) {
+                if (!stopped) {
+                    log.error(e.getMessage(), e);
+                    errorDelay = handleExceptionWithDelay(errorDelay);
+                }
+                continue;
+            }
+            register(socketChannel);
+        }
+    }
+
+    private void register(final SocketChannel socketChannel) {
+        try {
+            socketChannel.configureBlocking(false);
+            socketChannel.socket().setTcpNoDelay(true);
+            nextPoller().register(new NioChannel(socketChannel, protocol.createNioProcessor()));
+        } catch (IOException e) {
+            // 이 연결만의 문제이므로 닫고 바로 다음 연결을 받는다.
+            log.debug("cannot set up connection: {}", e.getMessage());
+            close(socketChannel);
+        }
+    }
+
+    private Poller nextPoller() {
+        return pollers[Math.abs(pollerRotater.getAndIncrement() % pollers.length)];
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        close(serverChannel);
+        for (final Poller poller : pollers) {
+            poller.destroy();
+        }
+    }
+
+    @Override
+    public int getLocalPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    private class Poller implements Runnable {
+
+        private final Selector selector;
+        private final Queue<NioChannel> registrations = new ConcurrentLinkedQueue<>();
+        private long nextTimeoutCheck = 0;
+        private volatile boolean closed;
+
+        private Poller() {
+            try {
+                this.selector = Selector.open();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Ask this poller to wait for the next read event on the channel.
+         * Called for new connections and for connections whose request has
+         * been handled and that are kept open for the next one.
+         */
+        void register(final NioChannel channel) {
+            channel.access();
+            registrations.offer(channel);
+            selector.wakeup();
+        }
+
+        void destroy() {
+            closed = true;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (!closed) {
+                try {
+                    registerPending();
+                    if (selector.select(SELECT_TIMEOUT_MILLIS) > 0) {
+                        processSelectedKeys();
+                    }
+                    closeIdleConnections();
+                } catch (IOException e) {
+                    log.error(e.getMessage(), e);
+                }
+            }
+            closeAll();
+        }
+
+        private void registerPending() {
+            NioChannel channel;
+            while ((channel = registrations.poll()) != null) {
+                try {
+                    final SelectionKey key = channel.getSocketChannel().keyFor(selector);
+                    if (key == null) {
+                        channel.getSocketChannel().register(selector, SelectionKey.OP_READ, channel);
+                    } else {
+                        key.interestOps(SelectionKey.OP_READ);
+                    }
+                } catch (ClosedChannelException | RuntimeException e) {
+                    close(channel);
+                }
+            }
+        }
+
+        private void processSelectedKeys() {
+            final var iterator = selector.selectedKeys().iterator();
+            while (iterator.hasNext()) {
+                final SelectionKey key = iterator.next();
+                iterator.remove();
+                final var channel = (NioChannel) key.attachment();
+                if (!key.isValid()) {
+                    close(channel);
+                    continue;
+                }
+                // 처리 중에는 같은 채널이 다시 선택되지 않도록 관심 이벤트를 비워둔다.
+                key.interestOps(0);
+                // 포화 상태에서 기다리면 이 셀렉터의 모든 연결이 멈추므로 바로 거절한다.
+                dispatchNow(new SocketProcessor(channel, this), channel);
+            }
+        }
+
+        private void closeIdleConnections() {
+            final long now = System.currentTimeMillis();
+            if (now < nextTimeoutCheck) {
+                return;
+            }
+            nextTimeoutCheck = now + SELECT_TIMEOUT_MILLIS;
+            final long timeout = protocol.getKeepAliveTimeout().toMillis();
+            for (final SelectionKey key : selector.keys()) {
+                final var channel = (NioChannel) key.attachment();
+                // 워커가 처리 중인 연결(관심 이벤트가 비어있는 연결)은 건드리지 않는다.
+                if (key.isValid() && key.interestOps() == SelectionKey.OP_READ
+                        && now - channel.getLastAccess() > timeout) {
+                    close(channel);
+                }
+            }
+        }
+
+        private void closeAll() {
+            for (final SelectionKey key : selector.keys()) {
+                close((NioChannel) key.attachment());
+            }
+            close(selector);
+        }
+    }
+
+    private class SocketProcessor implements Runnable {
+
+        private final NioChannel channel;
+        private final Poller poller;
+
+        private SocketProcessor(final NioChannel channel, final Poller poller) {
+            this.channel = channel;
+            this.poller = poller;
+        }
+
+        @Override
+        public void run() {
+            try {
+                final SocketState state = channel.getProcessor().process(channel);
+                if (state == SocketState.OPEN) {
+                    poller.register(channel);
+                    return;
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error(e.getMessage(), e);
+            }
+            close(channel);
+        }
+    }
+}
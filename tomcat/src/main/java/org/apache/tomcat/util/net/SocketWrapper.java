@@ -0,0 +1,26 @@
+package org.apache.tomcat.util.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The write side of a connection, independent of whether the endpoint uses
+ * blocking streams or non-blocking channels.
+ */
+public interface SocketWrapper {
+
+    /**
+     * Write all remaining bytes of the buffer, blocking until done.
+     */
+    void write(ByteBuffer src) throws IOException;
+
+    /**
+     * Send {@code count} bytes of the file starting at {@code position},
+     * blocking until done. Implementations use
+     * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}
+     * so the kernel can copy the file to the socket without the bytes
+     * passing through the Java heap.
+     */
+    void sendFile(FileChannel file, long position, long count) throws IOException;
+}
@@ -0,0 +1,83 @@
+package com.techcourse.controller;
+
+import com.techcourse.db.InMemoryUserRepository;
+import com.techcourse.model.User;
+import com.techcourse.security.PasswordEncoder;
+import org.apache.catalina.connector.CoyoteAdapter;
+import org.apache.catalina.session.StandardManager;
+import org.apache.coyote.http11.Http11Processor;
+import org.apache.coyote.http11.Http11Protocol;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import support.StubSocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginControllerTest {
+
+    private final StandardManager manager = new StandardManager();
+
+    @BeforeEach
+    void setUp() {
+        PasswordEncoder.setInstance(new PasswordEncoder(1_000, 1, 8));
+        if (InMemoryUserRepository.findByAccount("login-test").isEmpty()) {
+            InMemoryUserRepository.save(new User("login-test", PasswordEncoder.getInstance().encode("secret"),
+                    "login-test@woowahan.com"));
+        }
+    }
+
+    @Test
+    void logInAndSetTheSessionCookie() {
+        final String output = send("GET /login?account=login-test&password=secret HTTP/1.1 ");
+
+        assertThat(output).startsWith("HTTP/1.1 302 Found \r\n");
+        assertThat(output).contains("Location: /index.html \r\n");
+        assertThat(output).contains("Set-Cookie: JSESSIONID=");
+        assertThat(manager.getActiveSessions()).isEqualTo(1);
+    }
+
+    @Test
+    void sendWrongPasswordsToThe401Page() {
+        final String output = send("GET /login?account=login-test&password=wrong HTTP/1.1 ");
+
+        assertThat(output).contains("Location: /401.html \r\n");
+        assertThat(output).doesNotContain("Set-Cookie");
+    }
+
+    @Test
+    void showTheLoginPageWithoutCredentials() {
+        assertThat(send("GET /login HTTP/1.1 ")).contains("Location: /login.html \r\n");
+    }
+
+    @Test
+    void skipTheLoginPageForALoggedInSession() {
+        final String login = send("GET /login?account=login-test&password=secret HTTP/1.1 ");
+        final int start = login.indexOf("JSESSIONID=") + "JSESSIONID=".length();
+        final String sessionId = login.substring(start, login.indexOf(';', start));
+
+        final String output = send("GET /login HTTP/1.1 ", "Cookie: theme=dark; JSESSIONID=" + sessionId + " ");
+
+        assertThat(output).contains("Location: /index.html \r\n");
+    }
+
+    @Test
+    void rejectOtherMethods() {
+        final String output = send("POST /login HTTP/1.1 ", "Content-Length: 0 ");
+
+        assertThat(output).startsWith("HTTP/1.1 405 Method Not Allowed \r\n");
+        assertThat(output).contains("Allow: GET, HEAD \r\n");
+    }
+
+    private String send(final String requestLine, final String... headers) {
+        final var adapter = new CoyoteAdapter();
+        adapter.addController("GET", "/login", new LoginController(manager));
+        final var request = new StringBuilder(requestLine).append("\r\nHost: localhost:8080 \r\n");
+        for (final String header : headers) {
+            request.append(header).append("\r\n");
+        }
+        request.append("Connection: close \r\n\r\n");
+        final var socket = new StubSocket(request.toString());
+        new Http11Processor(socket, new Http11Protocol(adapter)).process(socket);
+        return socket.output();
+    }
+}
@@ -0,0 +1,91 @@
+package com.techcourse.controller;
+
+import com.techcourse.db.InMemoryUserRepository;
+import com.techcourse.model.User;
+import com.techcourse.security.PasswordEncoder;
+import org.apache.catalina.connector.CoyoteAdapter;
+import org.apache.coyote.http11.Http11Processor;
+import org.apache.coyote.http11.Http11Protocol;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import support.StubSocket;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegisterControllerTest {
+
+    @BeforeEach
+    void setUp() {
+        PasswordEncoder.setInstance(new PasswordEncoder(1_000, 1, 8));
+    }
+
+    @Test
+    void registerAUserWithAHashedPassword() {
+        final String output = register("account=register-test&password=p%40ss&email=register%40woowahan.com");
+
+        assertThat(output).startsWith("HTTP/1.1 302 Found \r\n");
+        assertThat(output).contains("Location: /index.html \r\n");
+        final User user = InMemoryUserRepository.findByAccount("register-test").get();
+        assertThat(user.getId()).isNotNull();
+        assertThat(user.getEmail()).isEqualTo("register@woowahan.com");
+        assertThat(user.getPassword()).startsWith("pbkdf2-sha256$");
+        assertThat(user.checkPassword("p@ss")).isTrue();
+    }
+
+    @Test
+    void sendTakenAccountsAndEmailsBackToTheForm() {
+        register("account=taken&password=password&email=taken%40woowahan.com");
+
+        assertThat(register("account=taken&password=password&email=other%40woowahan.com"))
+                .contains("Location: /register.html \r\n");
+        assertThat(register("account=other&password=password&email=taken%40woowahan.com"))
+                .contains("Location: /register.html \r\n");
+        assertThat(InMemoryUserRepository.findByAccount("other")).isEmpty();
+    }
+
+    @Test
+    void concurrentRegistrationsOfOneAccountKeepTheFirstPassword() throws InterruptedException {
+        final List<String> outputs = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final String form = "account=race&password=password" + i + "&email=race" + i + "%40woowahan.com";
+            threads.add(new Thread(() -> outputs.add(register(form))));
+        }
+        threads.forEach(Thread::start);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        final long registered = outputs.stream().filter(output -> output.contains("Location: /index.html \r\n")).count();
+        assertThat(registered).isEqualTo(1L);
+        final User user = InMemoryUserRepository.findByAccount("race").get();
+        final String password = "password" + user.getEmail().substring("race".length(), "race".length() + 1);
+        assertThat(user.checkPassword(password)).isTrue();
+    }
+
+    @Test
+    void sendIncompleteFormsBackToTheForm() {
+        assertThat(register("account=incomplete&password=")).contains("Location: /register.html \r\n");
+    }
+
+    private static String register(final String form) {
+        final var adapter = new CoyoteAdapter();
+        adapter.addController("POST", "/register", new RegisterController());
+        final String request = String.join("\r\n",
+                "POST /register HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Content-Type: application/x-www-form-urlencoded ",
+                "Content-Length: " + form.getBytes(StandardCharsets.UTF_8).length + " ",
+                "Connection: close ",
+                "",
+                form);
+        final var socket = new StubSocket(request);
+        new Http11Processor(socket, new Http11Protocol(adapter)).process(socket);
+        return socket.output();
+    }
+}
@@ -0,0 +1,207 @@
+package com.techcourse.db;
+
+import com.techcourse.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryUserRepositoryTest {
+
+    private final Path directory = createDirectory();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        InMemoryUserRepository.close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void assignIdsToNewUsers() {
+        InMemoryUserRepository.open(directory);
+
+        final User first = InMemoryUserRepository.save(new User("first", "password", "first@woowahan.com"));
+        final User second = InMemoryUserRepository.save(new User("second", "password", "second@woowahan.com"));
+
+        assertThat(first.getId()).isEqualTo(2L);
+        assertThat(second.getId()).isEqualTo(3L);
+        assertThat(InMemoryUserRepository.findByAccount("second").get().getId()).isEqualTo(3L);
+    }
+
+    @Test
+    void recoverUsersSavedBeforeRestart() {
+        InMemoryUserRepository.open(directory);
+        InMemoryUserRepository.save(new User("first", "password", "first@woowahan.com"));
+        InMemoryUserRepository.close();
+        InMemoryUserRepository.save(new User("notLogged", "password", "none@woowahan.com"));
+
+        InMemoryUserRepository.open(directory);
+
+        assertThat(InMemoryUserRepository.findByAccount("gugu")).isPresent();
+        assertThat(InMemoryUserRepository.findByAccount("first").get().getEmail()).isEqualTo("first@woowahan.com");
+        assertThat(InMemoryUserRepository.findByAccount("notLogged")).isEmpty();
+        assertThat(InMemoryUserRepository.save(new User("next", "password", "next@woowahan.com")).getId())
+                .isEqualTo(3L);
+    }
+
+    @Test
+    void concurrentSavesAreAllRecovered() throws InterruptedException {
+        InMemoryUserRepository.open(directory);
+        final Set<Long> ids = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 400; i++) {
+            final String account = "user" + i;
+            executor.execute(() -> ids.add(
+                    InMemoryUserRepository.save(new User(account, "password", account + "@woowahan.com")).getId()));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(ids).hasSize(400);
+        InMemoryUserRepository.close();
+
+        InMemoryUserRepository.open(directory);
+
+        for (int i = 0; i < 400; i++) {
+            assertThat(InMemoryUserRepository.findByAccount("user" + i)).isPresent();
+        }
+    }
+
+    @Test
+    void findByIdAndEmail() {
+        InMemoryUserRepository.open(directory);
+        final User saved = InMemoryUserRepository.save(new User("first", "password", "first@woowahan.com"));
+
+        assertThat(InMemoryUserRepository.findById(saved.getId()).get().getAccount()).isEqualTo("first");
+        assertThat(InMemoryUserRepository.findByEmail("first@woowahan.com").get().getId()).isEqualTo(saved.getId());
+        assertThat(InMemoryUserRepository.findByEmail("hkkang@woowahan.com").get().getAccount()).isEqualTo("gugu");
+        assertThat(InMemoryUserRepository.findById(100L)).isEmpty();
+    }
+
+    @Test
+    void rejectUsersWithMissingFieldsWithoutIndexingThem() {
+        InMemoryUserRepository.open(directory);
+
+        assertThatThrownBy(() -> InMemoryUserRepository.save(new User("nomail", "password", null)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> InMemoryUserRepository.saveAll(List.of(
+                new User("valid", "password", "valid@woowahan.com"), new User("nopassword", null, "x@woowahan.com"))))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(InMemoryUserRepository.findByAccount("nomail")).isEmpty();
+        assertThat(InMemoryUserRepository.findByAccount("valid")).isEmpty();
+        assertThat(InMemoryUserRepository.findByEmail("x@woowahan.com")).isEmpty();
+        assertThat(InMemoryUserRepository.findById(2L)).isEmpty();
+    }
+
+    @Test
+    void concurrentRegistrationsOfOneAccountOrEmailHaveOneWinner() throws InterruptedException {
+        InMemoryUserRepository.open(directory);
+        final Set<String> accountWinners = ConcurrentHashMap.newKeySet();
+        final Set<String> emailWinners = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 100; i++) {
+            final String suffix = String.valueOf(i);
+            executor.execute(() -> {
+                InMemoryUserRepository.register(new User("taken", "password" + suffix, suffix + "@woowahan.com"))
+                        .ifPresent(user -> accountWinners.add(user.getPassword()));
+                InMemoryUserRepository.register(new User("account" + suffix, "password", "taken@woowahan.com"))
+                        .ifPresent(user -> emailWinners.add(user.getAccount()));
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(accountWinners).hasSize(1);
+        final User taken = InMemoryUserRepository.findByAccount("taken").get();
+        assertThat(accountWinners).contains(taken.getPassword());
+        assertThat(InMemoryUserRepository.findByEmail(taken.getEmail()).get()).isSameAs(taken);
+        assertThat(emailWinners).hasSize(1);
+        final User emailOwner = InMemoryUserRepository.findByEmail("taken@woowahan.com").get();
+        assertThat(emailWinners).contains(emailOwner.getAccount());
+        int registered = 0;
+        for (int i = 0; i < 100; i++) {
+            if (InMemoryUserRepository.findByAccount("account" + i).isPresent()) {
+                registered++;
+            }
+        }
+        assertThat(registered).isEqualTo(1);
+        assertThat(InMemoryUserRepository.register(new User("gugu", "password", "new@woowahan.com"))).isEmpty();
+    }
+
+    @Test
+    void changingTheEmailMovesTheIndexEntry() {
+        InMemoryUserRepository.open(directory);
+        final User saved = InMemoryUserRepository.save(new User("first", "password", "old@woowahan.com"));
+
+        InMemoryUserRepository.save(new User(saved.getId(), "first", "password", "new@woowahan.com"));
+
+        assertThat(InMemoryUserRepository.findByEmail("old@woowahan.com")).isEmpty();
+        assertThat(InMemoryUserRepository.findByEmail("new@woowahan.com").get().getAccount()).isEqualTo("first");
+    }
+
+    @Test
+    void concurrentSavesOfOneAccountLeaveOneEmailIndexed() throws InterruptedException {
+        InMemoryUserRepository.open(directory);
+        final User saved = InMemoryUserRepository.save(new User("first", "password", "first@woowahan.com"));
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 200; i++) {
+            final String email = "first" + i + "@woowahan.com";
+            executor.execute(() -> InMemoryUserRepository.save(new User(saved.getId(), "first", "password", email)));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        final String email = InMemoryUserRepository.findByAccount("first").get().getEmail();
+        int indexed = 0;
+        for (int i = 0; i < 200; i++) {
+            if (InMemoryUserRepository.findByEmail("first" + i + "@woowahan.com").isPresent()) {
+                indexed++;
+            }
+        }
+        assertThat(indexed).isEqualTo(1);
+        assertThat(InMemoryUserRepository.findByEmail(email)).isPresent();
+        assertThat(InMemoryUserRepository.findById(saved.getId()).get().getEmail()).isEqualTo(email);
+    }
+
+    @Test
+    void saveAllNumbersUsersInOrderAndFindThemInOneCall() {
+        InMemoryUserRepository.open(directory);
+
+        final List<User> saved = InMemoryUserRepository.saveAll(List.of(
+                new User("first", "password", "first@woowahan.com"),
+                new User(10L, "tenth", "password", "tenth@woowahan.com"),
+                new User("second", "password", "second@woowahan.com")));
+
+        assertThat(saved.get(0).getId()).isEqualTo(2L);
+        assertThat(saved.get(2).getId()).isEqualTo(3L);
+        assertThat(InMemoryUserRepository.save(new User("next", "password", "next@woowahan.com")).getId())
+                .isEqualTo(11L);
+        final List<User> found = InMemoryUserRepository.findAllByAccounts(List.of("second", "unknown", "first"));
+        assertThat(found).hasSize(2);
+        assertThat(found.get(0).getId()).isEqualTo(3L);
+        assertThat(found.get(1).getId()).isEqualTo(2L);
+    }
+
+    private static Path createDirectory() {
+        try {
+            return Files.createTempDirectory("users");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.techcourse.db;
+
+import com.techcourse.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserJournalTest {
+
+    private final Path directory = createDirectory();
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void replayTheLogInOrder() throws IOException {
+        final UserJournal journal = open(Long.MAX_VALUE, users);
+        save(journal, new User(1L, "gugu", "password", "old@woowahan.com"));
+        save(journal, new User(1L, "gugu", "password", "new@woowahan.com"));
+        crash(journal);
+
+        final List<User> recovered = recover();
+
+        assertThat(recovered).hasSize(2);
+        assertThat(recovered.get(1).getEmail()).isEqualTo("new@woowahan.com");
+    }
+
+    @Test
+    void cutOffATornRecordAtTheEnd() throws IOException {
+        final UserJournal journal = open(Long.MAX_VALUE, users);
+        save(journal, new User(1L, "gugu", "password", "hkkang@woowahan.com"));
+        crash(journal);
+        final Path logFile = directory.resolve(UserJournal.LOG_FILE);
+        final long size = Files.size(logFile);
+        Files.write(logFile, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        assertThat(recover()).hasSize(1);
+        assertThat(Files.size(logFile)).isEqualTo(size);
+    }
+
+    @Test
+    void snapshotAndTruncateTheLogPastTheThreshold() throws IOException {
+        final UserJournal journal = open(256, users);
+        for (long id = 1; id <= 20; id++) {
+            save(journal, new User(id, "user" + id, "password", "user" + id + "@woowahan.com"));
+        }
+        crash(journal);
+
+        assertThat(Files.size(directory.resolve(UserJournal.LOG_FILE))).isLessThan(256L);
+        assertThat(Files.exists(directory.resolve(UserJournal.SNAPSHOT_FILE))).isTrue();
+        final List<User> recovered = recover();
+        assertThat(recovered).hasSize(20);
+        assertThat(recovered.stream().map(User::getAccount).collect(Collectors.toSet())).hasSize(20);
+    }
+
+    @Test
+    void closeLeavesOnlyASnapshot() throws IOException {
+        final UserJournal journal = open(Long.MAX_VALUE, users);
+        save(journal, new User(1L, "gugu", "password", "hkkang@woowahan.com"));
+
+        journal.close();
+
+        assertThat(Files.size(directory.resolve(UserJournal.LOG_FILE))).isEqualTo(0L);
+        assertThat(recover()).hasSize(1);
+    }
+
+    private void save(final UserJournal journal, final User user) {
+        users.put(user.getAccount(), user);
+        journal.append(user).join();
+    }
+
+    private UserJournal open(final long snapshotThreshold, final Map<String, User> recovered) throws IOException {
+        return UserJournal.open(directory, snapshotThreshold, user -> recovered.put(user.getAccount(), user),
+                recovered::values);
+    }
+
+    private List<User> recover() throws IOException {
+        final List<User> recovered = new ArrayList<>();
+        final UserJournal journal = UserJournal.open(directory, Long.MAX_VALUE, recovered::add, List::of);
+        crash(journal);
+        return recovered;
+    }
+
+    private static void crash(final UserJournal journal) throws IOException {
+        journal.stop();
+    }
+
+    private static Path createDirectory() {
+        try {
+            return Files.createTempDirectory("journal");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
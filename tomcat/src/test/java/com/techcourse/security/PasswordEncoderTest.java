@@ -0,0 +1,76 @@
+package com.techcourse.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordEncoderTest {
+
+    private final PasswordEncoder encoder = new PasswordEncoder(1_000, 1, 1);
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    @Test
+    void matchOnlyTheEncodedPassword() {
+        final String encoded = encoder.encode("password");
+
+        assertThat(encoded).startsWith("pbkdf2-sha256$1000$");
+        assertThat(encoder.matches("password", encoded)).isTrue();
+        assertThat(encoder.matches("Password", encoded)).isFalse();
+        assertThat(encoder.matches(null, encoded)).isFalse();
+    }
+
+    @Test
+    void saltEveryHash() {
+        assertThat(encoder.encode("password")).isNotEqualTo(encoder.encode("password"));
+    }
+
+    @Test
+    void checkHashesMadeWithAnotherWorkFactor() {
+        final String cheap;
+        try (final var older = new PasswordEncoder(500, 1, 1)) {
+            cheap = older.encode("password");
+        }
+
+        assertThat(encoder.matches("password", cheap)).isTrue();
+        assertThat(encoder.needsRehash(cheap)).isTrue();
+        assertThat(encoder.needsRehash(encoder.encode("password"))).isFalse();
+    }
+
+    @Test
+    void comparePasswordsStoredBeforeHashingAsTheyAre() {
+        assertThat(encoder.matches("password", "password")).isTrue();
+        assertThat(encoder.matches("password", "other")).isFalse();
+        assertThat(encoder.needsRehash("password")).isTrue();
+    }
+
+    @Test
+    void rejectMalformedHashes() {
+        assertThat(encoder.matches("password", "pbkdf2-sha256$x$y")).isFalse();
+        assertThat(encoder.matches("password", "pbkdf2-sha256$1000$!!$!!")).isFalse();
+    }
+
+    @Test
+    void shedLoadOnceTheQueueIsFull() throws InterruptedException {
+        try (final var slow = new PasswordEncoder(300_000, 1, 1)) {
+            final var running = new Thread(() -> slow.encode("first"));
+            final var queued = new Thread(() -> slow.encode("second"));
+            running.start();
+            queued.start();
+            while (slow.getActiveCount() + slow.getQueueSize() < 2) {
+                Thread.sleep(1);
+            }
+
+            assertThatThrownBy(() -> slow.encode("third")).isInstanceOf(RejectedExecutionException.class);
+            running.join();
+            queued.join();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.apache.catalina.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StandardThreadExecutorTest {
+
+    @Test
+    void growToMaxThreadsBeforeQueueing() throws InterruptedException {
+        // given
+        final var executor = new StandardThreadExecutor("test", 2, 0, 1, Duration.ofSeconds(1));
+        final var release = new CountDownLatch(1);
+        final var started = new CountDownLatch(2);
+
+        // when
+        executor.execute(() -> await(started, release));
+        executor.execute(() -> await(started, release));
+        started.await(1, TimeUnit.SECONDS);
+        executor.execute(() -> {});
+
+        // then
+        assertThat(executor.getPoolSize()).isEqualTo(2);
+        assertThat(executor.getActiveCount()).isEqualTo(2);
+        assertThat(executor.getQueueSize()).isEqualTo(1);
+
+        release.countDown();
+        executor.stop();
+    }
+
+    @Test
+    void rejectWhenSaturated() throws InterruptedException {
+        // given
+        final var executor = new StandardThreadExecutor("test", 1, 1, 1, Duration.ofSeconds(1));
+        final var release = new CountDownLatch(1);
+        final var started = new CountDownLatch(1);
+        executor.execute(() -> await(started, release));
+        started.await(1, TimeUnit.SECONDS);
+        executor.execute(() -> {});
+
+        // when & then
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+        assertThat(executor.getRejectedCount()).isEqualTo(1L);
+
+        release.countDown();
+        executor.stop();
+    }
+
+    private void await(final CountDownLatch started, final CountDownLatch release) {
+        started.countDown();
+        try {
+            release.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.apache.catalina.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class VirtualThreadExecutorTest {
+
+    @Test
+    void capTheTasksRunningAtOnce() throws InterruptedException {
+        // given
+        final var executor = new VirtualThreadExecutor("test", 2, Duration.ofMillis(50));
+        final var release = new CountDownLatch(1);
+        final var started = new CountDownLatch(2);
+        executor.execute(() -> await(started, release));
+        executor.execute(() -> await(started, release));
+        started.await(1, TimeUnit.SECONDS);
+
+        // when & then
+        assertThat(executor.getActiveCount()).isEqualTo(2);
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+        assertThat(executor.getRejectedCount()).isEqualTo(1L);
+
+        release.countDown();
+        executor.stop();
+    }
+
+    @Test
+    void waitForASlotUpToTheTimeout() throws InterruptedException {
+        // given
+        final var executor = new VirtualThreadExecutor("test", 1, Duration.ofSeconds(5));
+        final var release = new CountDownLatch(1);
+        final var started = new CountDownLatch(1);
+        final var ran = new CountDownLatch(1);
+        executor.execute(() -> await(started, release));
+        started.await(1, TimeUnit.SECONDS);
+
+        // when
+        final var waiter = new Thread(() -> executor.execute(ran::countDown));
+        waiter.start();
+        Thread.sleep(100);
+        release.countDown();
+
+        // then
+        assertThat(ran.await(1, TimeUnit.SECONDS)).isTrue();
+        waiter.join();
+        assertThat(executor.getRejectedCount()).isEqualTo(0L);
+        executor.stop();
+    }
+
+    @Test
+    void rejectAtOnceWithoutATimeout() throws InterruptedException {
+        // given
+        final var executor = new VirtualThreadExecutor("test", 1, Duration.ofSeconds(5));
+        final var release = new CountDownLatch(1);
+        final var started = new CountDownLatch(1);
+        executor.execute(() -> await(started, release));
+        started.await(1, TimeUnit.SECONDS);
+
+        // when
+        final long start = System.nanoTime();
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}, 0, TimeUnit.NANOSECONDS));
+        final long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // then
+        assertThat(elapsedMillis).isLessThan(1_000L);
+        assertThat(executor.getRejectedCount()).isEqualTo(1L);
+
+        release.countDown();
+        executor.stop();
+    }
+
+    @Test
+    void releaseTheSlotWhenATaskThrows() throws InterruptedException {
+        // given
+        final var executor = new VirtualThreadExecutor("test", 1, Duration.ofMillis(50));
+        executor.execute(() -> {
+            throw new IllegalStateException("expected by the test");
+        });
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (executor.getCompletedTaskCount() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // when
+        final var ran = new CountDownLatch(1);
+        executor.execute(ran::countDown, 0, TimeUnit.NANOSECONDS);
+
+        // then
+        assertThat(ran.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.getRejectedCount()).isEqualTo(0L);
+        executor.stop();
+    }
+
+    @Test
+    void rejectAfterStop() {
+        final var executor = new VirtualThreadExecutor("test", 1, Duration.ofMillis(50));
+
+        executor.stop();
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+    }
+
+    private void await(final CountDownLatch started, final CountDownLatch release) {
+        started.countDown();
+        try {
+            release.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.apache.catalina.mapper;
+
+import org.apache.catalina.Controller;
+import org.apache.tomcat.util.buf.ByteChunk;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Time and allocation per lookup of the trie {@link Mapper} against a
+ * linear if/else chain over the same routes, for a growing number of
+ * routes. The looked-up path is the last route added, the worst case for
+ * the chain. Run with {@code java MapperBenchmark [seconds per case]}.
+ */
+public class MapperBenchmark {
+
+    private static final int[] ROUTE_COUNTS = {10, 100, 1000};
+
+    public static void main(final String[] args) {
+        final double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 1;
+        final var allocation = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int round = 0; round < 2; round++) {
+            for (final int routes : ROUTE_COUNTS) {
+                final var mapper = new Mapper();
+                final var linear = new LinearMapper();
+                for (int i = 0; i < routes; i++) {
+                    final Controller controller = (request, response, mapping) -> {
+                    };
+                    mapper.addRoute("GET", "/api/resource" + i + "/{id}", controller);
+                    linear.add("GET", "/api/resource" + i + "/", controller);
+                }
+                final ByteChunk method = MapperTest.chunk("GET");
+                final ByteChunk uri = MapperTest.chunk("/api/resource" + (routes - 1) + "/42");
+                final var data = new MappingData();
+                report("trie", routes, seconds, allocation, () -> mapper.map(method, uri, data));
+                report("linear", routes, seconds, allocation, () -> linear.map(method, uri));
+            }
+        }
+    }
+
+    private static void report(final String name, final int routes, final double seconds,
+                               final com.sun.management.ThreadMXBean allocation, final Lookup lookup) {
+        final long end = System.nanoTime() + (long) (seconds * 1_000_000_000L);
+        final long allocatedBefore = allocation.getCurrentThreadAllocatedBytes();
+        final long start = System.nanoTime();
+        long count = 0;
+        while ((count & 0xfff) != 0 || System.nanoTime() < end) {
+            if (lookup.map() == null) {
+                throw new IllegalStateException("no route for " + name);
+            }
+            count++;
+        }
+        final long elapsed = System.nanoTime() - start;
+        final long allocated = allocation.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        System.out.printf("%-6s %5d routes %8.1f ns/lookup %6.2f bytes/lookup%n",
+                name, routes, (double) elapsed / count, (double) allocated / count);
+    }
+
+    private interface Lookup {
+        Controller map();
+    }
+
+    /**
+     * What dispatch looks like without a mapper: each route checked in turn
+     * with the method compared and the path matched by prefix.
+     */
+    private static final class LinearMapper {
+
+        private final List<String> methods = new ArrayList<>();
+        private final List<String> prefixes = new ArrayList<>();
+        private final List<Controller> controllers = new ArrayList<>();
+
+        void add(final String method, final String prefix, final Controller controller) {
+            methods.add(method);
+            prefixes.add(prefix);
+            controllers.add(controller);
+        }
+
+        Controller map(final ByteChunk method, final ByteChunk uri) {
+            for (int i = 0; i < prefixes.size(); i++) {
+                if (method.equals(methods.get(i)) && uri.startsWith(prefixes.get(i))
+                        && uri.indexOf((byte) '/', prefixes.get(i).length()) < 0) {
+                    return controllers.get(i);
+                }
+            }
+            return null;
+        }
+    }
+}
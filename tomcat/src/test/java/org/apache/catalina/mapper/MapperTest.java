@@ -0,0 +1,135 @@
+package org.apache.catalina.mapper;
+
+import org.apache.catalina.Controller;
+import org.apache.tomcat.util.buf.ByteChunk;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MapperTest {
+
+    private final Mapper mapper = new Mapper();
+    private final MappingData data = new MappingData();
+
+    @Test
+    void matchLiteralPaths() {
+        final Controller login = controller();
+        final Controller root = controller();
+        mapper.addRoute("GET", "/login", login);
+        mapper.addRoute("GET", "/", root);
+
+        assertThat(map("GET", "/login")).isSameAs(login);
+        assertThat(map("GET", "/")).isSameAs(root);
+        assertThat(map("GET", "/login/")).isNull();
+        assertThat(map("GET", "/log")).isNull();
+        assertThat(data.isPathMatched()).isFalse();
+    }
+
+    @Test
+    void matchPathVariables() {
+        final Controller user = controller();
+        mapper.addRoute("GET", "/users/{id}/posts/{postId}", user);
+
+        assertThat(map("GET", "/users/42/posts/%ED%95%9C")).isSameAs(user);
+        assertThat(data.getPathVariable("id")).isEqualTo("42");
+        assertThat(data.getPathVariable("postId")).isEqualTo("한");
+        assertThat(data.getPathVariable("unknown")).isNull();
+        assertThat(data.getPattern()).isEqualTo("/users/{id}/posts/{postId}");
+        assertThat(map("GET", "/users//posts/1")).isNull();
+    }
+
+    @Test
+    void matchTheRestOfThePathWithAWildcard() {
+        final Controller assets = controller();
+        final Controller all = controller();
+        mapper.addRoute("GET", "/assets/**", assets);
+        mapper.addRoute(Mapper.ANY_METHOD, "/**", all);
+
+        assertThat(map("GET", "/assets/img/logo.png")).isSameAs(assets);
+        assertThat(data.getWildcardPath()).isEqualTo("/img/logo.png");
+        assertThat(map("GET", "/index.html")).isSameAs(all);
+        assertThat(data.getWildcardPath()).isEqualTo("/index.html");
+        assertThat(map("DELETE", "/anything")).isSameAs(all);
+    }
+
+    @Test
+    void preferLiteralsThenVariablesThenWildcardsAndBacktrack() {
+        final Controller me = controller();
+        final Controller user = controller();
+        final Controller posts = controller();
+        final Controller all = controller();
+        mapper.addRoute("GET", "/users/me", me);
+        mapper.addRoute("GET", "/users/{id}", user);
+        mapper.addRoute("GET", "/users/{id}/posts", posts);
+        mapper.addRoute("GET", "/**", all);
+
+        assertThat(map("GET", "/users/me")).isSameAs(me);
+        assertThat(map("GET", "/users/you")).isSameAs(user);
+        // 리터럴 me 아래에는 posts 가 없으므로 변수 쪽으로 되돌아가야 한다.
+        assertThat(map("GET", "/users/me/posts")).isSameAs(posts);
+        assertThat(data.getPathVariable("id")).isEqualTo("me");
+        assertThat(map("GET", "/users/me/likes")).isSameAs(all);
+        assertThat(data.getPathVariable("id")).isNull();
+    }
+
+    @Test
+    void reportTheAllowedMethodsWhenOnlyThePathMatches() {
+        final Controller get = controller();
+        mapper.addRoute("GET", "/register", get);
+        mapper.addRoute("POST", "/register", controller());
+
+        assertThat(map("HEAD", "/register")).isSameAs(get);
+        assertThat(map("PUT", "/register")).isNull();
+        assertThat(data.isPathMatched()).isTrue();
+        assertThat(data.getAllow()).isEqualTo("GET, HEAD, POST");
+        assertThat(map("BREW", "/register")).isNull();
+    }
+
+    @Test
+    void stayFastWithManyRoutes() {
+        for (int i = 0; i < 1000; i++) {
+            mapper.addRoute("GET", "/api/resource" + i + "/{id}", controller());
+        }
+        final Controller last = controller();
+        mapper.addRoute("GET", "/api/resource1000/{id}", last);
+
+        assertThat(map("GET", "/api/resource1000/7")).isSameAs(last);
+        assertThat(mapper.getRouteCount()).isEqualTo(1001);
+    }
+
+    @Test
+    void rejectMalformedAndDuplicateRoutes() {
+        mapper.addRoute("GET", "/login", controller());
+
+        assertThatThrownBy(() -> mapper.addRoute("GET", "/login", controller()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> mapper.addRoute("GET", "login", controller()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> mapper.addRoute("GET", "/**/x", controller()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> mapper.addRoute("GET", "/{a}/{a}", controller()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> mapper.addRoute("BREW", "/coffee", controller()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Controller map(final String method, final String uri) {
+        return mapper.map(chunk(method), chunk(uri), data);
+    }
+
+    static ByteChunk chunk(final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.ISO_8859_1);
+        final var chunk = new ByteChunk();
+        chunk.set(ByteBuffer.wrap(bytes), 0, bytes.length);
+        return chunk;
+    }
+
+    private static Controller controller() {
+        return (request, response, mapping) -> {
+        };
+    }
+}
@@ -0,0 +1,191 @@
+package org.apache.catalina.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileStoreTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final Path directory = createDirectory();
+    private final FileStore swap = new FileStore(directory.resolve("swap"));
+    private final StandardManager manager = new StandardManager(clock::get);
+
+    FileStoreTest() {
+        manager.setSwap(swap);
+        manager.setMaxInactiveInterval(60 * 60);
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void swapOutIdleSessionAndSwapItBackIn() {
+        manager.setMaxIdleSwap(60);
+        final StandardSession session = manager.createSession();
+        session.setAttribute("user", "gugu");
+        final StandardSession busy = manager.createSession();
+
+        manager.processExpires(advance(30_000));
+        busy.access();
+        manager.processExpires(advance(31_000));
+
+        assertThat(manager.getActiveSessions()).isEqualTo(1);
+        assertThat(manager.getSwappedOutSessions()).isEqualTo(1L);
+        assertThat(swap.getSize()).isEqualTo(1);
+
+        final StandardSession restored = manager.findSession(session.getId());
+        assertThat(restored.getAttribute("user")).isEqualTo("gugu");
+        assertThat(manager.getActiveSessions()).isEqualTo(2);
+        assertThat(swap.getSize()).isEqualTo(0);
+    }
+
+    @Test
+    void swapOutLeastRecentlyUsedSessionsAboveMaxActiveSessions() {
+        manager.setMaxActiveSessions(2);
+        final StandardSession first = manager.createSession();
+        advance(1_000);
+        final StandardSession second = manager.createSession();
+        advance(1_000);
+        final StandardSession third = manager.createSession();
+        advance(1_000);
+        first.access();
+
+        manager.processExpires(advance(1_000));
+
+        assertThat(manager.getActiveSessions()).isEqualTo(2);
+        assertThat(manager.findSession(first.getId())).isSameAs(first);
+        assertThat(manager.findSession(third.getId())).isSameAs(third);
+        assertThat(manager.findSession(second.getId())).isNotSameAs(second).isNotNull();
+    }
+
+    @Test
+    void keepSessionsUsedDuringTheLastTick() {
+        manager.setMaxActiveSessions(0);
+        manager.createSession();
+
+        manager.processExpires(advance(500));
+
+        assertThat(manager.getActiveSessions()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidatedSessionDoesNotComeBackFromDisk() {
+        manager.setMaxIdleSwap(60);
+        final StandardSession session = manager.createSession();
+        manager.processExpires(advance(61_000));
+        assertThat(manager.getActiveSessions()).isEqualTo(0);
+
+        session.invalidate();
+
+        assertThat(manager.findSession(session.getId())).isNull();
+    }
+
+    @Test
+    void deleteSwappedSessionsThatTimedOut() {
+        manager.setMaxInactiveInterval(120);
+        manager.setMaxIdleSwap(60);
+        final String id = manager.createSession().getId();
+        manager.processExpires(advance(61_000));
+        assertThat(swap.getSize()).isEqualTo(1);
+
+        manager.processExpires(advance(60_000));
+
+        assertThat(swap.getSize()).isEqualTo(0);
+        assertThat(manager.getExpiredSessions()).isEqualTo(1L);
+        assertThat(manager.findSession(id)).isNull();
+    }
+
+    @Test
+    void sessionsFoundByRequestsAreNotIdle() {
+        manager.setMaxIdleSwap(60);
+        final StandardSession session = manager.createSession();
+
+        manager.processExpires(advance(50_000));
+        assertThat(manager.findSession(session.getId())).isSameAs(session);
+        manager.processExpires(advance(20_000));
+
+        assertThat(manager.getSwappedOutSessions()).isEqualTo(0L);
+        assertThat(manager.findSession(session.getId())).isSameAs(session);
+        assertThat(session.isNew()).isTrue();
+    }
+
+    @Test
+    void concurrentLookupsSwapInOneSession() throws InterruptedException {
+        manager.setMaxIdleSwap(60);
+        final String id = manager.createSession().getId();
+        manager.processExpires(advance(61_000));
+        final List<StandardSession> found = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> found.add(manager.findSession(id))));
+        }
+
+        threads.forEach(Thread::start);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(found).hasSize(8);
+        assertThat(found.get(0)).isNotNull();
+        assertThat(Set.copyOf(found)).hasSize(1);
+        assertThat(manager.getActiveSessions()).isEqualTo(1);
+        assertThat(swap.getSize()).isEqualTo(0);
+    }
+
+    @Test
+    void lookUpOnlyIdsThatWereSwappedOut() throws IOException {
+        final var other = new StandardManager(clock::get);
+        other.setSwap(new FileStore(swap.getDirectory()));
+        other.setMaxIdleSwap(60);
+        final String id = other.createSession().getId();
+        other.processExpires(advance(61_000));
+
+        // 이 매니저의 저장소는 그 파일을 내보낸 적이 없으므로 파일 시스템을 보지 않는다.
+        assertThat(manager.findSession(id)).isNull();
+        assertThat(Files.exists(swap.getDirectory().resolve(id + ".session"))).isTrue();
+
+        manager.setMaxIdleSwap(60);
+        manager.start();
+        try {
+            assertThat(manager.findSession(id)).isNotNull();
+        } finally {
+            manager.stop();
+        }
+    }
+
+    @Test
+    void ignoreIdsThatAreNotFileNames() {
+        assertThat(manager.findSession("../sessions")).isNull();
+        assertThat(manager.findSession("a/b")).isNull();
+        assertThat(manager.findSession("")).isNull();
+    }
+
+    private long advance(final long millis) {
+        return clock.addAndGet(millis);
+    }
+
+    private static Path createDirectory() {
+        try {
+            return Files.createTempDirectory("swap");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.apache.catalina.session;
+
+import com.techcourse.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedSessionStoreTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final Path directory = createDirectory();
+    private final Path file = directory.resolve("sessions.bin");
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void restoreSessionsLazilyAfterRestart() {
+        final StandardManager first = start();
+        final StandardSession session = first.createSession();
+        session.setAttribute("user", new User(1L, "gugu", "password", "hkkang@woowahan.com"));
+        session.setAttribute("visits", 3);
+        session.setAttribute("name", "구구");
+        session.setAttribute("notSerializable", new Object());
+        clock.addAndGet(5_000);
+        session.access();
+        first.stop();
+
+        final StandardManager second = start();
+        assertThat(second.getActiveSessions()).isEqualTo(0);
+        assertThat(second.getStore().getSize()).isEqualTo(1);
+
+        final StandardSession restored = second.findSession(session.getId());
+        assertThat(restored).isNotNull();
+        assertThat(((User) restored.getAttribute("user")).getAccount()).isEqualTo("gugu");
+        assertThat(restored.getAttribute("visits")).isEqualTo(3);
+        assertThat(restored.getAttribute("name")).isEqualTo("구구");
+        assertThat(restored.getAttribute("notSerializable")).isNull();
+        assertThat(restored.getCreationTime()).isEqualTo(1_000_000L);
+        assertThat(restored.getLastAccessedTime()).isEqualTo(1_005_000L);
+        assertThat(restored.isNew()).isFalse();
+        assertThat(second.getActiveSessions()).isEqualTo(1);
+        assertThat(second.getStore().getSize()).isEqualTo(0);
+    }
+
+    @Test
+    void keepStringAttributesLongerThanWriteUtfAllows() {
+        final StandardManager first = start();
+        final StandardSession session = first.createSession();
+        final String draft = "가나다".repeat(8_000);
+        session.setAttribute("draft", draft);
+        session.setAttribute("visits", 3);
+        final String other = first.createSession().getId();
+        first.stop();
+
+        final StandardManager second = start();
+        assertThat(second.getStore().getSize()).isEqualTo(2);
+        assertThat(second.findSession(session.getId()).getAttribute("draft")).isEqualTo(draft);
+        assertThat(second.findSession(session.getId()).getAttribute("visits")).isEqualTo(3);
+        assertThat(second.findSession(other)).isNotNull();
+    }
+
+    @Test
+    void invalidatedSessionDoesNotComeBack() {
+        final StandardManager first = start();
+        final String id = first.createSession().getId();
+        first.stop();
+
+        final StandardManager second = start();
+        second.findSession(id).invalidate();
+        second.stop();
+
+        assertThat(start().findSession(id)).isNull();
+    }
+
+    @Test
+    void carrySessionsThatWereNeverLoadedIntoTheNextSnapshot() {
+        final StandardManager first = start();
+        final String loaded = first.createSession().getId();
+        final String untouched = first.createSession().getId();
+        first.stop();
+
+        final StandardManager second = start();
+        assertThat(second.findSession(loaded)).isNotNull();
+        second.stop();
+
+        final StandardManager third = start();
+        assertThat(third.getStore().getSize()).isEqualTo(2);
+        assertThat(third.findSession(untouched)).isNotNull();
+        assertThat(third.findSession(loaded)).isNotNull();
+    }
+
+    @Test
+    void skipSessionsThatTimedOutWhileStopped() {
+        final StandardManager first = start();
+        first.setMaxInactiveInterval(60);
+        final String id = first.createSession().getId();
+        first.stop();
+
+        clock.addAndGet(61_000);
+
+        assertThat(start().findSession(id)).isNull();
+    }
+
+    private StandardManager start() {
+        final var manager = new StandardManager(clock::get);
+        manager.setStore(new MappedSessionStore(file));
+        manager.start();
+        return manager;
+    }
+
+    private static Path createDirectory() {
+        try {
+            return Files.createTempDirectory("sessions");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
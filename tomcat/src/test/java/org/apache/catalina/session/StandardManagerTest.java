@@ -0,0 +1,108 @@
+package org.apache.catalina.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StandardManagerTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final StandardManager manager = new StandardManager(clock::get);
+
+    @Test
+    void createAndFind() {
+        final StandardSession session = manager.createSession();
+        session.setAttribute("user", "gugu");
+
+        assertThat(manager.findSession(session.getId())).isSameAs(session);
+        assertThat(manager.findSession(session.getId()).getAttribute("user")).isEqualTo("gugu");
+        assertThat(manager.findSession("unknown")).isNull();
+        assertThat(session.isNew()).isTrue();
+    }
+
+    @Test
+    void expireIdleSessionWhenItsBucketComesDue() {
+        manager.setMaxInactiveInterval(60);
+        final StandardSession session = manager.createSession();
+
+        manager.processExpires(advance(59_000));
+        assertThat(manager.getActiveSessions()).isEqualTo(1);
+
+        manager.processExpires(advance(2_000));
+        assertThat(manager.getActiveSessions()).isEqualTo(0);
+        assertThat(manager.getExpiredSessions()).isEqualTo(1L);
+        assertThat(session.isValid()).isFalse();
+    }
+
+    @Test
+    void accessedSessionIsMovedInsteadOfExpired() {
+        manager.setMaxInactiveInterval(60);
+        final StandardSession session = manager.createSession();
+        manager.processExpires(advance(50_000));
+        session.access();
+
+        manager.processExpires(advance(20_000));
+        assertThat(manager.getActiveSessions()).isEqualTo(1);
+        assertThat(session.isValid()).isTrue();
+
+        manager.processExpires(advance(41_000));
+        assertThat(manager.findSession(session.getId())).isNull();
+        assertThat(manager.getExpiredSessions()).isEqualTo(1L);
+    }
+
+    @Test
+    void cascadeLongTimeoutsDownTheWheel() {
+        manager.setMaxInactiveInterval(2 * 60 * 60);
+        final StandardSession session = manager.createSession();
+        manager.processExpires(clock.get());
+
+        manager.processExpires(advance(2 * 60 * 60 * 1000 - 1_000));
+        assertThat(manager.getActiveSessions()).isEqualTo(1);
+
+        manager.processExpires(advance(2_000));
+        assertThat(session.isValid()).isFalse();
+    }
+
+    @Test
+    void findSessionChecksTheDeadlineBetweenTicks() {
+        manager.setMaxInactiveInterval(60);
+        final StandardSession session = manager.createSession();
+
+        advance(60_000);
+
+        assertThat(manager.findSession(session.getId())).isNull();
+        assertThat(manager.getActiveSessions()).isEqualTo(0);
+    }
+
+    @Test
+    void findingASessionCountsAsUsingIt() {
+        manager.setMaxInactiveInterval(60);
+        final StandardSession session = manager.createSession();
+        manager.processExpires(advance(50_000));
+        manager.findSession(session.getId());
+
+        manager.processExpires(advance(20_000));
+
+        assertThat(manager.findSession(session.getId())).isSameAs(session);
+        assertThat(session.isNew()).isTrue();
+    }
+
+    @Test
+    void invalidatedSessionIsRemoved() {
+        final StandardSession session = manager.createSession();
+
+        session.invalidate();
+
+        assertThat(manager.findSession(session.getId())).isNull();
+        assertThat(manager.getExpiredSessions()).isEqualTo(0L);
+        assertThatThrownBy(() -> session.getAttribute("user")).isInstanceOf(IllegalStateException.class);
+        manager.processExpires(advance(StandardManager.DEFAULT_MAX_INACTIVE_INTERVAL * 1000L + 1_000));
+    }
+
+    private long advance(final long millis) {
+        return clock.addAndGet(millis);
+    }
+}
@@ -0,0 +1,155 @@
+package org.apache.catalina.startup;
+
+import com.techcourse.controller.LoginController;
+import com.techcourse.controller.RegisterController;
+import org.apache.catalina.Controller;
+import org.apache.catalina.connector.CoyoteAdapter;
+import org.apache.catalina.mapper.MappingData;
+import org.apache.catalina.session.StandardManager;
+import org.apache.tomcat.util.buf.ByteChunk;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContextConfigTest {
+
+    private final StandardManager manager = new StandardManager();
+
+    @Test
+    void scanThePackageForControllers() {
+        final var adapter = new CoyoteAdapter();
+        final var config = new ContextConfig("com.techcourse", manager);
+        config.setUseIndex(false);
+
+        assertThat(config.configure(adapter)).isEqualTo(2);
+
+        assertThat(map(adapter, "GET", "/login")).isInstanceOf(LoginController.class);
+        assertThat(map(adapter, "POST", "/register")).isInstanceOf(RegisterController.class);
+        assertThat(map(adapter, "GET", "/register")).isNull();
+    }
+
+    @Test
+    void loadOnlyTheControllersListedInTheIndex() throws IOException {
+        final Path classes = Files.createTempDirectory("controller-index");
+        ControllerIndex.write(classes.resolve(ControllerIndex.RESOURCE), "com.techcourse",
+                List.of(RegisterController.class.getName()));
+        final var adapter = new CoyoteAdapter();
+
+        try (final var loader = loaderWith(classes)) {
+            assertThat(new ContextConfig("com.techcourse", loader, manager).configure(adapter)).isEqualTo(1);
+        }
+
+        assertThat(map(adapter, "POST", "/register")).isInstanceOf(RegisterController.class);
+        assertThat(map(adapter, "GET", "/login")).isNull();
+    }
+
+    @Test
+    void readOnlyTheNamesUnderThePackage() throws IOException {
+        final Path classes = Files.createTempDirectory("controller-index");
+        Files.createDirectories(classes.resolve(ControllerIndex.RESOURCE).getParent());
+        Files.writeString(classes.resolve(ControllerIndex.RESOURCE),
+                "# comment\npackage com.techcourse\n\ncom.techcourse.A\n  com.techcourse.web.B  \ncom.other.C\n"
+                        + "com.techcoursex.D\n");
+
+        try (final var loader = loaderWith(classes)) {
+            assertThat(ControllerIndex.read(loader, "com.techcourse"))
+                    .isEqualTo(List.of("com.techcourse.A", "com.techcourse.web.B"));
+        }
+        try (final var empty = new URLClassLoader(new URL[0], null)) {
+            assertThat(ControllerIndex.read(empty, "com.techcourse")).isNull();
+        }
+    }
+
+    @Test
+    void ignoreIndexesGeneratedForOtherPackages() throws IOException {
+        final Path classes = Files.createTempDirectory("controller-index");
+        ControllerIndex.write(classes.resolve(ControllerIndex.RESOURCE), "com.other", List.of("com.other.Controller"));
+
+        try (final var loader = loaderWith(classes)) {
+            assertThat(ControllerIndex.read(loader, "com.techcourse")).isNull();
+            assertThat(ControllerIndex.read(loader, "com.other.web")).isEqualTo(List.of());
+            assertThat(new ContextConfig("com.techcourse", loader, manager).configure(new CoyoteAdapter()))
+                    .isEqualTo(2);
+        }
+    }
+
+    @Test
+    void ignoreIndexesWithoutAPackage() throws IOException {
+        final Path classes = Files.createTempDirectory("controller-index");
+        Files.createDirectories(classes.resolve(ControllerIndex.RESOURCE).getParent());
+        Files.writeString(classes.resolve(ControllerIndex.RESOURCE), RegisterController.class.getName() + "\n");
+
+        try (final var loader = loaderWith(classes)) {
+            assertThat(ControllerIndex.read(loader, "com.techcourse")).isNull();
+        }
+    }
+
+    @Test
+    void scanListsTheAnnotatedClassesInOrder() {
+        assertThat(ControllerIndex.scan("com.techcourse"))
+                .isEqualTo(List.of(LoginController.class.getName(), RegisterController.class.getName()));
+    }
+
+    @Test
+    void failWhenAControllerCannotBeCreated() throws IOException {
+        final Path classes = Files.createTempDirectory("controller-index");
+        ControllerIndex.write(classes.resolve(ControllerIndex.RESOURCE), "com.techcourse",
+                List.of(LoginController.class.getName()));
+
+        try (final var loader = loaderWith(classes)) {
+            assertThatThrownBy(() -> new ContextConfig("com.techcourse", loader).configure(new CoyoteAdapter()))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void failWhenTheIndexListsSomethingElse() throws IOException {
+        final Path classes = Files.createTempDirectory("controller-index");
+        ControllerIndex.write(classes.resolve(ControllerIndex.RESOURCE), "com.techcourse",
+                List.of("com.techcourse.Application", "com.techcourse.Missing"));
+
+        try (final var loader = loaderWith(classes)) {
+            assertThatThrownBy(() -> new ContextConfig("com.techcourse", loader, manager).configure(new CoyoteAdapter()))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    /**
+     * @return a loader that sees the directory first, and only the directory's
+     * index
+     */
+    private URLClassLoader loaderWith(final Path classes) throws IOException {
+        final ClassLoader parent = getClass().getClassLoader();
+        return new URLClassLoader(new URL[]{classes.toUri().toURL()}, parent) {
+            @Override
+            public Enumeration<URL> getResources(final String name) throws IOException {
+                return ControllerIndex.RESOURCE.equals(name) ? findResources(name) : super.getResources(name);
+            }
+        };
+    }
+
+    private static Controller map(final CoyoteAdapter adapter, final String method, final String uri) {
+        final var data = new MappingData();
+        final Controller controller = adapter.getMapper().map(chunk(method), chunk(uri), data);
+        // /** 의 정적 자원 경로는 어느 메서드든 받으므로 패턴으로 컨트롤러 경로인지 가린다.
+        return uri.equals(data.getPattern()) ? controller : null;
+    }
+
+    private static ByteChunk chunk(final String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.ISO_8859_1);
+        final var chunk = new ByteChunk();
+        chunk.set(ByteBuffer.wrap(bytes), 0, bytes.length);
+        return chunk;
+    }
+}
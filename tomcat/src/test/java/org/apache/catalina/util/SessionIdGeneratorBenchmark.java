@@ -0,0 +1,51 @@
+package org.apache.catalina.util;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Session ids generated per second by many threads at once, with the
+ * pooled generator and with {@link UUID#randomUUID()}, which shares one
+ * {@link java.security.SecureRandom}. Run with
+ * {@code java SessionIdGeneratorBenchmark [threads] [seconds] [algorithm]}.
+ */
+public class SessionIdGeneratorBenchmark {
+
+    public static void main(final String[] args) throws InterruptedException {
+        final int threads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        final int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        final String algorithm = args.length > 2 ? args[2] : StandardSessionIdGenerator.DEFAULT_ALGORITHM;
+        final var generator = new StandardSessionIdGenerator(StandardSessionIdGenerator.DEFAULT_SESSION_ID_LENGTH,
+                algorithm);
+
+        for (int round = 0; round < 2; round++) {
+            report("UUID.randomUUID", threads, seconds, () -> UUID.randomUUID().toString());
+            report("StandardSessionIdGenerator", threads, seconds, generator::generateSessionId);
+        }
+    }
+
+    private static void report(final String name, final int threads, final int seconds,
+                               final Supplier<String> ids) throws InterruptedException {
+        final var generated = new LongAdder();
+        final var done = new CountDownLatch(threads);
+        final long end = System.nanoTime() + seconds * 1_000_000_000L;
+        for (int i = 0; i < threads; i++) {
+            final var thread = new Thread(() -> {
+                long count = 0;
+                while (System.nanoTime() < end) {
+                    if (ids.get().isEmpty()) {
+                        throw new IllegalStateException();
+                    }
+                    count++;
+                }
+                generated.add(count);
+                done.countDown();
+            });
+            thread.start();
+        }
+        done.await();
+        System.out.printf("%-28s %3d threads %,12d ids/s%n", name, threads, generated.sum() / seconds);
+    }
+}
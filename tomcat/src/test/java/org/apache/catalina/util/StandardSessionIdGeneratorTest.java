@@ -0,0 +1,39 @@
+package org.apache.catalina.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StandardSessionIdGeneratorTest {
+
+    @Test
+    void generateUrlSafeIds() {
+        final var generator = new StandardSessionIdGenerator();
+        final Set<String> ids = new HashSet<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            final String id = generator.generateSessionId();
+            assertThat(id.length()).isEqualTo(22);
+            assertThat(id.matches("[A-Za-z0-9_-]+")).isTrue();
+            ids.add(id);
+        }
+
+        assertThat(ids.size()).isEqualTo(10_000);
+    }
+
+    @Test
+    void encodeLikeUnpaddedBase64Url() {
+        final byte[] bytes = {(byte) 0xfb, (byte) 0xff, 0x3e, 0x00, (byte) 0x80};
+
+        for (int length = 1; length <= bytes.length; length++) {
+            final byte[] src = Arrays.copyOf(bytes, length);
+            assertThat(StandardSessionIdGenerator.encode(src))
+                    .isEqualTo(Base64.getUrlEncoder().withoutPadding().encodeToString(src));
+        }
+    }
+}
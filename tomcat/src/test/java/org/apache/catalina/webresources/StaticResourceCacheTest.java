@@ -0,0 +1,154 @@
+package org.apache.catalina.webresources;
+
+import org.apache.coyote.http11.EncodedResponse;
+import org.apache.coyote.http11.HttpResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StaticResourceCacheTest {
+
+    @Test
+    void hitAndMiss() {
+        final var cache = new StaticResourceCache(1024, 512);
+        final var entry = encoded(10);
+
+        assertThat(cache.get("/a.css", false)).isNull();
+        cache.put("/a.css", false, entry);
+
+        assertThat(cache.get("/a.css", false)).isSameAs(entry);
+        assertThat(cache.getHitCount()).isEqualTo(1L);
+        assertThat(cache.getMissCount()).isEqualTo(1L);
+        assertThat(cache.getSize()).isEqualTo((long) entry.length());
+    }
+
+    @Test
+    void evictLeastRecentlyUsed() {
+        final var first = encoded(200);
+        final var cache = new StaticResourceCache(first.length() * 2L, 512);
+        cache.put("/first", false, first);
+        cache.put("/second", false, encoded(200));
+        cache.get("/first", false);
+
+        cache.put("/third", false, encoded(200));
+
+        assertThat(cache.get("/first", false)).isNotNull();
+        assertThat(cache.get("/second", false)).isNull();
+        assertThat(cache.get("/third", false)).isNotNull();
+        assertThat(cache.getEvictionCount()).isEqualTo(1L);
+        assertThat(cache.getSize()).isLessThanOrEqualTo(cache.getMaxSize());
+    }
+
+    @Test
+    void neverEvictTheEntryBeingPut() {
+        final var first = encoded(200);
+        final var cache = new StaticResourceCache(first.length() * 2L, 512);
+        cache.put("/first", false, first);
+        cache.put("/second", false, encoded(200));
+        cache.get("/first", false);
+        cache.get("/second", false);
+
+        final var third = encoded(200);
+        cache.put("/third", false, third);
+
+        assertThat(cache.get("/third", false)).isSameAs(third);
+        assertThat(cache.getEntryCount()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(1L);
+        assertThat(cache.getSize()).isLessThanOrEqualTo(cache.getMaxSize());
+    }
+
+    @Test
+    void variants() {
+        final var cache = new StaticResourceCache(4096, 1024);
+        final var identity = encoded(300);
+        final var gzip = encoded(100);
+
+        cache.put("/a.css", false, identity);
+        assertThat(cache.get("/a.css", true)).isNull();
+        cache.put("/a.css", true, gzip);
+
+        assertThat(cache.get("/a.css", false)).isSameAs(identity);
+        assertThat(cache.get("/a.css", true)).isSameAs(gzip);
+        assertThat(cache.getEntryCount()).isEqualTo(1);
+        assertThat(cache.getSize()).isEqualTo((long) identity.length() + gzip.length());
+    }
+
+    @Test
+    void sharedVariantCountedOnce() {
+        final var cache = new StaticResourceCache(4096, 1024);
+        final var identity = encoded(300);
+
+        cache.put("/a.png", false, identity);
+        cache.put("/a.png", true, identity);
+
+        assertThat(cache.getSize()).isEqualTo((long) identity.length());
+    }
+
+    @Test
+    void skipLargeObjects() {
+        final var cache = new StaticResourceCache(4096, 100);
+
+        cache.put("/large", false, encoded(200));
+
+        assertThat(cache.accepts(200)).isFalse();
+        assertThat(cache.getEntryCount()).isEqualTo(0);
+    }
+
+    @Test
+    void evictAFileThatChangedOnceTheTtlHasPassed() throws IOException {
+        final Path base = Files.createTempDirectory("static-cache");
+        final Path file = Files.writeString(Files.createDirectories(base.resolve("static")).resolve("a.css"), "a{}");
+        try (final var loader = new URLClassLoader(new URL[]{base.toUri().toURL()}, null)) {
+            final var resources = new StaticResources("static", loader);
+            final var cache = new StaticResourceCache(4096, 1024);
+            final var entry = encoded(100);
+            cache.put("/a.css", false, entry, resources.getResource("/a.css"));
+
+            Files.writeString(file, "a{color:red}");
+            assertThat(cache.get("/a.css", false, resources)).isSameAs(entry);
+
+            cache.setTtl(0);
+            cache.put("/a.css", false, entry, resources.getResource("/a.css"));
+            assertThat(cache.get("/a.css", false, resources)).isSameAs(entry);
+            Files.writeString(file, "a{color:blue}");
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+            assertThat(cache.get("/a.css", false, resources)).isNull();
+            assertThat(cache.getEntryCount()).isEqualTo(0);
+            assertThat(cache.getSize()).isEqualTo(0L);
+        }
+    }
+
+    @Test
+    void replaceBothVariantsWhenANewVersionIsPut() throws IOException {
+        final Path base = Files.createTempDirectory("static-cache");
+        final Path file = Files.writeString(Files.createDirectories(base.resolve("static")).resolve("a.css"), "a{}");
+        try (final var loader = new URLClassLoader(new URL[]{base.toUri().toURL()}, null)) {
+            final var resources = new StaticResources("static", loader);
+            final var cache = new StaticResourceCache(4096, 1024);
+            cache.put("/a.css", false, encoded(100), resources.getResource("/a.css"));
+            cache.put("/a.css", true, encoded(50), resources.getResource("/a.css"));
+
+            Files.writeString(file, "a{color:red}");
+            final var changed = encoded(120);
+            cache.put("/a.css", false, changed, resources.getResource("/a.css"));
+
+            assertThat(cache.get("/a.css", false, resources)).isSameAs(changed);
+            assertThat(cache.get("/a.css", true, resources)).isNull();
+            assertThat(cache.getSize()).isEqualTo((long) changed.length());
+        }
+    }
+
+    private static EncodedResponse encoded(final int bodyLength) {
+        final var response = new HttpResponse();
+        response.setBody(new byte[bodyLength], "text/plain;charset=utf-8");
+        return EncodedResponse.of(response);
+    }
+}
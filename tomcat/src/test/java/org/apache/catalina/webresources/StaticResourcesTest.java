@@ -0,0 +1,54 @@
+package org.apache.catalina.webresources;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StaticResourcesTest {
+
+    private final StaticResources resources = new StaticResources();
+
+    @Test
+    void fileResource() {
+        final var resource = resources.getResource("/css/styles.css");
+
+        assertThat(resource.isFile()).isTrue();
+        assertThat(resource.getContentType()).isEqualTo("text/css;charset=utf-8");
+        assertThat(resource.getLength()).isEqualTo(211991L);
+    }
+
+    @Test
+    void missingResource() {
+        assertThat(resources.getResource("/nothing.html")).isNull();
+        assertThat(resources.getResource("/css")).isNull();
+    }
+
+    @Test
+    void pathTraversal() {
+        assertThat(resources.getResource("/../../build.gradle")).isNull();
+    }
+
+    @Test
+    void contentType() {
+        assertThat(MimeTypes.getContentType("/index.html")).isEqualTo("text/html;charset=utf-8");
+        assertThat(MimeTypes.getContentType("/assets/img/error-404-monochrome.SVG")).isEqualTo("image/svg+xml");
+        assertThat(MimeTypes.getContentType("/a.b/readme")).isEqualTo(MimeTypes.DEFAULT_CONTENT_TYPE);
+    }
+
+    @Test
+    void etag() {
+        final var etag = resources.getResource("/index.html").getETag();
+
+        assertThat(etag).matches("\"[A-Za-z0-9_-]{22}\"");
+        assertThat(resources.getResource("/index.html").getETag()).isSameAs(etag);
+        assertThat(resources.getResource("/css/styles.css").getETag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    void ifNoneMatch() {
+        assertThat(ETags.matches("\"a\", \"b\"", "\"b\"")).isTrue();
+        assertThat(ETags.matches("W/\"b\"", "\"b\"")).isTrue();
+        assertThat(ETags.matches("*", "\"b\"")).isTrue();
+        assertThat(ETags.matches("\"a\"", "\"b\"")).isFalse();
+    }
+}
@@ -0,0 +1,69 @@
+package org.apache.coyote.http11;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EncodedHeadersTest {
+
+    @Test
+    void encodeHeadMixesPreEncodedAndPerResponseLines() {
+        // given
+        final var headers = new LinkedHashMap<String, String>();
+        headers.put("Content-Type", "text/html;charset=utf-8");
+        headers.put("Content-Length", "5564");
+        headers.put("X-Custom", "yes");
+        headers.put("Vary", "Accept-Encoding");
+
+        // when
+        final byte[] head = Http11OutputBuffer.encodeHead(HttpStatus.NOT_FOUND, headers);
+
+        // then
+        assertThat(new String(head, StandardCharsets.ISO_8859_1)).isEqualTo(
+                "HTTP/1.1 404 Not Found \r\n"
+                        + "Content-Type: text/html;charset=utf-8 \r\n"
+                        + "Content-Length: 5564 \r\n"
+                        + "X-Custom: yes \r\n"
+                        + "Vary: Accept-Encoding \r\n"
+                        + "\r\n");
+        assertThat(head).hasSize(EncodedHeaders.headLength(HttpStatus.NOT_FOUND, headers));
+    }
+
+    @Test
+    void commonLinesAreShared() {
+        assertThat(EncodedHeaders.line("Content-Type", "text/html;charset=utf-8"))
+                .isSameAs(EncodedHeaders.line("Content-Type", "text/html;charset=utf-8"));
+        assertThat(EncodedHeaders.line("Content-Length", "5564")).isNull();
+    }
+
+    @Test
+    void dateLineIsEncodedOncePerValue() {
+        final String date = "Sun, 18 Oct 2026 10:00:00 GMT";
+
+        final byte[] first = EncodedHeaders.line("Date", date);
+
+        assertThat(new String(first, StandardCharsets.ISO_8859_1)).isEqualTo("Date: " + date + " \r\n");
+        assertThat(EncodedHeaders.line("Date", date)).isSameAs(first);
+    }
+
+    @Test
+    void rejectLineBreaksAndCharactersOutsideLatin1() {
+        final var dst = ByteBuffer.allocate(256);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> EncodedHeaders.putLine(dst, "Location", "/index.html\r\nSet-Cookie: JSESSIONID=evil"));
+        assertThrows(IllegalArgumentException.class, () -> EncodedHeaders.putLine(dst, "X-Custom", "a\nb"));
+        assertThrows(IllegalArgumentException.class, () -> EncodedHeaders.putLine(dst, "X-Name", "구구"));
+        assertThrows(IllegalArgumentException.class, () -> EncodedHeaders.putLine(dst, "X-\r\nBad", "yes"));
+        assertThat(dst.position()).isEqualTo(0);
+
+        EncodedHeaders.putLine(dst, "X-Name", "caf\u00e9");
+        assertThat(new String(dst.array(), 0, dst.position(), StandardCharsets.ISO_8859_1))
+                .isEqualTo("X-Name: caf\u00e9 \r\n");
+    }
+}
@@ -0,0 +1,179 @@
+package org.apache.coyote.http11;
+
+import org.apache.coyote.Adapter;
+import org.junit.jupiter.api.Test;
+import support.StubSocket;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Http11OutputStreamTest {
+
+    private static final String REQUEST = String.join("\r\n",
+            "GET /stream HTTP/1.1 ",
+            "Host: localhost:8080 ",
+            "",
+            "");
+
+    @Test
+    void smallBodyGetsContentLength() {
+        // given
+        final var socket = new StubSocket(REQUEST + REQUEST);
+        final var processor = new Http11Processor(socket, protocol(2, (request, response) -> {
+            response.setHeader(HeaderName.CONTENT_TYPE, "text/plain;charset=utf-8");
+            write(response, "hello");
+        }));
+
+        // when
+        processor.process(socket);
+
+        // then
+        final String output = withoutDate(socket.output());
+        assertThat(output).isEqualTo(
+                "HTTP/1.1 200 OK \r\nContent-Type: text/plain;charset=utf-8 \r\nContent-Length: 5 \r\n\r\nhello"
+                        + "HTTP/1.1 200 OK \r\nContent-Type: text/plain;charset=utf-8 \r\nContent-Length: 5 \r\n"
+                        + "Connection: close \r\n\r\nhello");
+    }
+
+    @Test
+    void largeBodyIsChunked() {
+        // given
+        final String line = "0123456789abcdef".repeat(64) + "\n";
+        final var socket = new StubSocket(REQUEST);
+        final var processor = new Http11Processor(socket, protocol(1, (request, response) -> {
+            for (int i = 0; i < 100; i++) {
+                write(response, line);
+            }
+        }));
+
+        // when
+        processor.process(socket);
+
+        // then
+        final String[] parts = socket.output().split("\r\n\r\n", 2);
+        assertThat(parts[0]).contains("Transfer-Encoding: chunked \r\n");
+        assertThat(parts[0]).doesNotContain("Content-Length");
+        assertThat(dechunk(parts[1])).isEqualTo(line.repeat(100));
+        assertThat(parts[1]).endsWith("\r\n0\r\n\r\n");
+    }
+
+    @Test
+    void declaredLengthIsNotChunked() {
+        // given
+        final String body = "x".repeat(20_000);
+        final var socket = new StubSocket(REQUEST);
+        final var processor = new Http11Processor(socket, protocol(1, (request, response) -> {
+            response.setHeader(HeaderName.CONTENT_LENGTH, String.valueOf(body.length()));
+            write(response, body);
+        }));
+
+        // when
+        processor.process(socket);
+
+        // then
+        assertThat(socket.output()).doesNotContain("Transfer-Encoding");
+        assertThat(socket.output()).endsWith("\r\n\r\n" + body);
+    }
+
+    @Test
+    void http10BodyIsDelimitedByClose() {
+        // given
+        final String body = "y".repeat(20_000);
+        final var socket = new StubSocket(String.join("\r\n",
+                "GET /stream HTTP/1.0 ",
+                "Connection: keep-alive ",
+                "",
+                ""));
+        final var processor = new Http11Processor(socket, protocol(100, (request, response) -> write(response, body)));
+
+        // when
+        processor.process(socket);
+
+        // then
+        assertThat(socket.output()).doesNotContain("Transfer-Encoding");
+        assertThat(socket.output()).contains("Connection: close \r\n");
+        assertThat(socket.output()).endsWith("\r\n\r\n" + body);
+    }
+
+    @Test
+    void failureAfterCommitClosesConnection() {
+        // given
+        final var socket = new StubSocket(REQUEST + REQUEST);
+        final var processor = new Http11Processor(socket, protocol(100, (request, response) -> {
+            write(response, "z".repeat(10_000));
+            throw new IllegalStateException("handler failed");
+        }));
+
+        // when
+        processor.process(socket);
+
+        // then
+        assertThat(socket.output().split("HTTP/1.1 200 OK", -1)).hasSize(2);
+        assertThat(socket.output()).doesNotContain("500");
+        assertThat(socket.output()).doesNotEndWith("0\r\n\r\n");
+    }
+
+    @Test
+    void headDropsTheStreamedBody() {
+        // given
+        final String head = String.join("\r\n",
+                "HEAD /stream HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "",
+                "");
+        final String line = "0123456789abcdef".repeat(64) + "\n";
+        final var socket = new StubSocket(head + head + REQUEST);
+        final var processor = new Http11Processor(socket, protocol(3, (request, response) -> {
+            write(response, "hello");
+            // HEAD 응답만 버퍼를 넘겨 청크로 바뀌게 한다.
+            for (int i = 0; i < 100 && request.method().equals("HEAD"); i++) {
+                write(response, line);
+            }
+        }));
+
+        // when
+        processor.process(socket);
+
+        // then
+        final String output = withoutDate(socket.output());
+        assertThat(output).startsWith("HTTP/1.1 200 OK \r\nTransfer-Encoding: chunked \r\n\r\n"
+                + "HTTP/1.1 200 OK \r\nTransfer-Encoding: chunked \r\n\r\n"
+                + "HTTP/1.1 200 OK \r\n");
+        assertThat(output).endsWith("Content-Length: 5 \r\nConnection: close \r\n\r\nhello");
+    }
+
+    private static Http11Protocol protocol(final int maxKeepAliveRequests, final Adapter adapter) {
+        final var protocol = new Http11Protocol(adapter);
+        protocol.setMaxKeepAliveRequests(maxKeepAliveRequests);
+        return protocol;
+    }
+
+    private static void write(final HttpResponse response, final String s) {
+        try {
+            response.getOutputStream().write(s.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String dechunk(final String chunked) {
+        final var body = new StringBuilder();
+        int position = 0;
+        while (true) {
+            final int lineEnd = chunked.indexOf("\r\n", position);
+            final int size = Integer.parseInt(chunked.substring(position, lineEnd), 16);
+            if (size == 0) {
+                return body.toString();
+            }
+            body.append(chunked, lineEnd + 2, lineEnd + 2 + size);
+            position = lineEnd + 2 + size + 2;
+        }
+    }
+
+    private static String withoutDate(final String output) {
+        return output.replaceAll("Date: [^\r\n]* \r\n", "");
+    }
+}
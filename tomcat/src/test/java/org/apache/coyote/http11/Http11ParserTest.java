@@ -0,0 +1,181 @@
+package org.apache.coyote.http11;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class Http11ParserTest {
+
+    private final Http11Parser parser = new Http11Parser(64, 256, 1024);
+    private final ByteBuffer buffer = ByteBuffer.allocate(512);
+    private final HttpRequest request = new HttpRequest();
+
+    @Test
+    void parseRequestSplitAcrossReads() {
+        // given
+        final String httpRequest = String.join("\r\n",
+                "GET /login?account=gugu HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Connection: keep-alive ",
+                "",
+                "");
+
+        // when
+        boolean done = false;
+        for (final byte b : httpRequest.getBytes(StandardCharsets.ISO_8859_1)) {
+            assertThat(done).isFalse();
+            buffer.put(b);
+            done = parser.parse(buffer, request);
+        }
+
+        // then
+        assertThat(done).isTrue();
+        assertThat(request.getMethod()).isEqualTo("GET");
+        assertThat(request.getRequestURI()).isEqualTo("/login");
+        assertThat(request.getQueryString()).isEqualTo("account=gugu");
+        assertThat(request.getProtocol()).isEqualTo("HTTP/1.1");
+        assertThat(request.getHeader("host")).isEqualTo("localhost:8080");
+        assertThat(request.isKeepAlive()).isTrue();
+        assertThat(parser.getConsumed()).isEqualTo(httpRequest.length());
+    }
+
+    @Test
+    void parseContentLengthBody() {
+        // given
+        final String httpRequest = String.join("\r\n",
+                "POST /register HTTP/1.1",
+                "Content-Length: 11",
+                "",
+                "account=abcGET / HTTP/1.1");
+        buffer.put(httpRequest.getBytes(StandardCharsets.ISO_8859_1));
+
+        // when
+        final boolean done = parser.parse(buffer, request);
+
+        // then
+        assertThat(done).isTrue();
+        assertThat(new String(request.getBody())).isEqualTo("account=abc");
+        assertThat(parser.getConsumed()).isEqualTo(httpRequest.indexOf("GET"));
+    }
+
+    @Test
+    void parseChunkedBody() {
+        // given
+        final String httpRequest = String.join("\r\n",
+                "POST /register HTTP/1.1",
+                "Transfer-Encoding: chunked",
+                "",
+                "8;ext=1",
+                "account=",
+                "4",
+                "gugu",
+                "0",
+                "",
+                "");
+        buffer.put(httpRequest.getBytes(StandardCharsets.ISO_8859_1));
+
+        // when
+        final boolean done = parser.parse(buffer, request);
+
+        // then
+        assertThat(done).isTrue();
+        assertThat(new String(request.getBody())).isEqualTo("account=gugu");
+    }
+
+    @Test
+    void bodyLargerThanBuffer() {
+        // given
+        final var smallBuffer = ByteBuffer.allocate(64);
+        smallBuffer.put("POST / HTTP/1.1\r\nContent-Length: 100\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+
+        // when
+        int sent = 0;
+        boolean done = parser.parse(smallBuffer, request);
+        while (!done) {
+            final int length = Math.min(smallBuffer.remaining(), 100 - sent);
+            smallBuffer.put("x".repeat(length).getBytes(StandardCharsets.ISO_8859_1));
+            sent += length;
+            done = parser.parse(smallBuffer, request);
+        }
+
+        // then
+        assertThat(request.getContentLength()).isEqualTo(100);
+        assertThat(request.getHeader("Content-Length")).isEqualTo("100");
+    }
+
+    @Test
+    void lookupHeaders() {
+        // given
+        final String httpRequest = String.join("\r\n",
+                "GET / HTTP/1.1",
+                "HOST: localhost:8080",
+                "accept-encoding: gzip",
+                "X-Request-Id: 42",
+                "",
+                "");
+        buffer.put(httpRequest.getBytes(StandardCharsets.ISO_8859_1));
+
+        // when
+        parser.parse(buffer, request);
+
+        // then
+        final HttpHeaders headers = request.getHeaders();
+        assertThat(headers.getHeader(HeaderName.HOST)).isEqualTo("localhost:8080");
+        assertThat(headers.getHeader("Accept-Encoding")).isEqualTo("gzip");
+        assertThat(headers.getHeader("x-request-id")).isEqualTo("42");
+        assertThat(headers.getValue(HeaderName.COOKIE)).isNull();
+        assertThat(headers.size()).isEqualTo(3);
+    }
+
+    @Test
+    void duplicateContentLength() {
+        // given
+        buffer.put("POST / HTTP/1.1\r\nContent-Length: 1\r\nContent-Length: 2\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+
+        // when
+        final var exception = assertThrows(HttpParseException.class, () -> parser.parse(buffer, request));
+
+        // then
+        assertThat(exception.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void requestLineTooLong() {
+        // given
+        buffer.put(("GET /" + "a".repeat(100)).getBytes(StandardCharsets.ISO_8859_1));
+
+        // when
+        final var exception = assertThrows(HttpParseException.class, () -> parser.parse(buffer, request));
+
+        // then
+        assertThat(exception.getStatus()).isEqualTo(HttpStatus.URI_TOO_LONG);
+    }
+
+    @Test
+    void headerTooLarge() {
+        // given
+        buffer.put(("GET / HTTP/1.1\r\nCookie: " + "a".repeat(300) + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+
+        // when
+        final var exception = assertThrows(HttpParseException.class, () -> parser.parse(buffer, request));
+
+        // then
+        assertThat(exception.getStatus()).isEqualTo(HttpStatus.REQUEST_HEADER_FIELDS_TOO_LARGE);
+    }
+
+    @Test
+    void invalidHeader() {
+        // given
+        buffer.put("GET / HTTP/1.1\r\nHost localhost\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+
+        // when
+        final var exception = assertThrows(HttpParseException.class, () -> parser.parse(buffer, request));
+
+        // then
+        assertThat(exception.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+}
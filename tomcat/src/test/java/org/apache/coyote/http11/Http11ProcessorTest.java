@@ -1,12 +1,20 @@
 package org.apache.coyote.http11;
 
+import org.apache.catalina.connector.CoyoteAdapter;
+import org.apache.catalina.webresources.ETags;
+import org.apache.tomcat.util.http.FastHttpDateFormat;
 import org.junit.jupiter.api.Test;
 import support.StubSocket;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -29,7 +37,7 @@ class Http11ProcessorTest {
                 "",
                 "Hello world!");
 
-        assertThat(socket.output()).isEqualTo(expected);
+        assertThat(withoutDate(socket.output())).isEqualTo(expected);
     }
 
     @Test
@@ -53,9 +61,556 @@ class Http11ProcessorTest {
         var expected = "HTTP/1.1 200 OK \r\n" +
                 "Content-Type: text/html;charset=utf-8 \r\n" +
                 "Content-Length: 5564 \r\n" +
+                "ETag: " + ETags.of(new File(resource.getFile()).toPath()) + " \r\n" +
+                "Last-Modified: " + FastHttpDateFormat.formatDate(new File(resource.getFile()).lastModified()) + " \r\n" +
+                "Accept-Ranges: bytes \r\n" +
+                "Vary: Accept-Encoding \r\n" +
                 "\r\n"+
                 new String(Files.readAllBytes(new File(resource.getFile()).toPath()));
 
-        assertThat(socket.output()).isEqualTo(expected);
+        assertThat(withoutDate(socket.output())).isEqualTo(expected);
+    }
+
+    @Test
+    void keepAlive() {
+        // given
+        final String httpRequest = String.join("\r\n",
+                "GET / HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "",
+                "GET / HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        var response = String.join("\r\n",
+                "HTTP/1.1 200 OK ",
+                "Content-Type: text/html;charset=utf-8 ",
+                "Content-Length: 12 ",
+                "",
+                "Hello world!");
+
+        assertThat(withoutDate(socket.output())).isEqualTo(response + response);
+    }
+
+    @Test
+    void connectionClose() {
+        // given
+        final String httpRequest = String.join("\r\n",
+                "GET / HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Connection: close ",
+                "",
+                "GET / HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        var expected = String.join("\r\n",
+                "HTTP/1.1 200 OK ",
+                "Content-Type: text/html;charset=utf-8 ",
+                "Content-Length: 12 ",
+                "Connection: close ",
+                "",
+                "Hello world!");
+
+        assertThat(withoutDate(socket.output())).isEqualTo(expected);
+    }
+
+    @Test
+    void maxKeepAliveRequests() {
+        // given
+        final String request = String.join("\r\n",
+                "GET / HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "",
+                "");
+
+        final var socket = new StubSocket(request + request + request);
+        final var protocol = new Http11Protocol();
+        protocol.setMaxKeepAliveRequests(2);
+        final Http11Processor processor = new Http11Processor(socket, protocol);
+
+        // when
+        processor.process(socket);
+
+        // then
+        assertThat(socket.output().split("HTTP/1.1 200 OK", -1)).hasSize(3);
+        assertThat(socket.output()).endsWith("Connection: close \r\n\r\nHello world!");
+    }
+
+    @Test
+    void pipelining() {
+        // given
+        final String request = String.join("\r\n",
+                "GET / HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "",
+                "");
+
+        final var socket = new StubSocket(request + request + request);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        assertThat(socket.output().split("HTTP/1.1 200 OK", -1)).hasSize(4);
+        assertThat(socket.writeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void notFound() {
+        // given
+        final String httpRequest = String.join("\r\n",
+                "GET /nothing.html HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Connection: close ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        assertThat(socket.output()).startsWith("HTTP/1.1 404 Not Found \r\n");
+        assertThat(socket.output()).contains("Content-Type: text/html;charset=utf-8 \r\n");
+    }
+
+    @Test
+    void cachedResponseWithConnectionClose() throws IOException {
+        // given
+        final String request = String.join("\r\n",
+                "GET /index.html HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "",
+                "");
+        final var protocol = new Http11Protocol();
+        protocol.setMaxKeepAliveRequests(2);
+
+        final var socket = new StubSocket(request + request);
+        final Http11Processor processor = new Http11Processor(socket, protocol);
+
+        // when
+        processor.process(socket);
+
+        // then
+        final URL resource = getClass().getClassLoader().getResource("static/index.html");
+        final String body = new String(Files.readAllBytes(new File(resource.getFile()).toPath()));
+        assertThat(withoutDate(socket.output())).endsWith("Content-Length: 5564 \r\n" +
+                "ETag: " + ETags.of(new File(resource.getFile()).toPath()) + " \r\n" +
+                "Last-Modified: " + FastHttpDateFormat.formatDate(new File(resource.getFile()).lastModified()) + " \r\n" +
+                "Accept-Ranges: bytes \r\n" +
+                "Vary: Accept-Encoding \r\n" +
+                "Connection: close \r\n" +
+                "\r\n" +
+                body);
+        assertThat(socket.output().split("HTTP/1.1 200 OK", -1)).hasSize(3);
+    }
+
+    @Test
+    void gzip() throws IOException {
+        // given
+        final String httpRequest = String.join("\r\n",
+                "GET /css/styles.css HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Accept-Encoding: gzip, deflate, br ",
+                "Connection: close ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        final byte[] output = socket.outputBytes();
+        final String head = new String(output, StandardCharsets.ISO_8859_1).split("\r\n\r\n", 2)[0];
+        final byte[] body = Arrays.copyOfRange(output, head.length() + 4, output.length);
+        final URL resource = getClass().getClassLoader().getResource("static/css/styles.css");
+
+        assertThat(head).contains("Content-Encoding: gzip \r\n");
+        assertThat(head).contains("Vary: Accept-Encoding \r\n");
+        assertThat(head).contains("Content-Length: " + body.length + " \r\n");
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes())
+                .isEqualTo(Files.readAllBytes(new File(resource.getFile()).toPath()));
+    }
+
+    @Test
+    void gzipRefused() {
+        // given
+        final String httpRequest = String.join("\r\n",
+                "GET /css/styles.css HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Accept-Encoding: gzip;q=0, identity ",
+                "Connection: close ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        assertThat(socket.output()).doesNotContain("Content-Encoding");
+        assertThat(socket.output()).contains("Content-Length: 211991 \r\n");
+    }
+
+    @Test
+    void notModified() throws IOException {
+        // given
+        final URL resource = getClass().getClassLoader().getResource("static/css/styles.css");
+        final String etag = ETags.of(new File(resource.getFile()).toPath());
+        final String request = String.join("\r\n",
+                "GET /css/styles.css HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "If-None-Match: \"stale\", " + etag + " ",
+                "",
+                "");
+        final var protocol = new Http11Protocol();
+        protocol.setMaxKeepAliveRequests(2);
+
+        final var socket = new StubSocket(request + request);
+        final Http11Processor processor = new Http11Processor(socket, protocol);
+
+        // when
+        processor.process(socket);
+
+        // then
+        final var notModified = "HTTP/1.1 304 Not Modified \r\n" +
+                "ETag: " + etag + " \r\n" +
+                "Vary: Accept-Encoding \r\n";
+        assertThat(withoutDate(socket.output())).isEqualTo(notModified + "\r\n" +
+                notModified + "Connection: close \r\n\r\n");
+    }
+
+    @Test
+    void gzipETag() throws IOException {
+        // given
+        final URL resource = getClass().getClassLoader().getResource("static/css/styles.css");
+        final String etag = ETags.of(new File(resource.getFile()).toPath());
+        final String httpRequest = String.join("\r\n",
+                "GET /css/styles.css HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Accept-Encoding: gzip ",
+                "If-None-Match: " + etag + " ",
+                "Connection: close ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        final String gzipETag = etag.substring(0, etag.length() - 1) + "-gzip\"";
+        assertThat(socket.output()).startsWith("HTTP/1.1 200 OK \r\n");
+        assertThat(socket.output()).contains("ETag: " + gzipETag + " \r\n");
+    }
+
+    @Test
+    void ifModifiedSince() {
+        // given
+        final URL resource = getClass().getClassLoader().getResource("static/css/styles.css");
+        final long lastModified = new File(resource.getFile()).lastModified();
+        final String request = String.join("\r\n",
+                "GET /css/styles.css HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "If-Modified-Since: " + FastHttpDateFormat.formatDate(lastModified) + " ",
+                "",
+                "GET /css/styles.css HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "If-Modified-Since: " + FastHttpDateFormat.formatDate(lastModified - 1000) + " ",
+                "Connection: close ",
+                "",
+                "");
+
+        final var socket = new StubSocket(request);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        final String[] responses = socket.output().split("HTTP/1.1 200 OK \r\n", -1);
+        assertThat(responses).hasSize(2);
+        assertThat(responses[0]).startsWith("HTTP/1.1 304 Not Modified \r\n");
+        assertThat(responses[0]).doesNotContain("Content-Length");
+        assertThat(responses[1]).contains("Content-Length: 211991 \r\n");
+    }
+
+    @Test
+    void singleRange() throws IOException {
+        // given
+        final String httpRequest = String.join("\r\n",
+                "GET /css/styles.css HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Accept-Encoding: gzip ",
+                "Range: bytes=100-199 ",
+                "Connection: close ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        final byte[] file = Files.readAllBytes(
+                new File(getClass().getClassLoader().getResource("static/css/styles.css").getFile()).toPath());
+        final String output = socket.output();
+        assertThat(output).startsWith("HTTP/1.1 206 Partial Content \r\n");
+        assertThat(output).contains("Content-Length: 100 \r\n");
+        assertThat(output).contains("Content-Range: bytes 100-199/211991 \r\n");
+        assertThat(output).doesNotContain("Content-Encoding");
+        assertThat(output).endsWith("\r\n\r\n" + new String(Arrays.copyOfRange(file, 100, 200), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void multipleRanges() {
+        // given
+        final String httpRequest = String.join("\r\n",
+                "GET /index.html HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Range: bytes=0-14, -10 ",
+                "Connection: close ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        final String output = socket.output();
+        final String body = output.split("\r\n\r\n", 2)[1];
+        assertThat(output).startsWith("HTTP/1.1 206 Partial Content \r\n");
+        assertThat(output).contains("Content-Type: multipart/byteranges; boundary=TOMCAT_MIME_BOUNDARY \r\n");
+        assertThat(output).contains("Content-Length: " + body.length() + " \r\n");
+        assertThat(body).contains("Content-Range: bytes 0-14/5564\r\n\r\n<!DOCTYPE html>");
+        assertThat(body).contains("Content-Range: bytes 5554-5563/5564\r\n\r\n");
+        assertThat(body).endsWith("\r\n--TOMCAT_MIME_BOUNDARY--\r\n");
+    }
+
+    @Test
+    void unsatisfiableRange() {
+        // given
+        final String httpRequest = String.join("\r\n",
+                "GET /index.html HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Range: bytes=6000- ",
+                "Connection: close ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        assertThat(socket.output()).startsWith("HTTP/1.1 416 Range Not Satisfiable \r\n");
+        assertThat(socket.output()).contains("Content-Range: bytes */5564 \r\n");
+    }
+
+    @Test
+    void staleIfRange() {
+        // given
+        final String httpRequest = String.join("\r\n",
+                "GET /index.html HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Range: bytes=0-9 ",
+                "If-Range: \"stale\" ",
+                "Connection: close ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        assertThat(socket.output()).startsWith("HTTP/1.1 200 OK \r\n");
+        assertThat(socket.output()).contains("Content-Length: 5564 \r\n");
+    }
+
+    @Test
+    void staleIfRangeIsAnsweredFromTheCache() {
+        // given
+        final String get = String.join("\r\n",
+                "GET /index.html HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "",
+                "");
+        final String staleRange = String.join("\r\n",
+                "GET /index.html HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Range: bytes=0-9 ",
+                "If-Range: \"stale\" ",
+                "Connection: close ",
+                "",
+                "");
+
+        final var adapter = new CoyoteAdapter();
+        final var socket = new StubSocket(get + staleRange);
+        final Http11Processor processor = new Http11Processor(socket, new Http11Protocol(adapter));
+
+        // when
+        processor.process(socket);
+
+        // then
+        assertThat(socket.output().split("HTTP/1.1 200 OK", -1)).hasSize(3);
+        assertThat(socket.output().split("Content-Length: 5564 ", -1)).hasSize(3);
+        assertThat(adapter.getCache().getHitCount()).isEqualTo(1L);
+        assertThat(adapter.getCache().getEntryCount()).isEqualTo(1);
+    }
+
+    @Test
+    void headSendsOnlyTheHeadersOfTheGetAndKeepsTheConnectionInStep() throws IOException {
+        // given
+        final String head = String.join("\r\n",
+                "HEAD /index.html HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "",
+                "");
+        final String get = String.join("\r\n",
+                "GET / HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Connection: close ",
+                "",
+                "");
+
+        // 두 번째 HEAD 는 캐시된 응답에서 머리만 보낸다.
+        final var socket = new StubSocket(head + head + get);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        final URL resource = getClass().getClassLoader().getResource("static/index.html");
+        final String headers = "HTTP/1.1 200 OK \r\n" +
+                "Content-Type: text/html;charset=utf-8 \r\n" +
+                "Content-Length: 5564 \r\n" +
+                "ETag: " + ETags.of(new File(resource.getFile()).toPath()) + " \r\n" +
+                "Last-Modified: " + FastHttpDateFormat.formatDate(new File(resource.getFile()).lastModified()) + " \r\n" +
+                "Accept-Ranges: bytes \r\n" +
+                "Vary: Accept-Encoding \r\n" +
+                "\r\n";
+        assertThat(withoutDate(socket.output())).isEqualTo(headers + headers +
+                "HTTP/1.1 200 OK \r\n" +
+                "Content-Type: text/html;charset=utf-8 \r\n" +
+                "Content-Length: 12 \r\n" +
+                "Connection: close \r\n" +
+                "\r\n" +
+                "Hello world!");
+    }
+
+    @Test
+    void staticFilesAllowHead() {
+        // given
+        final String httpRequest = String.join("\r\n",
+                "POST /index.html HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Content-Length: 0 ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final Http11Processor processor = new Http11Processor(socket);
+
+        // when
+        processor.process(socket);
+
+        // then
+        assertThat(socket.output()).startsWith("HTTP/1.1 405 Method Not Allowed \r\n");
+        assertThat(socket.output()).contains("Allow: GET, HEAD \r\n");
+    }
+
+    @Test
+    void serviceUnavailableWhenTheAdapterIsOverloaded() {
+        // given
+        final String httpRequest = String.join("\r\n",
+                "POST /login HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Content-Length: 0 ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final var protocol = new Http11Protocol((request, response) -> {
+            throw new RejectedExecutionException("password queue is full");
+        });
+        final Http11Processor processor = new Http11Processor(socket, protocol);
+
+        // when
+        processor.process(socket);
+
+        // then
+        assertThat(socket.output()).startsWith("HTTP/1.1 503 Service Unavailable \r\n");
+        assertThat(socket.output()).contains("Retry-After: 1 \r\n");
+        assertThat(socket.output()).contains("Content-Length: 0 \r\n");
+    }
+
+    @Test
+    void headerValueWithALineBreakIsAnInternalError() {
+        // given
+        final String httpRequest = String.join("\r\n",
+                "GET /redirect HTTP/1.1 ",
+                "Host: localhost:8080 ",
+                "Connection: close ",
+                "",
+                "");
+
+        final var socket = new StubSocket(httpRequest);
+        final var protocol = new Http11Protocol((request, response) ->
+                response.sendRedirect("/index.html\r\nSet-Cookie: JSESSIONID=evil"));
+        final Http11Processor processor = new Http11Processor(socket, protocol);
+
+        // when
+        processor.process(socket);
+
+        // then
+        assertThat(socket.output()).startsWith("HTTP/1.1 500 Internal Server Error \r\n");
+        assertThat(socket.output()).doesNotContain("Set-Cookie");
+    }
+
+    /**
+     * Every response carries the current date; check that it is there and
+     * remove it so the rest can be compared exactly.
+     */
+    private static String withoutDate(final String output) {
+        assertThat(output).matches("(?s).*Date: \\w{3}, \\d{2} \\w{3} \\d{4} \\d{2}:\\d{2}:\\d{2} GMT \r\n.*");
+        return output.replaceAll("Date: [^\r\n]* \r\n", "");
     }
 }
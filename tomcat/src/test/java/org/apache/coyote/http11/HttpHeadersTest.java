@@ -0,0 +1,54 @@
+package org.apache.coyote.http11;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpHeadersTest {
+
+    @Test
+    void trackEveryKnownHeader() {
+        final var headers = new HttpHeaders();
+        final ByteBuffer buffer = ByteBuffer.wrap("value".getBytes(StandardCharsets.ISO_8859_1));
+
+        for (final HeaderName name : HeaderName.values()) {
+            assertThat(headers.add(name, buffer, 0, 0, 0, 5)).isTrue();
+        }
+
+        assertThat(headers.size()).isEqualTo(HeaderName.values().length);
+        for (final HeaderName name : HeaderName.values()) {
+            assertThat(headers.getHeader(name)).isEqualTo("value");
+            assertThat(headers.add(name, buffer, 0, 0, 0, 5)).isFalse();
+        }
+    }
+
+    @Test
+    void lookUpEveryKnownNameIgnoringCase() {
+        for (final HeaderName name : HeaderName.values()) {
+            final String upper = name.getName().toUpperCase();
+            final ByteBuffer buffer = ByteBuffer.wrap(upper.getBytes(StandardCharsets.ISO_8859_1));
+
+            assertThat(HeaderName.lookup(upper)).isSameAs(name);
+            assertThat(HeaderName.lookup(buffer, 0, upper.length())).isSameAs(name);
+        }
+        assertThat(HeaderName.lookup("X-Unknown")).isNull();
+    }
+
+    @Test
+    void forgetAllHeadersOnRecycle() {
+        final var headers = new HttpHeaders();
+        final ByteBuffer buffer = ByteBuffer.wrap("value".getBytes(StandardCharsets.ISO_8859_1));
+        final HeaderName last = HeaderName.values()[HeaderName.values().length - 1];
+        headers.add(HeaderName.values()[0], buffer, 0, 0, 0, 5);
+        headers.add(last, buffer, 0, 0, 0, 5);
+
+        headers.recycle();
+
+        assertThat(headers.size()).isEqualTo(0);
+        assertThat(headers.getValue(last)).isNull();
+        assertThat(headers.add(last, buffer, 0, 0, 0, 5)).isTrue();
+    }
+}
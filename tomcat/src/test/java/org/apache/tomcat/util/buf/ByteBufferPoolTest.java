@@ -0,0 +1,91 @@
+package org.apache.tomcat.util.buf;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ByteBufferPoolTest {
+
+    @Test
+    void roundUpToSizeClassAndReuseFromThreadCache() {
+        final var pool = new ByteBufferPool(1024 * 1024, 64 * 1024, false);
+
+        final ByteBuffer first = pool.acquire(5000);
+        first.put((byte) 1);
+        pool.release(first);
+        final ByteBuffer second = pool.acquire(6000);
+
+        assertThat(first.isDirect()).isTrue();
+        assertThat(first.capacity()).isEqualTo(8192);
+        assertThat(second).isSameAs(first);
+        assertThat(second.position()).isEqualTo(0);
+        assertThat(pool.getAllocationCount()).isEqualTo(1L);
+        assertThat(pool.getReuseCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void releaseToSharedQueueWithoutThreadCache() {
+        final var pool = new ByteBufferPool(1024 * 1024, 0, false);
+        final ByteBuffer buffer = pool.acquire(4096);
+
+        pool.release(buffer);
+
+        assertThat(pool.getIdleMemory()).isEqualTo(4096L);
+        assertThat(pool.acquire(4096)).isSameAs(buffer);
+        assertThat(pool.getIdleMemory()).isEqualTo(0L);
+    }
+
+    @Test
+    void fallBackToHeapBeyondMaxMemory() {
+        final var pool = new ByteBufferPool(16 * 1024, 0, false);
+
+        pool.acquire(8192);
+        pool.acquire(8192);
+        final ByteBuffer overflow = pool.acquire(8192);
+        final ByteBuffer oversized = pool.acquire(ByteBufferPool.MAX_SIZE_CLASS + 1);
+
+        assertThat(overflow.isDirect()).isFalse();
+        assertThat(oversized.isDirect()).isFalse();
+        assertThat(pool.getAllocatedMemory()).isEqualTo(16 * 1024L);
+        assertThat(pool.getFallbackCount()).isEqualTo(2L);
+    }
+
+    @Test
+    void dropIdleBuffersOfOtherClassesToMakeRoom() {
+        final var pool = new ByteBufferPool(16 * 1024, 0, false);
+        pool.release(pool.acquire(16 * 1024));
+
+        final ByteBuffer buffer = pool.acquire(8192);
+
+        assertThat(buffer.isDirect()).isTrue();
+        assertThat(pool.getAllocatedMemory()).isEqualTo(8192L);
+        assertThat(pool.getIdleMemory()).isEqualTo(0L);
+    }
+
+    @Test
+    void ignoreSecondReleaseWithLeakDetection() {
+        final var pool = new ByteBufferPool(1024 * 1024, 0, true);
+        final ByteBuffer buffer = pool.acquire(4096);
+
+        pool.release(buffer);
+        pool.release(buffer);
+
+        assertThat(pool.getIdleMemory()).isEqualTo(4096L);
+    }
+
+    @Test
+    void reportBufferCollectedWithoutRelease() throws InterruptedException {
+        final var pool = new ByteBufferPool(1024 * 1024, 0, true);
+        pool.acquire(4096);
+
+        for (int i = 0; i < 50 && pool.getLeakCount() == 0; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertThat(pool.getLeakCount()).isEqualTo(1L);
+        assertThat(pool.getAllocatedMemory()).isEqualTo(0L);
+    }
+}
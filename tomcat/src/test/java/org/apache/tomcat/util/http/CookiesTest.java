@@ -0,0 +1,30 @@
+package org.apache.tomcat.util.http;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CookiesTest {
+
+    @Test
+    void findTheFirstCookieWithTheName() {
+        final String header = "theme=dark; JSESSIONID=\"abc\"; JSESSIONID=def";
+
+        assertThat(Cookies.getValue(header, "JSESSIONID")).isEqualTo("abc");
+        assertThat(Cookies.getValue(header, "theme")).isEqualTo("dark");
+        assertThat(Cookies.getValue(header, "missing")).isNull();
+        assertThat(Cookies.getValue("flag; JSESSIONID=abc", "JSESSIONID")).isEqualTo("abc");
+    }
+
+    @Test
+    void scanLongHeadersWithoutValuesInLinearTime() {
+        final String header = "a;".repeat(1024 * 1024) + "JSESSIONID=abc";
+
+        final long start = System.nanoTime();
+        final String value = Cookies.getValue(header, "JSESSIONID");
+        final long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(value).isEqualTo("abc");
+        assertThat(elapsedMillis).isLessThan(2_000L);
+    }
+}
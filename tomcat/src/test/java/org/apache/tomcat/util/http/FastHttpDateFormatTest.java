@@ -0,0 +1,36 @@
+package org.apache.tomcat.util.http;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FastHttpDateFormatTest {
+
+    private static final long NOV_6_1994 = 784111777000L;
+
+    @Test
+    void formatDate() {
+        assertThat(FastHttpDateFormat.formatDate(NOV_6_1994)).isEqualTo("Sun, 06 Nov 1994 08:49:37 GMT");
+        assertThat(FastHttpDateFormat.formatDate(NOV_6_1994 + 999)).isSameAs(FastHttpDateFormat.formatDate(NOV_6_1994));
+    }
+
+    @Test
+    void parseDate() {
+        assertThat(FastHttpDateFormat.parseDate("Sun, 06 Nov 1994 08:49:37 GMT")).isEqualTo(NOV_6_1994);
+        assertThat(FastHttpDateFormat.parseDate("Sunday, 06-Nov-94 08:49:37 GMT")).isEqualTo(NOV_6_1994);
+        assertThat(FastHttpDateFormat.parseDate("Sun Nov  6 08:49:37 1994")).isEqualTo(NOV_6_1994);
+        assertThat(FastHttpDateFormat.parseDate("yesterday")).isEqualTo(-1L);
+        assertThat(FastHttpDateFormat.parseDate(null)).isEqualTo(-1L);
+    }
+
+    @Test
+    void currentDateIsShared() {
+        final String first = FastHttpDateFormat.getCurrentDate();
+        final String second = FastHttpDateFormat.getCurrentDate();
+
+        assertThat(FastHttpDateFormat.parseDate(first)).isLessThanOrEqualTo(System.currentTimeMillis());
+        if (first.equals(second)) {
+            assertThat(second).isSameAs(first);
+        }
+    }
+}
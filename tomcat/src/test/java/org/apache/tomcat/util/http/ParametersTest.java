@@ -0,0 +1,40 @@
+package org.apache.tomcat.util.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParametersTest {
+
+    @Test
+    void parsePairsInOrder() {
+        final Map<String, String> parameters = Parameters.parse("account=gugu&password=p%40ss&flag&account=other&=x");
+
+        assertThat(parameters.get("account")).isEqualTo("gugu");
+        assertThat(parameters.get("password")).isEqualTo("p@ss");
+        assertThat(parameters.get("flag")).isEqualTo("");
+        assertThat(parameters.get("")).isEqualTo("x");
+        assertThat(parameters).hasSize(4);
+    }
+
+    @Test
+    void findTheEqualsSignOnlyWithinThePair() {
+        assertThat(Parameters.parse("flag&name=value").get("flag")).isEqualTo("");
+        assertThat(Parameters.parse("bad%zz=1&good=2")).isEqualTo(Map.of("good", "2"));
+    }
+
+    @Test
+    void parseLongInputWithoutValuesInLinearTime() {
+        final String encoded = "a&".repeat(1024 * 1024);
+
+        final long start = System.nanoTime();
+        final Map<String, String> parameters = Parameters.parse(encoded);
+        final long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(parameters).hasSize(1);
+        // 쌍마다 입력 끝까지 '=' 를 찾으면 2MB 에 수십 초가 걸린다.
+        assertThat(elapsedMillis).isLessThan(2_000L);
+    }
+}
@@ -0,0 +1,56 @@
+package org.apache.tomcat.util.http;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RangesTest {
+
+    @Test
+    void parseRanges() {
+        final var ranges = Ranges.parse("bytes=0-99, 500-599, -50", 1000);
+
+        assertThat(ranges.getRanges()).hasSize(3);
+        assertThat(ranges.getRanges().get(0).toContentRange(1000)).isEqualTo("bytes 0-99/1000");
+        assertThat(ranges.getRanges().get(1).toContentRange(1000)).isEqualTo("bytes 500-599/1000");
+        assertThat(ranges.getRanges().get(2).toContentRange(1000)).isEqualTo("bytes 950-999/1000");
+    }
+
+    @Test
+    void coalesceOverlappingAndAdjacentRangesInOrder() {
+        final var ranges = Ranges.parse("bytes=500-, -50, 0-99, 100-149, 120-130", 1000);
+
+        assertThat(ranges.getRanges()).hasSize(2);
+        assertThat(ranges.getRanges().get(0).toContentRange(1000)).isEqualTo("bytes 0-149/1000");
+        assertThat(ranges.getRanges().get(1).toContentRange(1000)).isEqualTo("bytes 500-999/1000");
+    }
+
+    @Test
+    void ignoreRangesAskingForMoreThanTheWhole() {
+        assertThat(Ranges.parse("bytes=" + "0-,".repeat(Ranges.MAX_RANGES - 1) + "0-", 1000)).isNull();
+        assertThat(Ranges.parse("bytes=0-599, 400-999", 1000)).isNull();
+        assertThat(Ranges.parse("bytes=0-499, 400-899", 1000).getRanges()).hasSize(1);
+    }
+
+    @Test
+    void clampToLength() {
+        assertThat(Ranges.parse("bytes=900-2000", 1000).getRanges().get(0).getEnd()).isEqualTo(999L);
+        assertThat(Ranges.parse("bytes=-5000", 1000).getRanges().get(0).getStart()).isEqualTo(0L);
+        // 합치면 전체보다 많은 바이트를 요구하므로 헤더를 무시한다.
+        assertThat(Ranges.parse("bytes=900-2000, -5000", 1000)).isNull();
+    }
+
+    @Test
+    void unsatisfiable() {
+        assertThat(Ranges.parse("bytes=1000-", 1000).isSatisfiable()).isFalse();
+        assertThat(Ranges.parse("bytes=-0", 1000).isSatisfiable()).isFalse();
+    }
+
+    @Test
+    void ignoredHeaders() {
+        assertThat(Ranges.parse("items=0-1", 1000)).isNull();
+        assertThat(Ranges.parse("bytes=5-1", 1000)).isNull();
+        assertThat(Ranges.parse("bytes=a-b", 1000)).isNull();
+        assertThat(Ranges.parse("bytes=" + "0-0,".repeat(Ranges.MAX_RANGES) + "0-0", 1000)).isNull();
+    }
+}
@@ -0,0 +1,140 @@
+package org.apache.tomcat.util.net;
+
+import org.apache.catalina.core.StandardThreadExecutor;
+import org.apache.coyote.http11.Http11Protocol;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NioEndpointTest {
+
+    private static final String GET = "GET /first HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+    private final StandardThreadExecutor executor = new StandardThreadExecutor("nio-test", 4, 1, 10,
+            Duration.ofSeconds(10));
+    private final Http11Protocol protocol = new Http11Protocol((request, response) -> response.setBody(
+            ("uri=" + request.getRequestURI() + " body=" + new String(request.getBody(), StandardCharsets.UTF_8))
+                    .getBytes(StandardCharsets.UTF_8), "text/plain;charset=utf-8"));
+    private final NioEndpoint endpoint = new NioEndpoint(0, 100, executor, protocol);
+
+    NioEndpointTest() {
+        endpoint.start();
+    }
+
+    @AfterEach
+    void stop() {
+        endpoint.stop();
+        executor.stop();
+    }
+
+    @Test
+    void keepTheConnectionOpenBetweenRequests() throws IOException {
+        try (final Socket socket = connect()) {
+            send(socket, GET);
+            assertThat(readResponse(socket.getInputStream())).contains("uri=/first body=");
+
+            send(socket, GET.replace("/first", "/second"));
+            assertThat(readResponse(socket.getInputStream())).contains("uri=/second body=");
+        }
+    }
+
+    @Test
+    void answerPipelinedRequestsInOrder() throws IOException {
+        try (final Socket socket = connect()) {
+            send(socket, GET + GET.replace("/first", "/second") + GET.replace("/first", "/third"));
+
+            final InputStream in = socket.getInputStream();
+            assertThat(readResponse(in)).contains("uri=/first body=");
+            assertThat(readResponse(in)).contains("uri=/second body=");
+            assertThat(readResponse(in)).contains("uri=/third body=");
+        }
+    }
+
+    @Test
+    void assembleARequestFromPartialReads() throws IOException, InterruptedException {
+        final String request = "POST /form HTTP/1.1\r\nHost: localhost\r\nContent-Length: 11\r\n\r\nhello world";
+        try (final Socket socket = connect()) {
+            for (final String part : new String[]{request.substring(0, 7), request.substring(7, 30),
+                    request.substring(30, request.length() - 5), request.substring(request.length() - 5)}) {
+                send(socket, part);
+                Thread.sleep(100);
+            }
+
+            assertThat(readResponse(socket.getInputStream())).contains("uri=/form body=hello world");
+        }
+    }
+
+    @Test
+    void closeConnectionsIdleLongerThanTheKeepAliveTimeout() throws IOException {
+        protocol.setKeepAliveTimeout(Duration.ofMillis(300));
+        try (final Socket socket = connect()) {
+            send(socket, GET);
+            readResponse(socket.getInputStream());
+            socket.setSoTimeout(5_000);
+
+            final long start = System.nanoTime();
+            final int read;
+            try {
+                read = socket.getInputStream().read();
+            } catch (SocketTimeoutException e) {
+                throw new AssertionError("idle connection was not closed", e);
+            }
+
+            assertThat(read).isEqualTo(-1);
+            // 폴러는 1초마다 유휴 연결을 확인한다.
+            assertThat((System.nanoTime() - start) / 1_000_000).isLessThan(3_000L);
+        }
+    }
+
+    @Test
+    void backOffAfterRepeatedAcceptFailures() {
+        assertThat(endpoint.handleExceptionWithDelay(0)).isEqualTo(50);
+        assertThat(endpoint.handleExceptionWithDelay(50)).isEqualTo(100);
+        assertThat(endpoint.handleExceptionWithDelay(1600)).isEqualTo(1600);
+    }
+
+    private Socket connect() throws IOException {
+        final var socket = new Socket(InetAddress.getLoopbackAddress(), endpoint.getLocalPort());
+        socket.setSoTimeout(5_000);
+        return socket;
+    }
+
+    private static void send(final Socket socket, final String data) throws IOException {
+        final OutputStream out = socket.getOutputStream();
+        out.write(data.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    /**
+     * Read one response, delimited by its Content-Length.
+     */
+    private static String readResponse(final InputStream in) throws IOException {
+        final var head = new ByteArrayOutputStream();
+        int matched = 0;
+        while (matched < 4) {
+            final int b = in.read();
+            if (b < 0) {
+                throw new IOException("connection closed in the middle of a response: " + head);
+            }
+            head.write(b);
+            matched = (b == "\r\n\r\n".charAt(matched)) ? matched + 1 : (b == '\r' ? 1 : 0);
+        }
+        final String headers = head.toString(StandardCharsets.ISO_8859_1);
+        final var matcher = Pattern.compile("Content-Length: (\\d+)").matcher(headers);
+        assertThat(matcher.find()).isTrue();
+        final byte[] body = in.readNBytes(Integer.parseInt(matcher.group(1)));
+        return headers + new String(body, StandardCharsets.UTF_8);
+    }
+}
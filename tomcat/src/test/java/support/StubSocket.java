@@ -13,6 +13,7 @@ public class StubSocket extends Socket {
 
     private final String request;
     private final ByteArrayOutputStream outputStream;
+    private int writeCount;
 
     public StubSocket(final String request) {
         this.request = request;
@@ -45,10 +46,24 @@ public class StubSocket extends Socket {
             public void write(int b) {
                 outputStream.write(b);
             }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                writeCount++;
+                outputStream.write(b, off, len);
+            }
         };
     }
 
+    public byte[] outputBytes() {
+        return outputStream.toByteArray();
+    }
+
     public String output() {
         return outputStream.toString(StandardCharsets.UTF_8);
     }
+
+    public int writeCount() {
+        return writeCount;
+    }
 }